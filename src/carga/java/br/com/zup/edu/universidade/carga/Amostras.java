@@ -0,0 +1,64 @@
+package br.com.zup.edu.universidade.carga;
+
+import java.util.Arrays;
+
+/**
+ * Latencias e status de uma operacao, coletados por um unico trabalhador e depois somados.
+ */
+class Amostras {
+    private long[] latencias = new long[1024];
+    private int quantidade;
+    long sucessos;
+    long errosDoCliente;
+    long errosDoServidor;
+    long falhas;
+
+    void registrar(int status, long latenciaEmNanos) {
+        if (quantidade == latencias.length) {
+            latencias = Arrays.copyOf(latencias, quantidade * 2);
+        }
+        latencias[quantidade++] = latenciaEmNanos;
+
+        if (status < 400) {
+            sucessos++;
+        } else if (status < 500) {
+            errosDoCliente++;
+        } else {
+            errosDoServidor++;
+        }
+    }
+
+    void falhou() {
+        falhas++;
+    }
+
+    void somar(Amostras outras) {
+        if (quantidade + outras.quantidade > latencias.length) {
+            latencias = Arrays.copyOf(latencias, quantidade + outras.quantidade);
+        }
+        System.arraycopy(outras.latencias, 0, latencias, quantidade, outras.quantidade);
+        quantidade += outras.quantidade;
+        sucessos += outras.sucessos;
+        errosDoCliente += outras.errosDoCliente;
+        errosDoServidor += outras.errosDoServidor;
+        falhas += outras.falhas;
+    }
+
+    long total() {
+        return quantidade + falhas;
+    }
+
+    /**
+     * Percentil pelo metodo do posto mais proximo, em milissegundos.
+     */
+    double percentil(double p) {
+        if (quantidade == 0) {
+            return 0;
+        }
+
+        long[] ordenadas = Arrays.copyOf(latencias, quantidade);
+        Arrays.sort(ordenadas);
+        int posicao = (int) Math.ceil(p / 100 * quantidade) - 1;
+        return ordenadas[Math.max(posicao, 0)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,132 @@
+package br.com.zup.edu.universidade.carga;
+
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Conta os comandos SQL executados por requisicao, no nivel do JDBC, e agrupa por endpoint
+ * (metodo HTTP + padrao do mapeamento). Pega tanto o que passa pelo Hibernate quanto o que
+ * passa pelo JdbcTemplate; um executeBatch conta como um comando.
+ */
+class ContadorDeSql implements Filter {
+    private static final ThreadLocal<int[]> REQUISICAO_ATUAL = new ThreadLocal<>();
+
+    private final Map<String, Contagem> porEndpoint = new ConcurrentHashMap<>();
+
+    DataSource contar(DataSource dataSource) {
+        return proxy(DataSource.class, dataSource, (alvo, metodo, resultado) -> {
+            if (resultado instanceof Connection) {
+                return contarConexao((Connection) resultado);
+            }
+            return resultado;
+        });
+    }
+
+    private Connection contarConexao(Connection conexao) {
+        return proxy(Connection.class, conexao, (alvo, metodo, resultado) -> {
+            if (resultado instanceof Statement) {
+                return contarComando((Statement) resultado, metodo.getReturnType());
+            }
+            return resultado;
+        });
+    }
+
+    private Object contarComando(Statement comando, Class<?> tipo) {
+        return proxy(tipo, comando, (alvo, metodo, resultado) -> resultado, metodo -> {
+            int[] contador = REQUISICAO_ATUAL.get();
+            if (contador != null && metodo.getName().startsWith("execute")) {
+                contador[0]++;
+            }
+        });
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
+        int[] contador = new int[1];
+        REQUISICAO_ATUAL.set(contador);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            REQUISICAO_ATUAL.remove();
+
+            Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (padrao != null) {
+                String endpoint = ((HttpServletRequest) request).getMethod() + " " + padrao;
+                porEndpoint.computeIfAbsent(endpoint, e -> new Contagem()).registrar(contador[0]);
+            }
+        }
+    }
+
+    Contagem de(String endpoint) {
+        return porEndpoint.getOrDefault(endpoint, new Contagem());
+    }
+
+    void zerar() {
+        porEndpoint.clear();
+    }
+
+    static class Contagem {
+        private final LongAdder requisicoes = new LongAdder();
+        private final LongAdder comandos = new LongAdder();
+        private final LongAccumulator maximo = new LongAccumulator(Math::max, 0);
+
+        private void registrar(int quantidade) {
+            requisicoes.increment();
+            comandos.add(quantidade);
+            maximo.accumulate(quantidade);
+        }
+
+        double media() {
+            long total = requisicoes.sum();
+            return total == 0 ? 0 : (double) comandos.sum() / total;
+        }
+
+        long maximo() {
+            return maximo.get();
+        }
+    }
+
+    private interface Embrulho {
+        Object embrulhar(Object alvo, Method metodo, Object resultado);
+    }
+
+    private interface AntesDaChamada {
+        void antes(Method metodo);
+    }
+
+    private static <T> T proxy(Class<T> tipo, T alvo, Embrulho embrulho) {
+        return tipo.cast(proxy(tipo, alvo, embrulho, metodo -> {
+        }));
+    }
+
+    private static Object proxy(Class<?> tipo, Object alvo, Embrulho embrulho, AntesDaChamada antes) {
+        InvocationHandler handler = (proxy, metodo, argumentos) -> {
+            antes.antes(metodo);
+            try {
+                return embrulho.embrulhar(alvo, metodo, metodo.invoke(alvo, argumentos));
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+
+        return Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, handler);
+    }
+}
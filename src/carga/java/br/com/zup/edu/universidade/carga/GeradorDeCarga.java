@@ -0,0 +1,104 @@
+package br.com.zup.edu.universidade.carga;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Simula {@code usuarios} clientes em paralelo, cada um fazendo uma requisicao sincrona por vez
+ * ate o fim do prazo, sem pausa entre elas. Em Java 21 ou superior cada cliente roda numa thread
+ * virtual, o que permite simular dezenas de milhares de clientes sem esgotar a memoria do gerador.
+ */
+class GeradorDeCarga {
+    private final String base;
+    private final Massa massa;
+    private final Mix mix;
+    private final int usuarios;
+    private final HttpClient cliente = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    GeradorDeCarga(String base, Massa massa, Mix mix, int usuarios) {
+        this.base = base;
+        this.massa = massa;
+        this.mix = mix;
+        this.usuarios = usuarios;
+    }
+
+    Map<Operacao, Amostras> executar(Duration duracao) throws Exception {
+        long prazo = System.nanoTime() + duracao.toNanos();
+
+        ExecutorService trabalhadores = trabalhadores();
+        try {
+            List<Future<Map<Operacao, Amostras>>> resultados = new ArrayList<>();
+            for (int i = 0; i < usuarios; i++) {
+                resultados.add(trabalhadores.submit(() -> simularUsuario(prazo)));
+            }
+
+            Map<Operacao, Amostras> total = new EnumMap<>(Operacao.class);
+            for (Future<Map<Operacao, Amostras>> resultado : resultados) {
+                resultado.get().forEach((operacao, amostras) -> total.computeIfAbsent(operacao, o -> new Amostras()).somar(amostras));
+            }
+            return total;
+        } finally {
+            trabalhadores.shutdownNow();
+        }
+    }
+
+    private ExecutorService trabalhadores() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(usuarios);
+        }
+    }
+
+    private Map<Operacao, Amostras> simularUsuario(long prazo) {
+        Map<Operacao, Amostras> porOperacao = new EnumMap<>(Operacao.class);
+
+        while (System.nanoTime() < prazo) {
+            Operacao operacao = mix.sortear();
+            Operacao.Chamada chamada = operacao.preparar(massa);
+            if (chamada == null) {
+                continue;
+            }
+
+            Amostras amostras = porOperacao.computeIfAbsent(operacao, o -> new Amostras());
+            long inicio = System.nanoTime();
+            try {
+                HttpResponse<Void> resposta = cliente.send(requisicao(chamada), HttpResponse.BodyHandlers.discarding());
+                amostras.registrar(resposta.statusCode(), System.nanoTime() - inicio);
+                chamada.aoResponder.accept(resposta);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                amostras.falhou();
+            }
+        }
+
+        return porOperacao;
+    }
+
+    private HttpRequest requisicao(Operacao.Chamada chamada) {
+        HttpRequest.BodyPublisher corpo = chamada.corpo == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(chamada.corpo);
+
+        return HttpRequest.newBuilder(URI.create(base + chamada.caminho))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .method(chamada.metodo, corpo)
+                .build();
+    }
+}
@@ -0,0 +1,64 @@
+package br.com.zup.edu.universidade.carga;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Ids gerados pelo {@link Semeador} e sorteados pelo {@link GeradorDeCarga}. As filas guardam o
+ * que pode ser removido uma unica vez: alunos descartaveis, matriculas e respostas enviadas.
+ * As matriculas nas turmas das avaliacoes ficam fora da fila, para que os alunos de cada
+ * avaliacao continuem podendo responde-la.
+ */
+class Massa {
+    final List<Long> idsTurmas;
+    final List<Long> idsAlunos;
+    final List<AvaliacaoSemeada> avaliacoes;
+    final Queue<Long> alunosRemoviveis = new ConcurrentLinkedQueue<>();
+    final Queue<long[]> matriculas = new ConcurrentLinkedQueue<>();
+    final Queue<long[]> respostas = new ConcurrentLinkedQueue<>();
+
+    Massa(List<Long> idsTurmas, List<Long> idsAlunos, List<AvaliacaoSemeada> avaliacoes) {
+        this.idsTurmas = idsTurmas;
+        this.idsAlunos = idsAlunos;
+        this.avaliacoes = avaliacoes;
+    }
+
+    long turma() {
+        return sortear(idsTurmas);
+    }
+
+    long aluno() {
+        return sortear(idsAlunos);
+    }
+
+    AvaliacaoSemeada avaliacao() {
+        return avaliacoes.get(ThreadLocalRandom.current().nextInt(avaliacoes.size()));
+    }
+
+    private static long sortear(List<Long> ids) {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    static class AvaliacaoSemeada {
+        final long id;
+        final long idTurma;
+        final List<Long> idsQuestoes;
+        final List<Long> idsAlunos = new ArrayList<>();
+
+        AvaliacaoSemeada(long id, long idTurma, List<Long> idsQuestoes) {
+            this.id = id;
+            this.idTurma = idTurma;
+            this.idsQuestoes = idsQuestoes;
+        }
+
+        /**
+         * @return nulo quando nenhum aluno esta matriculado na turma da avaliacao
+         */
+        Long aluno() {
+            return idsAlunos.isEmpty() ? null : sortear(idsAlunos);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package br.com.zup.edu.universidade.carga;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static br.com.zup.edu.universidade.carga.Operacao.*;
+
+/**
+ * Proporcoes de trafego. MATRICULA imita a abertura das inscricoes, PROVA uma semana de
+ * avaliacoes e MISTO um dia comum.
+ */
+enum Mix {
+    MATRICULA(Map.of(
+            MATRICULAR, 40,
+            MATRICULAR_EM_LOTE, 5,
+            DESMATRICULAR, 10,
+            LISTAR_ALUNOS_DA_TURMA, 25,
+            LISTAR_TURMAS_DO_ALUNO, 20
+    )),
+    PROVA(Map.of(
+            RESPONDER_AVALIACAO, 70,
+            CONSULTAR_NOTA, 20,
+            REMOVER_RESPOSTA, 5,
+            LISTAR_TURMAS_DO_ALUNO, 5
+    )),
+    MISTO(Map.of(
+            MATRICULAR, 15,
+            MATRICULAR_EM_LOTE, 2,
+            DESMATRICULAR, 5,
+            RESPONDER_AVALIACAO, 35,
+            CONSULTAR_NOTA, 10,
+            LISTAR_ALUNOS_DA_TURMA, 15,
+            LISTAR_TURMAS_DO_ALUNO, 10,
+            REMOVER_RESPOSTA, 5,
+            REMOVER_ALUNO, 3
+    ));
+
+    private final Operacao[] operacoes;
+    private final int[] pesosAcumulados;
+
+    Mix(Map<Operacao, Integer> pesos) {
+        Map<Operacao, Integer> ordenados = new EnumMap<>(pesos);
+        this.operacoes = ordenados.keySet().toArray(new Operacao[0]);
+        this.pesosAcumulados = new int[operacoes.length];
+
+        int total = 0;
+        for (int i = 0; i < operacoes.length; i++) {
+            total += ordenados.get(operacoes[i]);
+            pesosAcumulados[i] = total;
+        }
+    }
+
+    Operacao sortear() {
+        int sorteio = ThreadLocalRandom.current().nextInt(pesosAcumulados[pesosAcumulados.length - 1]);
+        for (int i = 0; i < pesosAcumulados.length; i++) {
+            if (sorteio < pesosAcumulados[i]) {
+                return operacoes[i];
+            }
+        }
+        throw new IllegalStateException();
+    }
+}
@@ -0,0 +1,145 @@
+package br.com.zup.edu.universidade.carga;
+
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * Endpoints exercitados pela carga. O nome de cada operacao e o padrao do mapeamento no
+ * Spring MVC, o mesmo usado pelo {@link ContadorDeSql} para agrupar os comandos SQL.
+ */
+enum Operacao {
+    MATRICULAR("POST /turmas/{id}/alunos") {
+        @Override
+        Chamada preparar(Massa massa) {
+            long idTurma = massa.turma();
+            long idAluno = massa.aluno();
+            return new Chamada("POST", "/turmas/" + idTurma + "/alunos", "{\"idAluno\":" + idAluno + "}", resposta -> {
+                if (resposta.statusCode() == 201) {
+                    massa.matriculas.add(new long[]{idTurma, idAluno});
+                }
+            });
+        }
+    },
+    MATRICULAR_EM_LOTE("POST /turmas/{id}/alunos:batch") {
+        @Override
+        Chamada preparar(Massa massa) {
+            StringJoiner ids = new StringJoiner(",", "{\"idsAlunos\":[", "]}");
+            for (int i = 0; i < 20; i++) {
+                ids.add(String.valueOf(massa.aluno()));
+            }
+            return new Chamada("POST", "/turmas/" + massa.turma() + "/alunos:batch", ids.toString());
+        }
+    },
+    DESMATRICULAR("DELETE /turmas/{idTurma}/alunos/{idAluno}") {
+        @Override
+        Chamada preparar(Massa massa) {
+            long[] matricula = massa.matriculas.poll();
+            if (matricula == null) {
+                return null;
+            }
+            return new Chamada("DELETE", "/turmas/" + matricula[0] + "/alunos/" + matricula[1], null);
+        }
+    },
+    RESPONDER_AVALIACAO("POST /alunos/{id}/avaliacoes/{idAvaliacao}/respostas") {
+        @Override
+        Chamada preparar(Massa massa) {
+            Massa.AvaliacaoSemeada avaliacao = massa.avaliacao();
+            Long idAluno = avaliacao.aluno();
+            if (idAluno == null) {
+                return null;
+            }
+
+            StringJoiner respostas = new StringJoiner(",", "{\"respostas\":[", "]}");
+            List<Long> idsQuestoes = avaliacao.idsQuestoes;
+            for (int i = 0; i < idsQuestoes.size(); i++) {
+                String resposta = ThreadLocalRandom.current().nextBoolean() ? "Resposta " + i : "Nao sei";
+                respostas.add("{\"idQuestao\":" + idsQuestoes.get(i) + ",\"resposta\":\"" + resposta + "\"}");
+            }
+
+            return new Chamada("POST", "/alunos/" + idAluno + "/avaliacoes/" + avaliacao.id + "/respostas", respostas.toString(), resposta -> {
+                if (resposta.statusCode() == 201) {
+                    resposta.headers().firstValue("Location").ifPresent(location -> massa.respostas.add(new long[]{
+                            idAluno,
+                            avaliacao.id,
+                            Long.parseLong(location.substring(location.lastIndexOf('/') + 1))
+                    }));
+                }
+            });
+        }
+    },
+    CONSULTAR_NOTA("GET /alunos/{id}/avaliacoes/{idAvaliacao}/nota") {
+        @Override
+        Chamada preparar(Massa massa) {
+            long[] resposta = massa.respostas.peek();
+            if (resposta == null) {
+                return null;
+            }
+            return new Chamada("GET", "/alunos/" + resposta[0] + "/avaliacoes/" + resposta[1] + "/nota", null);
+        }
+    },
+    LISTAR_ALUNOS_DA_TURMA("GET /turmas/{id}/alunos") {
+        @Override
+        Chamada preparar(Massa massa) {
+            return new Chamada("GET", "/turmas/" + massa.turma() + "/alunos", null);
+        }
+    },
+    LISTAR_TURMAS_DO_ALUNO("GET /alunos/{id}/turmas") {
+        @Override
+        Chamada preparar(Massa massa) {
+            return new Chamada("GET", "/alunos/" + massa.aluno() + "/turmas", null);
+        }
+    },
+    REMOVER_RESPOSTA("DELETE /aluno/{idAluno}/respostas/{idResposta}") {
+        @Override
+        Chamada preparar(Massa massa) {
+            long[] resposta = massa.respostas.poll();
+            if (resposta == null) {
+                return null;
+            }
+            return new Chamada("DELETE", "/aluno/" + resposta[0] + "/respostas/" + resposta[2], null);
+        }
+    },
+    REMOVER_ALUNO("DELETE /alunos/{id}") {
+        @Override
+        Chamada preparar(Massa massa) {
+            Long idAluno = massa.alunosRemoviveis.poll();
+            if (idAluno == null) {
+                return null;
+            }
+            return new Chamada("DELETE", "/alunos/" + idAluno, null);
+        }
+    };
+
+    final String endpoint;
+
+    Operacao(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * @return a chamada a ser feita, ou nulo quando a massa nao tem mais o que a operacao precisa
+     */
+    abstract Chamada preparar(Massa massa);
+
+    static class Chamada {
+        final String metodo;
+        final String caminho;
+        final String corpo;
+        final Consumer<HttpResponse<?>> aoResponder;
+
+        Chamada(String metodo, String caminho, String corpo) {
+            this(metodo, caminho, corpo, resposta -> {
+            });
+        }
+
+        Chamada(String metodo, String caminho, String corpo, Consumer<HttpResponse<?>> aoResponder) {
+            this.metodo = metodo;
+            this.caminho = caminho;
+            this.corpo = corpo;
+            this.aoResponder = aoResponder;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package br.com.zup.edu.universidade.carga;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Consolida latencias, vazao e comandos SQL por endpoint, grava o resultado em JSON e confere os
+ * limites de comandos por requisicao de {@code limites-de-sql.json}.
+ */
+class Relatorio {
+    private final List<Map<String, Object>> linhas = new ArrayList<>();
+    private final List<String> violacoes = new ArrayList<>();
+
+    Relatorio(Map<Operacao, Amostras> resultado, ContadorDeSql contador, Duration duracao) throws IOException {
+        Map<String, Double> limites = limites();
+        double segundos = duracao.toMillis() / 1000.0;
+
+        resultado.forEach((operacao, amostras) -> {
+            ContadorDeSql.Contagem sql = contador.de(operacao.endpoint);
+
+            Map<String, Object> linha = new LinkedHashMap<>();
+            linha.put("endpoint", operacao.endpoint);
+            linha.put("requisicoes", amostras.total());
+            linha.put("sucessos", amostras.sucessos);
+            linha.put("errosDoCliente", amostras.errosDoCliente);
+            linha.put("errosDoServidor", amostras.errosDoServidor);
+            linha.put("falhas", amostras.falhas);
+            linha.put("vazaoPorSegundo", amostras.total() / segundos);
+            linha.put("p50EmMs", amostras.percentil(50));
+            linha.put("p99EmMs", amostras.percentil(99));
+            linha.put("sqlPorRequisicao", sql.media());
+            linha.put("sqlMaximoPorRequisicao", sql.maximo());
+            linhas.add(linha);
+
+            Double limite = limites.get(operacao.endpoint);
+            if (limite != null && sql.media() > limite) {
+                violacoes.add(String.format(Locale.ROOT, "%s executou %.2f comandos SQL por requisicao (limite %.2f)",
+                        operacao.endpoint, sql.media(), limite));
+            }
+        });
+    }
+
+    void imprimir(PrintStream saida) {
+        saida.printf("%-58s %8s %6s %6s %9s %9s %9s %8s %7s%n",
+                "endpoint", "req", "4xx", "5xx", "req/s", "p50 ms", "p99 ms", "sql/req", "sql max");
+        for (Map<String, Object> linha : linhas) {
+            saida.printf(Locale.ROOT, "%-58s %8d %6d %6d %9.1f %9.2f %9.2f %8.2f %7d%n",
+                    linha.get("endpoint"),
+                    linha.get("requisicoes"),
+                    linha.get("errosDoCliente"),
+                    (long) linha.get("errosDoServidor") + (long) linha.get("falhas"),
+                    linha.get("vazaoPorSegundo"),
+                    linha.get("p50EmMs"),
+                    linha.get("p99EmMs"),
+                    linha.get("sqlPorRequisicao"),
+                    linha.get("sqlMaximoPorRequisicao"));
+        }
+        violacoes.forEach(violacao -> saida.println("LIMITE EXCEDIDO: " + violacao));
+    }
+
+    void gravar(File arquivo) throws IOException {
+        new ObjectMapper()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(arquivo, Map.of("endpoints", linhas, "violacoes", violacoes));
+    }
+
+    boolean dentroDosLimites() {
+        return violacoes.isEmpty();
+    }
+
+    private static Map<String, Double> limites() throws IOException {
+        try (InputStream arquivo = Relatorio.class.getResourceAsStream("/limites-de-sql.json")) {
+            if (arquivo == null) {
+                return Map.of();
+            }
+            return new ObjectMapper().readValue(arquivo, new TypeReference<>() {
+            });
+        }
+    }
+}
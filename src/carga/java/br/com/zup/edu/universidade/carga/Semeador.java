@@ -0,0 +1,146 @@
+package br.com.zup.edu.universidade.carga;
+
+import br.com.zup.edu.universidade.model.*;
+import br.com.zup.edu.universidade.repository.*;
+import org.springframework.context.ApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * Popula o banco pelos proprios repositorios da aplicacao, em transacoes de ate
+ * {@link #TAMANHO_DO_LOTE} entidades. As quantidades podem ser trocadas por propriedades de
+ * sistema, como {@code -Dcarga.alunos=50000}.
+ */
+class Semeador {
+    private static final int TAMANHO_DO_LOTE = 1000;
+
+    private final int professores = Integer.getInteger("carga.professores", 200);
+    private final int disciplinas = Integer.getInteger("carga.disciplinas", 200);
+    private final int turmas = Integer.getInteger("carga.turmas", 1000);
+    private final int alunos = Integer.getInteger("carga.alunos", 10000);
+    private final int alunosRemoviveis = Integer.getInteger("carga.alunos-removiveis", 2000);
+    private final int matriculasPorAluno = Integer.getInteger("carga.matriculas-por-aluno", 3);
+    private final int avaliacoes = Integer.getInteger("carga.avaliacoes", 100);
+    private final int questoesPorAvaliacao = Integer.getInteger("carga.questoes-por-avaliacao", 10);
+
+    private final TransactionTemplate transacao;
+    private final ProfessorRepository professorRepository;
+    private final DisciplinaRepository disciplinaRepository;
+    private final TurmaRepository turmaRepository;
+    private final AlunoRepository alunoRepository;
+    private final AvaliacaoRepository avaliacaoRepository;
+    private final MatriculaRepository matriculaRepository;
+
+    Semeador(ApplicationContext contexto) {
+        this.transacao = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+        this.professorRepository = contexto.getBean(ProfessorRepository.class);
+        this.disciplinaRepository = contexto.getBean(DisciplinaRepository.class);
+        this.turmaRepository = contexto.getBean(TurmaRepository.class);
+        this.alunoRepository = contexto.getBean(AlunoRepository.class);
+        this.avaliacaoRepository = contexto.getBean(AvaliacaoRepository.class);
+        this.matriculaRepository = contexto.getBean(MatriculaRepository.class);
+    }
+
+    Massa semear() {
+        List<Professor> professores = salvar(this.professores, i -> new Professor("Professor " + i, "P" + i), professorRepository::saveAll);
+        List<Disciplina> disciplinas = salvar(this.disciplinas, i -> new Disciplina("Disciplina " + i, "D" + i, "Ementa " + i, 60), disciplinaRepository::saveAll);
+
+        LocalDate inicio = LocalDate.now().plusMonths(1);
+        List<Turma> turmas = salvar(this.turmas, i -> new Turma(
+                disciplinas.get(i % disciplinas.size()),
+                inicio,
+                inicio.plusMonths(4),
+                professores.get(i % professores.size())
+        ), turmaRepository::saveAll);
+
+        List<Aluno> alunos = salvar(this.alunos, i -> new Aluno("Aluno " + i, "A" + i, LocalDate.of(2000, 1, 1)), alunoRepository::saveAll);
+        List<Aluno> removiveis = salvar(this.alunosRemoviveis, i -> new Aluno("Removivel " + i, "R" + i, LocalDate.of(2000, 1, 1)), alunoRepository::saveAll);
+
+        List<Avaliacao> avaliacoes = salvar(this.avaliacoes, i -> {
+            Set<Questao> questoes = new LinkedHashSet<>();
+            for (int q = 0; q < questoesPorAvaliacao; q++) {
+                questoes.add(new Questao("Questao " + q, "Resposta " + q, BigDecimal.ONE));
+            }
+            return new Avaliacao(turmas.get(i % turmas.size()), questoes);
+        }, avaliacaoRepository::saveAll);
+
+        Massa massa = new Massa(ids(turmas, Turma::getId), ids(alunos, Aluno::getId), semeadas(avaliacoes));
+        removiveis.forEach(aluno -> massa.alunosRemoviveis.add(aluno.getId()));
+
+        matricular(massa, ids(removiveis, Aluno::getId));
+
+        return massa;
+    }
+
+    private void matricular(Massa massa, List<Long> removiveis) {
+        Map<Long, Set<Long>> porTurma = new HashMap<>();
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+
+        Set<Long> descartaveis = new HashSet<>(removiveis);
+        Set<Long> avaliadas = new HashSet<>();
+        massa.avaliacoes.forEach(avaliacao -> avaliadas.add(avaliacao.idTurma));
+        List<Long> todos = new ArrayList<>(massa.idsAlunos);
+        todos.addAll(removiveis);
+
+        for (Long idAluno : todos) {
+            for (int i = 0; i < matriculasPorAluno; i++) {
+                long idTurma = massa.idsTurmas.get(aleatorio.nextInt(massa.idsTurmas.size()));
+                if (porTurma.computeIfAbsent(idTurma, t -> new LinkedHashSet<>()).add(idAluno) && !descartaveis.contains(idAluno) && !avaliadas.contains(idTurma)) {
+                    massa.matriculas.add(new long[]{idTurma, idAluno});
+                }
+            }
+        }
+
+        for (Massa.AvaliacaoSemeada avaliacao : massa.avaliacoes) {
+            for (Long idAluno : porTurma.getOrDefault(avaliacao.idTurma, Set.of())) {
+                if (!descartaveis.contains(idAluno)) {
+                    avaliacao.idsAlunos.add(idAluno);
+                }
+            }
+        }
+
+        transacao.executeWithoutResult(status ->
+                porTurma.forEach((idTurma, idsAlunos) -> matriculaRepository.matricular(idTurma, new ArrayList<>(idsAlunos)))
+        );
+    }
+
+    private <T> List<T> salvar(int quantidade, Fabrica<T> fabrica, Gravacao<T> gravacao) {
+        List<T> salvas = new ArrayList<>(quantidade);
+        for (int inicio = 0; inicio < quantidade; inicio += TAMANHO_DO_LOTE) {
+            List<T> lote = new ArrayList<>();
+            for (int i = inicio; i < Math.min(quantidade, inicio + TAMANHO_DO_LOTE); i++) {
+                lote.add(fabrica.criar(i));
+            }
+            salvas.addAll(transacao.execute(status -> gravacao.gravar(lote)));
+        }
+        return salvas;
+    }
+
+    private static List<Massa.AvaliacaoSemeada> semeadas(List<Avaliacao> avaliacoes) {
+        List<Massa.AvaliacaoSemeada> semeadas = new ArrayList<>();
+        for (Avaliacao avaliacao : avaliacoes) {
+            semeadas.add(new Massa.AvaliacaoSemeada(avaliacao.getId(), avaliacao.getIdTurma(), ids(avaliacao.getQuestoes(), Questao::getId)));
+        }
+        return semeadas;
+    }
+
+    private static <T> List<Long> ids(Collection<T> entidades, Function<T, Long> id) {
+        List<Long> ids = new ArrayList<>(entidades.size());
+        entidades.forEach(entidade -> ids.add(id.apply(entidade)));
+        return ids;
+    }
+
+    private interface Fabrica<T> {
+        T criar(int indice);
+    }
+
+    private interface Gravacao<T> {
+        List<T> gravar(List<T> lote);
+    }
+}
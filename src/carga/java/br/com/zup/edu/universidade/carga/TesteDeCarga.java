@@ -0,0 +1,119 @@
+package br.com.zup.edu.universidade.carga;
+
+import br.com.zup.edu.universidade.UniversidadeApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sobe a aplicacao contra um Postgres local, popula o banco e dispara trafego HTTP real,
+ * medindo latencia, vazao e comandos SQL por endpoint. Sem {@code carga.db.url} usa os binarios
+ * do Postgres embarcado; com ela, usa o banco informado, que deve estar vazio.
+ * <p>
+ * Termina com codigo 1 quando algum endpoint passa do limite de {@code limites-de-sql.json}.
+ */
+public class TesteDeCarga {
+
+    public static void main(String[] args) throws Exception {
+        int usuarios = Integer.getInteger("carga.usuarios", 16);
+        Duration aquecimento = Duration.ofSeconds(Integer.getInteger("carga.aquecimento-em-segundos", 5));
+        Duration duracao = Duration.ofSeconds(Integer.getInteger("carga.duracao-em-segundos", 30));
+        Mix mix = Mix.valueOf(System.getProperty("carga.mix", Mix.MISTO.name()));
+        boolean threadsVirtuais = Boolean.getBoolean("carga.threads-virtuais");
+        File resultado = new File(System.getProperty("carga.resultado", "target/carga-resultado.json"));
+
+        boolean dentroDosLimites;
+        try (EmbeddedPostgres postgres = iniciarPostgres()) {
+            ContadorDeSql contador = new ContadorDeSql();
+
+            try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(UniversidadeApplication.class)
+                    .initializers(instrumentar(contador))
+                    .run(argumentos(postgres, usuarios, threadsVirtuais))) {
+
+                Massa massa = new Semeador(contexto).semear();
+
+                int porta = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+                GeradorDeCarga gerador = new GeradorDeCarga("http://localhost:" + porta, massa, mix, usuarios);
+
+                gerador.executar(aquecimento);
+                contador.zerar();
+
+                Relatorio relatorio = new Relatorio(gerador.executar(duracao), contador, duracao);
+                System.out.printf("%nMix %s, %d usuarios, %ds, threads %s%n",
+                        mix, usuarios, duracao.toSeconds(), threadsVirtuais ? "virtuais" : "de plataforma");
+                relatorio.imprimir(System.out);
+                relatorio.gravar(resultado);
+
+                dentroDosLimites = relatorio.dentroDosLimites();
+            }
+        }
+
+        System.exit(dentroDosLimites ? 0 : 1);
+    }
+
+    private static EmbeddedPostgres iniciarPostgres() throws Exception {
+        if (!System.getProperty("carga.db.url", "").isBlank()) {
+            return null;
+        }
+        return EmbeddedPostgres.builder().start();
+    }
+
+    /**
+     * Passadas como argumentos de linha de comando para prevalecer sobre o application.properties.
+     */
+    private static String[] argumentos(EmbeddedPostgres postgres, int usuarios, boolean threadsVirtuais) {
+        Map<String, Object> propriedades = new LinkedHashMap<>();
+
+        if (postgres == null) {
+            String url = System.getProperty("carga.db.url");
+            propriedades.put("spring.datasource.url", url + (url.contains("?") ? "&" : "?") + "reWriteBatchedInserts=true");
+            propriedades.put("spring.datasource.username", System.getProperty("carga.db.usuario", "postgres"));
+            propriedades.put("spring.datasource.password", System.getProperty("carga.db.senha", "password"));
+        } else {
+            propriedades.put("spring.datasource.url", postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true");
+            propriedades.put("spring.datasource.username", "postgres");
+            propriedades.put("spring.datasource.password", "");
+        }
+
+        propriedades.put("server.port", 0);
+        propriedades.put("server.tomcat.max-connections", Math.max(8192, usuarios + 100));
+        propriedades.put("universidade.threads.virtuais", threadsVirtuais);
+        propriedades.put("spring.jpa.show-sql", false);
+        propriedades.put("spring.jpa.properties.hibernate.format_sql", false);
+
+        return propriedades.entrySet().stream()
+                .map(propriedade -> "--" + propriedade.getKey() + "=" + propriedade.getValue())
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Envolve o DataSource da aplicacao e registra o filtro que atribui os comandos a cada endpoint.
+     */
+    private static ApplicationContextInitializer<GenericApplicationContext> instrumentar(ContadorDeSql contador) {
+        return contexto -> {
+            contexto.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String nome) {
+                    return bean instanceof DataSource ? contador.contar((DataSource) bean) : bean;
+                }
+            });
+
+            contexto.registerBean("contadorDeSql", FilterRegistrationBean.class, () -> {
+                FilterRegistrationBean<ContadorDeSql> registro = new FilterRegistrationBean<>(contador);
+                registro.addUrlPatterns("/*");
+                return registro;
+            });
+        };
+    }
+}
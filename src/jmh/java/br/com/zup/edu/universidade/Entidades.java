@@ -0,0 +1,23 @@
+package br.com.zup.edu.universidade;
+
+import java.lang.reflect.Field;
+
+/**
+ * Atribui ids a entidades montadas fora do banco, como o Hibernate faria ao persisti-las.
+ */
+public final class Entidades {
+
+    private Entidades() {
+    }
+
+    public static <T> T comId(T entidade, Long id) {
+        try {
+            Field campo = entidade.getClass().getDeclaredField("id");
+            campo.setAccessible(true);
+            campo.set(entidade, id);
+            return entidade;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
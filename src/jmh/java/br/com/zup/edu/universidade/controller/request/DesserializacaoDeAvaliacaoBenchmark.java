@@ -0,0 +1,47 @@
+package br.com.zup.edu.universidade.controller.request;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leitura do corpo de POST /alunos/{id}/avaliacoes/{idAvaliacao}/respostas com um
+ * ObjectMapper configurado como o do Spring MVC.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DesserializacaoDeAvaliacaoBenchmark {
+
+    @Param({"10", "50", "200"})
+    private int quantidadeDeRespostas;
+
+    private ObjectMapper mapper;
+
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        this.mapper = Jackson2ObjectMapperBuilder.json().build();
+
+        List<RespostaQuestaoRequest> respostas = new ArrayList<>();
+        for (long id = 1; id <= quantidadeDeRespostas; id++) {
+            respostas.add(new RespostaQuestaoRequest(id, "Resposta da questao " + id));
+        }
+
+        this.payload = mapper.writeValueAsBytes(new AvaliacaoAlunoRequest(respostas));
+    }
+
+    @Benchmark
+    public AvaliacaoAlunoRequest desserializar() throws IOException {
+        return mapper.readValue(payload, AvaliacaoAlunoRequest.class);
+    }
+}
@@ -0,0 +1,83 @@
+package br.com.zup.edu.universidade.controller.request;
+
+import br.com.zup.edu.universidade.Entidades;
+import br.com.zup.edu.universidade.model.Aluno;
+import br.com.zup.edu.universidade.model.Avaliacao;
+import br.com.zup.edu.universidade.model.Questao;
+import br.com.zup.edu.universidade.model.RespostaAvaliacao;
+import br.com.zup.edu.universidade.model.RespostaQuestao;
+import br.com.zup.edu.universidade.model.Turma;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compara a busca linear por questao (um stream sobre todas as questoes para cada resposta)
+ * com o indice id -> questao de {@link Avaliacao#getIndiceDeQuestoes()}. Os dois lados partem
+ * de uma avaliacao recem carregada, entao o custo de montar o indice entra na medicao.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResolucaoDeQuestoesBenchmark {
+
+    @Param({"10", "50", "200"})
+    private int quantidadeDeQuestoes;
+
+    private Aluno aluno;
+
+    private Turma turma;
+
+    private Set<Questao> questoes;
+
+    private AvaliacaoAlunoRequest request;
+
+    @Setup
+    public void setUp() {
+        this.aluno = new Aluno("Antonio", "AE13", LocalDate.now());
+        this.turma = Entidades.comId(new Turma(), 1L);
+        this.questoes = new LinkedHashSet<>();
+
+        List<RespostaQuestaoRequest> respostas = new ArrayList<>();
+        for (long id = 1; id <= quantidadeDeQuestoes; id++) {
+            questoes.add(Entidades.comId(new Questao("Questao " + id, "Resposta " + id, BigDecimal.ONE), id));
+
+            respostas.add(new RespostaQuestaoRequest(id, "Resposta " + id));
+        }
+
+        this.request = new AvaliacaoAlunoRequest(respostas);
+    }
+
+    @Benchmark
+    public RespostaAvaliacao buscaLinear() {
+        Avaliacao avaliacao = new Avaliacao(turma, questoes);
+
+        Set<RespostaQuestao> respostasQuestoes = request.getRespostas().stream()
+                .map(resposta -> {
+                    Questao questao = avaliacao.getQuestoes().stream()
+                            .filter(q -> q.getId().equals(resposta.getIdQuestao()))
+                            .findFirst()
+                            .orElseThrow();
+
+                    return resposta.paraRespostaQuestao(aluno, questao);
+                })
+                .collect(Collectors.toSet());
+
+        return new RespostaAvaliacao(aluno, avaliacao, respostasQuestoes);
+    }
+
+    @Benchmark
+    public RespostaAvaliacao indiceDeQuestoes() {
+        return request.paraRespostaAvaliacao(aluno, new Avaliacao(turma, questoes));
+    }
+}
@@ -0,0 +1,65 @@
+package br.com.zup.edu.universidade.model;
+
+import br.com.zup.edu.universidade.Entidades;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de {@link Turma#isMatriculado(Aluno)} e {@link Turma#adicionar(Aluno)} conforme o
+ * tamanho da turma. A matricula e desfeita na mesma invocacao para a turma nao crescer
+ * durante a medicao.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MatriculaNaTurmaBenchmark {
+
+    @Param({"30", "1000", "30000"})
+    private int tamanhoDaTurma;
+
+    private Turma turma;
+
+    private Aluno matriculado;
+
+    private Aluno naoMatriculado;
+
+    @Setup
+    public void setUp() {
+        Professor professor = new Professor("Rafael", "P01");
+        Disciplina disciplina = new Disciplina("Testes", "TST", "Testes de desempenho", 40);
+        this.turma = Entidades.comId(new Turma(disciplina, LocalDate.now(), LocalDate.now().plusMonths(4), professor), 1L);
+
+        for (long id = 1; id <= tamanhoDaTurma; id++) {
+            Aluno aluno = Entidades.comId(new Aluno("Aluno " + id, "AE" + id, LocalDate.now()), id);
+            turma.adicionar(aluno);
+
+            if (id == tamanhoDaTurma / 2 + 1) {
+                this.matriculado = aluno;
+            }
+        }
+
+        this.naoMatriculado = Entidades.comId(new Aluno("Antonio", "AE0", LocalDate.now()), tamanhoDaTurma + 1L);
+    }
+
+    @Benchmark
+    public boolean isMatriculado() {
+        return turma.isMatriculado(matriculado);
+    }
+
+    @Benchmark
+    public boolean isNaoMatriculado() {
+        return turma.isMatriculado(naoMatriculado);
+    }
+
+    @Benchmark
+    public Turma adicionarERemover() {
+        turma.adicionar(naoMatriculado);
+        turma.remover(naoMatriculado);
+        return turma;
+    }
+}
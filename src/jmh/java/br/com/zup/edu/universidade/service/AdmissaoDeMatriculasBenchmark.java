@@ -0,0 +1,53 @@
+package br.com.zup.edu.universidade.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo da decisao de {@link AdmissaoDeMatriculas#temVaga(Long)} conforme a quantidade de turmas
+ * acompanhadas, para uma turma com vagas e para uma lotada, com 4 threads consultando os mesmos
+ * contadores. A turma lotada inclui a leitura do relogio que decide se ela deve ser conferida no banco.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class AdmissaoDeMatriculasBenchmark {
+
+    @Param({"1000", "100000"})
+    private int turmas;
+
+    private AdmissaoDeMatriculas admissao;
+
+    private Long comVagas;
+
+    private Long lotada;
+
+    @Setup
+    public void setUp() {
+        this.admissao = new AdmissaoDeMatriculas(null, null, null);
+
+        for (long id = 1; id <= turmas; id++) {
+            admissao.turmaCadastrada(id, 50);
+        }
+
+        this.comVagas = (long) ThreadLocalRandom.current().nextInt(1, turmas + 1);
+        this.lotada = turmas + 1L;
+        admissao.turmaCadastrada(lotada, 0);
+    }
+
+    @Benchmark
+    public boolean temVaga() {
+        return admissao.temVaga(comVagas);
+    }
+
+    @Benchmark
+    public boolean turmaLotada() {
+        return admissao.temVaga(lotada);
+    }
+}
@@ -0,0 +1,61 @@
+package br.com.zup.edu.universidade.util;
+
+import br.com.zup.edu.universidade.controller.request.AvaliacaoAlunoRequest;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formatacao das mensagens de {@link HandlerException} para um corpo com varios campos invalidos.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HandlerExceptionBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int quantidadeDeErros;
+
+    private HandlerException handler;
+
+    private MethodArgumentNotValidException exception;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        this.handler = new HandlerException();
+
+        AvaliacaoAlunoRequest request = new AvaliacaoAlunoRequest();
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(request, "avaliacaoAlunoRequest");
+        for (int i = 0; i < quantidadeDeErros; i++) {
+            bindingResult.addError(new FieldError(
+                    "avaliacaoAlunoRequest",
+                    "respostas[" + i + "].resposta",
+                    "must not be blank"
+            ));
+        }
+
+        MethodParameter parametro = new MethodParameter(
+                HandlerExceptionBenchmark.class.getDeclaredMethod("alvo", AvaliacaoAlunoRequest.class),
+                0
+        );
+
+        this.exception = new MethodArgumentNotValidException(parametro, bindingResult);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> formatar() {
+        return handler.methodArgumentNotValid(exception);
+    }
+
+    @SuppressWarnings("unused")
+    private void alvo(AvaliacaoAlunoRequest request) {
+    }
+}
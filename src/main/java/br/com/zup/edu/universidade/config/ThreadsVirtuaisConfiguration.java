@@ -0,0 +1,51 @@
+package br.com.zup.edu.universidade.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PreDestroy;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Atende cada requisicao do Tomcat numa thread virtual quando {@code universidade.threads.virtuais=true}.
+ * <p>
+ * A API so existe a partir do Java 21, por isso o executor e obtido por reflexao e o build continua
+ * compilando para Java 17. Ligada numa JVM anterior, a aplicacao nao sobe. Com threads virtuais o
+ * limite de concorrencia passa a ser o pool do Hikari ({@code DB_POOL_MAXIMO}), e nao mais
+ * {@code server.tomcat.threads.max}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "universidade.threads.virtuais", havingValue = "true")
+public class ThreadsVirtuaisConfiguration {
+    /**
+     * Fica fora do contexto para nao ocupar o lugar do {@code applicationTaskExecutor} do Spring Boot.
+     */
+    private final ExecutorService executor = criarExecutor();
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> tomcatComThreadsVirtuais() {
+        return protocolo -> protocolo.setExecutor(executor);
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdown();
+    }
+
+    private static ExecutorService criarExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(
+                    "universidade.threads.virtuais exige Java 21 ou superior, mas a JVM e " + Runtime.version(), e
+            );
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Nao foi possivel criar o executor de threads virtuais", e);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import br.com.zup.edu.universidade.model.Disciplina;
 import br.com.zup.edu.universidade.model.Turma;
 import br.com.zup.edu.universidade.repository.DisciplinaRepository;
 import br.com.zup.edu.universidade.repository.ProfessorRepository;
+import br.com.zup.edu.universidade.service.AdmissaoDeMatriculas;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -22,10 +23,12 @@ import java.net.URI;
 public class CadastrarTurmaController {
     private final DisciplinaRepository disciplinaRepository;
     private final ProfessorRepository professorRepository;
+    private final AdmissaoDeMatriculas admissao;
 
-    public CadastrarTurmaController(DisciplinaRepository disciplinaRepository, ProfessorRepository professorRepository) {
+    public CadastrarTurmaController(DisciplinaRepository disciplinaRepository, ProfessorRepository professorRepository, AdmissaoDeMatriculas admissao) {
         this.disciplinaRepository = disciplinaRepository;
         this.professorRepository = professorRepository;
+        this.admissao = admissao;
     }
 
     @PostMapping("/disciplinas/{id}/turmas")
@@ -44,6 +47,8 @@ public class CadastrarTurmaController {
 
         disciplinaRepository.flush();
 
+        admissao.turmaCadastrada(turma.getId(), turma.getVagas());
+
         URI localtion = uriComponentsBuilder.path("/disciplinas/{id}/turmas/{idTurma}")
                 .buildAndExpand(disciplina.getId(), turma.getId())
                 .toUri();
@@ -0,0 +1,29 @@
+package br.com.zup.edu.universidade.controller;
+
+import br.com.zup.edu.universidade.controller.response.EstatisticasDaAvaliacaoResponse;
+import br.com.zup.edu.universidade.service.EstatisticasDaAvaliacao;
+import br.com.zup.edu.universidade.service.EstatisticasDasAvaliacoes;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+
+@RestController
+public class ConsultarEstatisticasDaAvaliacaoController {
+    private final EstatisticasDasAvaliacoes estatisticas;
+
+    public ConsultarEstatisticasDaAvaliacaoController(EstatisticasDasAvaliacoes estatisticas) {
+        this.estatisticas = estatisticas;
+    }
+
+    @GetMapping("/avaliacoes/{id}/estatisticas")
+    public ResponseEntity<?> consultar(@PathVariable Long id) {
+        EstatisticasDaAvaliacao estatisticasDaAvaliacao = estatisticas.buscar(id)
+                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Avaliacao não cadastrada"));
+
+        return ResponseEntity.ok(new EstatisticasDaAvaliacaoResponse(estatisticasDaAvaliacao));
+    }
+}
@@ -0,0 +1,40 @@
+package br.com.zup.edu.universidade.controller;
+
+import br.com.zup.edu.universidade.controller.response.NotaDaAvaliacaoResponse;
+import br.com.zup.edu.universidade.repository.AlunoRepository;
+import br.com.zup.edu.universidade.repository.RespostaAvaliacaoRepository;
+import br.com.zup.edu.universidade.repository.projecao.NotaDaAvaliacao;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+
+@RestController
+public class ConsultarNotaDaAvaliacaoController {
+    private final RespostaAvaliacaoRepository respostaAvaliacaoRepository;
+    private final AlunoRepository alunoRepository;
+
+    public ConsultarNotaDaAvaliacaoController(RespostaAvaliacaoRepository respostaAvaliacaoRepository, AlunoRepository alunoRepository) {
+        this.respostaAvaliacaoRepository = respostaAvaliacaoRepository;
+        this.alunoRepository = alunoRepository;
+    }
+
+    @GetMapping("/alunos/{id}/avaliacoes/{idAvaliacao}/nota")
+    public ResponseEntity<?> consultar(
+            @PathVariable Long id,
+            @PathVariable Long idAvaliacao
+    ) {
+        NotaDaAvaliacao nota = respostaAvaliacaoRepository.findFirstByAlunoIdAndAvaliacaoIdOrderByIdDesc(id, idAvaliacao)
+                .orElseThrow(() -> {
+                    if (!alunoRepository.existsById(id)) {
+                        return new ResponseStatusException(NOT_FOUND, "aluno nao cadastrado");
+                    }
+                    return new ResponseStatusException(NOT_FOUND, "Resposta da avaliacao nao existente");
+                });
+
+        return ResponseEntity.ok(new NotaDaAvaliacaoResponse(nota));
+    }
+}
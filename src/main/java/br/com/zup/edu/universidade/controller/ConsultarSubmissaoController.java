@@ -0,0 +1,45 @@
+package br.com.zup.edu.universidade.controller;
+
+import br.com.zup.edu.universidade.controller.response.SubmissaoResponse;
+import br.com.zup.edu.universidade.model.SubmissaoPendente;
+import br.com.zup.edu.universidade.repository.SubmissaoPendenteRepository;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+
+@RestController
+public class ConsultarSubmissaoController {
+    private final SubmissaoPendenteRepository repository;
+
+    public ConsultarSubmissaoController(SubmissaoPendenteRepository repository) {
+        this.repository = repository;
+    }
+
+    @GetMapping("/alunos/{id}/avaliacoes/{idAvaliacao}/submissoes/{idSubmissao}")
+    public ResponseEntity<?> consultar(
+            @PathVariable Long id,
+            @PathVariable Long idAvaliacao,
+            @PathVariable Long idSubmissao,
+            UriComponentsBuilder uriComponentsBuilder
+    ) {
+        SubmissaoPendente submissao = repository.findById(idSubmissao)
+                .filter(s -> s.pertence(id, idAvaliacao))
+                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Submissao nao encontrada"));
+
+        URI resposta = null;
+        if (submissao.getIdResposta() != null) {
+            resposta = uriComponentsBuilder.path("/alunos/{id}/avaliacoes/{idAvaliacao}/respostas/{idResposta}")
+                    .buildAndExpand(id, idAvaliacao, submissao.getIdResposta())
+                    .toUri();
+        }
+
+        return ResponseEntity.ok(new SubmissaoResponse(submissao, resposta));
+    }
+}
@@ -0,0 +1,73 @@
+package br.com.zup.edu.universidade.controller;
+
+import br.com.zup.edu.universidade.controller.request.AlunoAMatricularRequest;
+import br.com.zup.edu.universidade.controller.response.PosicaoNaListaDeEsperaResponse;
+import br.com.zup.edu.universidade.model.Aluno;
+import br.com.zup.edu.universidade.model.Turma;
+import br.com.zup.edu.universidade.repository.AlunoRepository;
+import br.com.zup.edu.universidade.repository.ListaDeEsperaRepository;
+import br.com.zup.edu.universidade.repository.MatriculaRepository;
+import br.com.zup.edu.universidade.repository.TurmaRepository;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import javax.transaction.Transactional;
+import javax.validation.Valid;
+import java.net.URI;
+import java.util.List;
+
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
+
+@RestController
+public class EntrarNaListaDeEsperaController {
+    private final AlunoRepository alunoRepository;
+    private final TurmaRepository turmaRepository;
+    private final MatriculaRepository matriculaRepository;
+    private final ListaDeEsperaRepository listaDeEsperaRepository;
+
+    public EntrarNaListaDeEsperaController(AlunoRepository alunoRepository, TurmaRepository turmaRepository, MatriculaRepository matriculaRepository, ListaDeEsperaRepository listaDeEsperaRepository) {
+        this.alunoRepository = alunoRepository;
+        this.turmaRepository = turmaRepository;
+        this.matriculaRepository = matriculaRepository;
+        this.listaDeEsperaRepository = listaDeEsperaRepository;
+    }
+
+    @PostMapping("/turmas/{id}/espera")
+    @Transactional
+    public ResponseEntity<?> entrar(
+            @PathVariable Long id,
+            @RequestBody @Valid AlunoAMatricularRequest request,
+            UriComponentsBuilder uriComponentsBuilder
+    ) {
+        Turma turma = turmaRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Turma nao cadastrada"));
+
+        Aluno aluno = request.paraAluno(alunoRepository);
+
+        if (!turma.isLotada()) {
+            throw new ResponseStatusException(UNPROCESSABLE_ENTITY, "Turma com vagas, matricule o aluno");
+        }
+
+        if (!matriculaRepository.buscarMatriculados(id, List.of(aluno.getId())).isEmpty()) {
+            throw new ResponseStatusException(UNPROCESSABLE_ENTITY, "Aluno já matriculado na turma");
+        }
+
+        if (!listaDeEsperaRepository.entrar(id, aluno.getId())) {
+            throw new ResponseStatusException(UNPROCESSABLE_ENTITY, "Aluno já está na lista de espera");
+        }
+
+        Long posicao = listaDeEsperaRepository.buscarPosicao(id, aluno.getId()).orElseThrow();
+
+        URI location = uriComponentsBuilder.path("/turmas/{id}/espera/{idAluno}")
+                .buildAndExpand(id, aluno.getId())
+                .toUri();
+
+        return ResponseEntity.created(location).body(new PosicaoNaListaDeEsperaResponse(aluno.getId(), posicao));
+    }
+}
@@ -0,0 +1,80 @@
+package br.com.zup.edu.universidade.controller;
+
+import br.com.zup.edu.universidade.exportacao.ExportadorDeRespostas;
+import br.com.zup.edu.universidade.importacao.FormatoDeImportacao;
+import br.com.zup.edu.universidade.repository.AvaliacaoRepository;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+
+import static org.springframework.http.HttpStatus.*;
+
+@RestController
+public class ExportarRespostasDaAvaliacaoController {
+    private final AvaliacaoRepository avaliacaoRepository;
+    private final ExportadorDeRespostas exportador;
+
+    public ExportarRespostasDaAvaliacaoController(AvaliacaoRepository avaliacaoRepository, ExportadorDeRespostas exportador) {
+        this.avaliacaoRepository = avaliacaoRepository;
+        this.exportador = exportador;
+    }
+
+    /**
+     * Exporta as respostas em CSV ou NDJSON, conforme o {@code Accept}, comprimidas com gzip
+     * quando o cliente aceita. Uma exportacao interrompida continua de onde parou com
+     * {@code aposId} igual ao ultimo {@code idResposta} recebido completo.
+     */
+    @GetMapping(
+            value = "/avaliacoes/{id}/respostas/export",
+            produces = {FormatoDeImportacao.CSV_VALUE, FormatoDeImportacao.NDJSON_VALUE}
+    )
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") Long aposId,
+            @RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = FormatoDeImportacao.CSV_VALUE) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, defaultValue = "") String acceptEncoding
+    ) {
+        if (aposId < 0) {
+            throw new ResponseStatusException(BAD_REQUEST, "aposId deve ser positivo");
+        }
+
+        FormatoDeImportacao formato = FormatoDeImportacao.aceito(accept)
+                .orElseThrow(() -> new ResponseStatusException(NOT_ACCEPTABLE, "Formato nao suportado"));
+
+        if (!avaliacaoRepository.existsById(id)) {
+            throw new ResponseStatusException(NOT_FOUND, "Avaliacao não cadastrada");
+        }
+
+        boolean gzip = Arrays.stream(acceptEncoding.split(","))
+                .map(codificacao -> codificacao.trim().toLowerCase())
+                .anyMatch(codificacao -> codificacao.equals("gzip") || (codificacao.startsWith("gzip;") && !codificacao.endsWith("q=0")));
+
+        StreamingResponseBody resposta = saida -> {
+            if (gzip) {
+                GZIPOutputStream comprimida = new GZIPOutputStream(saida, 8192);
+                exportador.exportar(id, aposId, formato, comprimida);
+                comprimida.finish();
+            } else {
+                exportador.exportar(id, aposId, formato, saida);
+            }
+        };
+
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+                .contentType(formato.getTipo())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            ok.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        return ok.body(resposta);
+    }
+}
@@ -1,16 +1,25 @@
 package br.com.zup.edu.universidade.controller;
 
 import br.com.zup.edu.universidade.controller.request.AvaliacaoAlunoRequest;
+import br.com.zup.edu.universidade.idempotencia.RequisicoesIdempotentes;
+import br.com.zup.edu.universidade.idempotencia.RequisicoesIdempotentes.Resultado;
 import br.com.zup.edu.universidade.model.Aluno;
 import br.com.zup.edu.universidade.model.Avaliacao;
 import br.com.zup.edu.universidade.model.RespostaAvaliacao;
+import br.com.zup.edu.universidade.model.SubmissaoPendente;
 import br.com.zup.edu.universidade.repository.AlunoRepository;
 import br.com.zup.edu.universidade.repository.AvaliacaoRepository;
-import org.springframework.http.HttpStatus;
+import br.com.zup.edu.universidade.service.EstatisticasDasAvaliacoes;
+import br.com.zup.edu.universidade.service.FilaDeSubmissoes;
+import br.com.zup.edu.universidade.service.IndiceDeMatriculas;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -18,7 +27,7 @@ import org.springframework.web.util.UriComponentsBuilder;
 import javax.transaction.Transactional;
 import javax.validation.Valid;
 
-import java.net.URI;
+import java.util.Optional;
 
 import static org.springframework.http.HttpStatus.*;
 
@@ -26,11 +35,29 @@ import static org.springframework.http.HttpStatus.*;
 public class FazerAvaliacaoController {
     private final AvaliacaoRepository avaliacaoRepository;
     private final AlunoRepository alunoRepository;
+    private final FilaDeSubmissoes filaDeSubmissoes;
+    private final EstatisticasDasAvaliacoes estatisticas;
+    private final RequisicoesIdempotentes requisicoesIdempotentes;
+    private final IndiceDeMatriculas indiceDeMatriculas;
+    private final boolean ingestaoAssincrona;
 
 
-    public FazerAvaliacaoController(AvaliacaoRepository avaliacaoRepository, AlunoRepository alunoRepository) {
+    public FazerAvaliacaoController(
+            AvaliacaoRepository avaliacaoRepository,
+            AlunoRepository alunoRepository,
+            FilaDeSubmissoes filaDeSubmissoes,
+            EstatisticasDasAvaliacoes estatisticas,
+            RequisicoesIdempotentes requisicoesIdempotentes,
+            IndiceDeMatriculas indiceDeMatriculas,
+            @Value("${universidade.avaliacoes.ingestao.assincrona:false}") boolean ingestaoAssincrona
+    ) {
         this.avaliacaoRepository = avaliacaoRepository;
         this.alunoRepository = alunoRepository;
+        this.filaDeSubmissoes = filaDeSubmissoes;
+        this.estatisticas = estatisticas;
+        this.requisicoesIdempotentes = requisicoesIdempotentes;
+        this.indiceDeMatriculas = indiceDeMatriculas;
+        this.ingestaoAssincrona = ingestaoAssincrona;
     }
 
     @PostMapping("/alunos/{id}/avaliacoes/{idAvaliacao}/respostas")
@@ -39,24 +66,133 @@ public class FazerAvaliacaoController {
             @PathVariable Long id,
             @PathVariable Long idAvaliacao,
             @RequestBody @Valid AvaliacaoAlunoRequest request,
+            @RequestHeader(value = RequisicoesIdempotentes.CABECALHO, required = false) String chaveDeIdempotencia,
             UriComponentsBuilder uriComponentsBuilder
     ){
+        if (chaveDeIdempotencia != null) {
+            Optional<ResponseEntity<?>> repeticao = repetir(id, idAvaliacao, chaveDeIdempotencia, uriComponentsBuilder);
+            if (repeticao.isPresent()) {
+                return repeticao.get();
+            }
+        }
+
+        if (ingestaoAssincrona) {
+            return enfileirar(id, idAvaliacao, request, chaveDeIdempotencia, uriComponentsBuilder);
+        }
+
         Aluno aluno = alunoRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "aluno nao cadastrado"));
 
         Avaliacao avaliacao = avaliacaoRepository.findById(idAvaliacao)
                 .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Avaliacao não cadastrada"));
 
+        autorizar(aluno.getId(), avaliacao);
+
         RespostaAvaliacao respostaAvaliacao = request.paraRespostaAvaliacao(aluno, avaliacao);
 
+        respostaAvaliacao.identificarPor(chaveDeIdempotencia);
+
         aluno.adicionar(respostaAvaliacao);
 
-        avaliacaoRepository.flush();
+        try {
+            avaliacaoRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw conflitoDeChave(chaveDeIdempotencia, e);
+        }
+
+        estatisticas.registrar(avaliacao, respostaAvaliacao);
+
+        Resultado resultado = Resultado.resposta(avaliacao.getId(), respostaAvaliacao.getId());
+        if (chaveDeIdempotencia != null) {
+            requisicoesIdempotentes.registrar(aluno.getId(), chaveDeIdempotencia, resultado);
+        }
+
+        return resultado.responder(aluno.getId(), uriComponentsBuilder);
+    }
+
+    /**
+     * So aceita respostas de alunos matriculados na turma da avaliacao. A matricula e consultada
+     * no {@link IndiceDeMatriculas}, sem SQL quando o aluno esta matriculado.
+     */
+    private void autorizar(Long idAluno, Avaliacao avaliacao) {
+        Long idTurma = avaliacao.getIdTurma();
+        if (idTurma == null || !indiceDeMatriculas.confirmarMatricula(idTurma, idAluno)) {
+            throw new ResponseStatusException(FORBIDDEN, "Aluno nao matriculado na turma da avaliacao");
+        }
+    }
+
+    /**
+     * Devolve a resposta original quando a chave ja foi usada por este aluno. As repeticoes
+     * lembradas em memoria nem chegam aqui ({@code RepeticaoIdempotenteInterceptor}).
+     */
+    private Optional<ResponseEntity<?>> repetir(
+            Long id,
+            Long idAvaliacao,
+            String chaveDeIdempotencia,
+            UriComponentsBuilder uriComponentsBuilder
+    ) {
+        if (!RequisicoesIdempotentes.valida(chaveDeIdempotencia)) {
+            throw new ResponseStatusException(BAD_REQUEST, "Idempotency-Key deve ter entre 1 e " + RequisicoesIdempotentes.TAMANHO_MAXIMO_DA_CHAVE + " caracteres");
+        }
+
+        Optional<Resultado> anterior = requisicoesIdempotentes.buscar(id, chaveDeIdempotencia);
+        if (anterior.isEmpty()) {
+            return Optional.empty();
+        }
+
+        if (!anterior.get().pertenceA(idAvaliacao)) {
+            throw new ResponseStatusException(UNPROCESSABLE_ENTITY, "Idempotency-Key ja usada em outra avaliacao");
+        }
+
+        return Optional.of(anterior.get().responder(id, uriComponentsBuilder));
+    }
+
+    /**
+     * So a violacao da restricao unica da chave vira 409; as demais seguem como estao.
+     */
+    private static RuntimeException conflitoDeChave(String chaveDeIdempotencia, DataIntegrityViolationException e) {
+        if (chaveDeIdempotencia == null || !RequisicoesIdempotentes.chaveEmUso(e)) {
+            return e;
+        }
+        return new ResponseStatusException(CONFLICT, "Idempotency-Key em uso por outra requisicao");
+    }
+
+    private ResponseEntity<?> enfileirar(
+            Long id,
+            Long idAvaliacao,
+            AvaliacaoAlunoRequest request,
+            String chaveDeIdempotencia,
+            UriComponentsBuilder uriComponentsBuilder
+    ) {
+        if (filaDeSubmissoes.estaCheia()) {
+            return ResponseEntity.status(SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .build();
+        }
+
+        if (!alunoRepository.existsById(id)) {
+            throw new ResponseStatusException(NOT_FOUND, "aluno nao cadastrado");
+        }
+
+        Avaliacao avaliacao = avaliacaoRepository.findById(idAvaliacao)
+                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Avaliacao não cadastrada"));
+
+        autorizar(id, avaliacao);
+
+        request.validar(avaliacao);
+
+        SubmissaoPendente submissao;
+        try {
+            submissao = filaDeSubmissoes.enfileirar(id, idAvaliacao, request, chaveDeIdempotencia);
+        } catch (DataIntegrityViolationException e) {
+            throw conflitoDeChave(chaveDeIdempotencia, e);
+        }
 
-        URI location = uriComponentsBuilder.path("/alunos/{id}/avaliacoes/{idAvaliacao}/respostas/{idResposta}")
-                .buildAndExpand(aluno.getId(), avaliacao.getId(), respostaAvaliacao.getId())
-                .toUri();
+        Resultado resultado = Resultado.submissao(idAvaliacao, submissao.getId());
+        if (chaveDeIdempotencia != null) {
+            requisicoesIdempotentes.registrar(id, chaveDeIdempotencia, resultado);
+        }
 
-        return ResponseEntity.created(location).build();
+        return resultado.responder(id, uriComponentsBuilder);
     }
 }
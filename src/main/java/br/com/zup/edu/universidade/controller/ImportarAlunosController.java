@@ -0,0 +1,83 @@
+package br.com.zup.edu.universidade.controller;
+
+import br.com.zup.edu.universidade.controller.request.AlunoAImportarRequest;
+import br.com.zup.edu.universidade.importacao.FormatoDeImportacao;
+import br.com.zup.edu.universidade.importacao.Importador;
+import br.com.zup.edu.universidade.importacao.Importador.Linha;
+import br.com.zup.edu.universidade.model.Aluno;
+import br.com.zup.edu.universidade.repository.AlunoEmLoteRepository;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.springframework.http.HttpStatus.UNSUPPORTED_MEDIA_TYPE;
+
+@RestController
+public class ImportarAlunosController {
+    private final Importador importador;
+    private final AlunoEmLoteRepository alunoEmLoteRepository;
+
+    public ImportarAlunosController(Importador importador, AlunoEmLoteRepository alunoEmLoteRepository) {
+        this.importador = importador;
+        this.alunoEmLoteRepository = alunoEmLoteRepository;
+    }
+
+    /**
+     * Le o corpo enquanto ele chega e responde com o andamento em NDJSON, um evento por linha.
+     */
+    @PostMapping(
+            value = "/alunos:import",
+            consumes = {FormatoDeImportacao.CSV_VALUE, FormatoDeImportacao.NDJSON_VALUE},
+            produces = FormatoDeImportacao.NDJSON_VALUE
+    )
+    public ResponseEntity<StreamingResponseBody> importar(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream corpo,
+            Locale idioma
+    ) {
+        FormatoDeImportacao formato = FormatoDeImportacao.de(contentType)
+                .orElseThrow(() -> new ResponseStatusException(UNSUPPORTED_MEDIA_TYPE, "Formato nao suportado"));
+
+        StreamingResponseBody resposta = saida -> importador.importar(corpo, formato, AlunoAImportarRequest.class, this::gravar, saida, idioma);
+
+        return ResponseEntity.ok(resposta);
+    }
+
+    private Map<Long, String> gravar(List<Linha<AlunoAImportarRequest>> lote) {
+        Map<Long, String> erros = new TreeMap<>();
+        Set<String> vistas = new HashSet<>();
+        List<Aluno> alunos = new ArrayList<>();
+        List<Linha<AlunoAImportarRequest>> aCadastrar = new ArrayList<>();
+
+        for (Linha<AlunoAImportarRequest> linha : lote) {
+            if (vistas.add(linha.getValor().getMatricula())) {
+                alunos.add(linha.getValor().paraAluno());
+                aCadastrar.add(linha);
+            } else {
+                erros.put(linha.getNumero(), "Matricula ja cadastrada");
+            }
+        }
+
+        Set<String> cadastradas = alunoEmLoteRepository.cadastrar(alunos);
+        for (Linha<AlunoAImportarRequest> linha : aCadastrar) {
+            if (!cadastradas.contains(linha.getValor().getMatricula())) {
+                erros.put(linha.getNumero(), "Matricula ja cadastrada");
+            }
+        }
+
+        return erros;
+    }
+}
@@ -0,0 +1,109 @@
+package br.com.zup.edu.universidade.controller;
+
+import br.com.zup.edu.universidade.controller.request.MatriculaAImportarRequest;
+import br.com.zup.edu.universidade.importacao.FormatoDeImportacao;
+import br.com.zup.edu.universidade.importacao.Importador;
+import br.com.zup.edu.universidade.importacao.Importador.Linha;
+import br.com.zup.edu.universidade.repository.AlunoEmLoteRepository;
+import br.com.zup.edu.universidade.repository.MatriculaRepository.Matriculas;
+import br.com.zup.edu.universidade.repository.TurmaRepository;
+import br.com.zup.edu.universidade.service.AdmissaoDeMatriculas;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.UNSUPPORTED_MEDIA_TYPE;
+
+@RestController
+public class ImportarMatriculasController {
+    private final Importador importador;
+    private final TurmaRepository turmaRepository;
+    private final AlunoEmLoteRepository alunoEmLoteRepository;
+    private final AdmissaoDeMatriculas admissao;
+
+    public ImportarMatriculasController(Importador importador, TurmaRepository turmaRepository, AlunoEmLoteRepository alunoEmLoteRepository, AdmissaoDeMatriculas admissao) {
+        this.importador = importador;
+        this.turmaRepository = turmaRepository;
+        this.alunoEmLoteRepository = alunoEmLoteRepository;
+        this.admissao = admissao;
+    }
+
+    /**
+     * Matricula na turma os alunos do corpo, identificados pela matricula. Como em
+     * {@code /turmas/{id}/alunos:batch}, quando faltam vagas ficam os alunos de menor id que couberem,
+     * e as demais linhas sao recusadas.
+     */
+    @PostMapping(
+            value = "/turmas/{id}/alunos:import",
+            consumes = {FormatoDeImportacao.CSV_VALUE, FormatoDeImportacao.NDJSON_VALUE},
+            produces = FormatoDeImportacao.NDJSON_VALUE
+    )
+    public ResponseEntity<StreamingResponseBody> importar(
+            @PathVariable Long id,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream corpo,
+            Locale idioma
+    ) {
+        FormatoDeImportacao formato = FormatoDeImportacao.de(contentType)
+                .orElseThrow(() -> new ResponseStatusException(UNSUPPORTED_MEDIA_TYPE, "Formato nao suportado"));
+
+        if (!turmaRepository.existsById(id)) {
+            throw new ResponseStatusException(NOT_FOUND, "Turma nao cadastrada");
+        }
+
+        StreamingResponseBody resposta = saida -> importador.importar(
+                corpo,
+                formato,
+                MatriculaAImportarRequest.class,
+                lote -> gravar(id, lote),
+                saida,
+                idioma
+        );
+
+        return ResponseEntity.ok(resposta);
+    }
+
+    private Map<Long, String> gravar(Long idTurma, List<Linha<MatriculaAImportarRequest>> lote) {
+        Set<String> matriculas = lote.stream()
+                .map(linha -> linha.getValor().getMatricula())
+                .collect(Collectors.toSet());
+        Map<String, Long> idsPorMatricula = alunoEmLoteRepository.buscarIdsPorMatricula(matriculas);
+
+        Map<Long, String> erros = new TreeMap<>();
+        Map<Long, Long> linhaPorAluno = new HashMap<>();
+        for (Linha<MatriculaAImportarRequest> linha : lote) {
+            Long idAluno = idsPorMatricula.get(linha.getValor().getMatricula());
+            if (idAluno == null) {
+                erros.put(linha.getNumero(), "Aluno nao cadastrado");
+            } else if (linhaPorAluno.putIfAbsent(idAluno, linha.getNumero()) != null) {
+                erros.put(linha.getNumero(), "Aluno já matriculado na turma");
+            }
+        }
+
+        Matriculas admitidas = admissao.matricular(idTurma, linhaPorAluno.keySet());
+        linhaPorAluno.forEach((idAluno, numero) -> {
+            if (admitidas.getSemVaga().contains(idAluno)) {
+                erros.put(numero, "Turma sem vagas");
+            } else if (!admitidas.getMatriculados().contains(idAluno)) {
+                erros.put(numero, "Aluno já matriculado na turma");
+            }
+        });
+
+        return erros;
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.zup.edu.universidade.controller;
+
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+
+/**
+ * Descarta uma regiao do cache de segundo nivel, para quando os dados de referencia forem
+ * alterados fora da aplicacao. Acertos e falhas por regiao ficam em
+ * /actuator/metrics/hibernate.second.level.cache.requests.
+ */
+@RestController
+public class LimparRegiaoDoCacheController {
+    private final CacheImplementor cache;
+
+    public LimparRegiaoDoCacheController(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache();
+    }
+
+    @DeleteMapping("/admin/cache/{regiao}")
+    public ResponseEntity<?> limpar(@PathVariable String regiao) {
+        if (!cache.getCacheRegionNames().contains(regiao)) {
+            throw new ResponseStatusException(NOT_FOUND, "Regiao de cache nao encontrada");
+        }
+
+        cache.evictRegion(regiao);
+
+        return ResponseEntity.noContent().build();
+    }
+}
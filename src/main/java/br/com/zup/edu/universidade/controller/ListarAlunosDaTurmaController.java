@@ -0,0 +1,46 @@
+package br.com.zup.edu.universidade.controller;
+
+import br.com.zup.edu.universidade.controller.response.PaginaResponse;
+import br.com.zup.edu.universidade.repository.TurmaRepository;
+import br.com.zup.edu.universidade.repository.projecao.AlunoDaTurma;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+
+@RestController
+public class ListarAlunosDaTurmaController {
+    private static final int LIMITE_MAXIMO = 500;
+
+    private final TurmaRepository turmaRepository;
+
+    public ListarAlunosDaTurmaController(TurmaRepository turmaRepository) {
+        this.turmaRepository = turmaRepository;
+    }
+
+    @GetMapping("/turmas/{id}/alunos")
+    public ResponseEntity<?> listar(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") Long aposId,
+            @RequestParam(defaultValue = "50") int limite
+    ) {
+        if (aposId < 0 || limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new ResponseStatusException(BAD_REQUEST, "aposId deve ser positivo e limite deve estar entre 1 e " + LIMITE_MAXIMO);
+        }
+
+        List<AlunoDaTurma> alunos = turmaRepository.buscarAlunos(id, aposId, limite + 1);
+
+        if (alunos.isEmpty() && !turmaRepository.existsById(id)) {
+            throw new ResponseStatusException(NOT_FOUND, "Turma nao cadastrada");
+        }
+
+        return ResponseEntity.ok(PaginaResponse.de(alunos, limite, AlunoDaTurma::getId));
+    }
+}
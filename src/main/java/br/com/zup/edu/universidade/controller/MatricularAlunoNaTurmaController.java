@@ -1,10 +1,13 @@
 package br.com.zup.edu.universidade.controller;
 
 import br.com.zup.edu.universidade.controller.request.AlunoAMatricularRequest;
+import br.com.zup.edu.universidade.exception.MatriculaAlunoException;
 import br.com.zup.edu.universidade.model.Aluno;
-import br.com.zup.edu.universidade.model.Turma;
 import br.com.zup.edu.universidade.repository.AlunoRepository;
+import br.com.zup.edu.universidade.repository.MatriculaRepository.Matriculas;
 import br.com.zup.edu.universidade.repository.TurmaRepository;
+import br.com.zup.edu.universidade.service.AdmissaoDeMatriculas;
+import br.com.zup.edu.universidade.service.IndiceDeMatriculas;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -17,6 +20,7 @@ import javax.transaction.Transactional;
 import javax.validation.Valid;
 
 import java.net.URI;
+import java.util.List;
 
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
@@ -25,10 +29,14 @@ import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
 public class MatricularAlunoNaTurmaController {
     private final AlunoRepository alunoRepository;
     private final TurmaRepository turmaRepository;
+    private final AdmissaoDeMatriculas admissao;
+    private final IndiceDeMatriculas indice;
 
-    public MatricularAlunoNaTurmaController(AlunoRepository alunoRepository, TurmaRepository turmaRepository) {
+    public MatricularAlunoNaTurmaController(AlunoRepository alunoRepository, TurmaRepository turmaRepository, AdmissaoDeMatriculas admissao, IndiceDeMatriculas indice) {
         this.alunoRepository = alunoRepository;
         this.turmaRepository = turmaRepository;
+        this.admissao = admissao;
+        this.indice = indice;
     }
 
     @PostMapping("/turmas/{id}/alunos")
@@ -38,19 +46,29 @@ public class MatricularAlunoNaTurmaController {
             @RequestBody @Valid AlunoAMatricularRequest request,
             UriComponentsBuilder uriComponentsBuilder
     ) {
-        Turma turma = turmaRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Turma nao cadastrada"));
+        admissao.verificarVaga(id);
+
+        if (indice.isMatriculado(id, request.getIdAluno())) {
+            throw new ResponseStatusException(UNPROCESSABLE_ENTITY, "Aluno já matriculado na turma");
+        }
+
+        if (!turmaRepository.existsById(id)) {
+            throw new ResponseStatusException(NOT_FOUND, "Turma nao cadastrada");
+        }
 
         Aluno aluno = request.paraAluno(alunoRepository);
 
-        if (turma.isMatriculado(aluno)) {
-            throw new ResponseStatusException(UNPROCESSABLE_ENTITY, "Aluno já matriculado na turma");
+        Matriculas matriculas = admissao.matricular(id, List.of(aluno.getId()));
+        if (!matriculas.getSemVaga().isEmpty()) {
+            throw new MatriculaAlunoException("Turma sem vagas");
         }
 
-        turma.adicionar(aluno);
+        if (matriculas.getMatriculados().isEmpty()) {
+            throw new ResponseStatusException(UNPROCESSABLE_ENTITY, "Aluno já matriculado na turma");
+        }
 
         URI location = uriComponentsBuilder.path("/turmas/{id}/alunos/{idAluno}")
-                .buildAndExpand(turma.getId(), aluno.getId())
+                .buildAndExpand(id, aluno.getId())
                 .toUri();
 
         return ResponseEntity.created(location).build();
@@ -0,0 +1,69 @@
+package br.com.zup.edu.universidade.controller;
+
+import br.com.zup.edu.universidade.controller.request.AlunosAMatricularRequest;
+import br.com.zup.edu.universidade.controller.response.ResultadoMatriculaResponse;
+import br.com.zup.edu.universidade.repository.AlunoRepository;
+import br.com.zup.edu.universidade.repository.MatriculaRepository.Matriculas;
+import br.com.zup.edu.universidade.repository.TurmaRepository;
+import br.com.zup.edu.universidade.service.AdmissaoDeMatriculas;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.transaction.Transactional;
+import javax.validation.Valid;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static br.com.zup.edu.universidade.controller.response.ResultadoMatriculaResponse.SituacaoMatricula.*;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+
+@RestController
+public class MatricularAlunosEmLoteNaTurmaController {
+    private final AlunoRepository alunoRepository;
+    private final TurmaRepository turmaRepository;
+    private final AdmissaoDeMatriculas admissao;
+
+    public MatricularAlunosEmLoteNaTurmaController(AlunoRepository alunoRepository, TurmaRepository turmaRepository, AdmissaoDeMatriculas admissao) {
+        this.alunoRepository = alunoRepository;
+        this.turmaRepository = turmaRepository;
+        this.admissao = admissao;
+    }
+
+    @PostMapping("/turmas/{id}/alunos:batch")
+    @Transactional
+    public ResponseEntity<?> matricular(
+            @PathVariable Long id,
+            @RequestBody @Valid AlunosAMatricularRequest request
+    ) {
+        admissao.verificarVaga(id);
+
+        if (!turmaRepository.existsById(id)) {
+            throw new ResponseStatusException(NOT_FOUND, "Turma nao cadastrada");
+        }
+
+        Set<Long> idsAlunos = request.paraIdsDistintos();
+        Set<Long> cadastrados = new HashSet<>(alunoRepository.findIdsExistentes(idsAlunos));
+        Matriculas matriculas = admissao.matricular(id, cadastrados);
+
+        List<ResultadoMatriculaResponse> resultados = new ArrayList<>();
+        for (Long idAluno : idsAlunos) {
+            if (!cadastrados.contains(idAluno)) {
+                resultados.add(new ResultadoMatriculaResponse(idAluno, ALUNO_NAO_CADASTRADO));
+            } else if (matriculas.getMatriculados().contains(idAluno)) {
+                resultados.add(new ResultadoMatriculaResponse(idAluno, MATRICULADO));
+            } else if (matriculas.getSemVaga().contains(idAluno)) {
+                resultados.add(new ResultadoMatriculaResponse(idAluno, SEM_VAGAS));
+            } else {
+                resultados.add(new ResultadoMatriculaResponse(idAluno, JA_MATRICULADO));
+            }
+        }
+
+        return ResponseEntity.ok(resultados);
+    }
+}
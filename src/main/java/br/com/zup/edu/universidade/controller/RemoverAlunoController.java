@@ -1,7 +1,8 @@
 package br.com.zup.edu.universidade.controller;
 
-import br.com.zup.edu.universidade.model.Aluno;
 import br.com.zup.edu.universidade.repository.AlunoRepository;
+import br.com.zup.edu.universidade.service.AdmissaoDeMatriculas;
+import br.com.zup.edu.universidade.service.EstatisticasDasAvaliacoes;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -15,18 +16,25 @@ import static org.springframework.http.HttpStatus.NOT_FOUND;
 @RestController
 public class RemoverAlunoController {
     private final AlunoRepository repository;
+    private final EstatisticasDasAvaliacoes estatisticas;
+    private final AdmissaoDeMatriculas admissao;
 
-    public RemoverAlunoController(AlunoRepository repository) {
+    public RemoverAlunoController(AlunoRepository repository, EstatisticasDasAvaliacoes estatisticas, AdmissaoDeMatriculas admissao) {
         this.repository = repository;
+        this.estatisticas = estatisticas;
+        this.admissao = admissao;
     }
 
     @DeleteMapping("/alunos/{id}")
     @Transactional
     public ResponseEntity<?> remover(@PathVariable Long id) {
-        Aluno aluno = repository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "aluno nao cadastrado"));
+        if (!repository.existsById(id)) {
+            throw new ResponseStatusException(NOT_FOUND, "aluno nao cadastrado");
+        }
 
-        repository.delete(aluno);
+        estatisticas.alunoRemovido(id);
+        admissao.desmatricularDeTodas(id);
+        repository.removerEmLote(id);
 
         return ResponseEntity.noContent().build();
     }
@@ -1,18 +1,15 @@
 package br.com.zup.edu.universidade.controller;
 
-import br.com.zup.edu.universidade.controller.request.AlunoAMatricularRequest;
-import br.com.zup.edu.universidade.model.Aluno;
-import br.com.zup.edu.universidade.model.Turma;
 import br.com.zup.edu.universidade.repository.AlunoRepository;
 import br.com.zup.edu.universidade.repository.TurmaRepository;
+import br.com.zup.edu.universidade.service.AdmissaoDeMatriculas;
+import br.com.zup.edu.universidade.service.IndiceDeMatriculas;
+import br.com.zup.edu.universidade.service.IndiceDeMatriculas.Pertinencia;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
-import org.springframework.web.util.UriComponentsBuilder;
 
 import javax.transaction.Transactional;
-import javax.validation.Valid;
-import java.net.URI;
 
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
@@ -21,10 +18,14 @@ import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
 public class RemoverAlunoDaTurmaController {
     private final AlunoRepository alunoRepository;
     private final TurmaRepository turmaRepository;
+    private final AdmissaoDeMatriculas admissao;
+    private final IndiceDeMatriculas indice;
 
-    public RemoverAlunoDaTurmaController(AlunoRepository alunoRepository, TurmaRepository turmaRepository) {
+    public RemoverAlunoDaTurmaController(AlunoRepository alunoRepository, TurmaRepository turmaRepository, AdmissaoDeMatriculas admissao, IndiceDeMatriculas indice) {
         this.alunoRepository = alunoRepository;
         this.turmaRepository = turmaRepository;
+        this.admissao = admissao;
+        this.indice = indice;
     }
 
     @DeleteMapping("/turmas/{idTurma}/alunos/{idAluno}")
@@ -33,18 +34,18 @@ public class RemoverAlunoDaTurmaController {
             @PathVariable Long idTurma,
             @PathVariable Long idAluno
     ) {
-        Turma turma = turmaRepository.findById(idTurma)
-                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Turma nao cadastrada"));
-
-        Aluno aluno = alunoRepository.findById(idAluno)
-                .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Aluno nao cadastrado"));
+        if (admissao.desmatricular(idTurma, idAluno)) {
+            return ResponseEntity.noContent().build();
+        }
 
-        if (!turma.isMatriculado(aluno)) {
-            throw new ResponseStatusException(UNPROCESSABLE_ENTITY, "Não é posssivel desfazer uma matricula inexistente");
+        if (indice.consultar(idTurma, idAluno) == Pertinencia.DESCONHECIDA && !turmaRepository.existsById(idTurma)) {
+            throw new ResponseStatusException(NOT_FOUND, "Turma nao cadastrada");
         }
 
-        turma.remover(aluno);
+        if (!alunoRepository.existsById(idAluno)) {
+            throw new ResponseStatusException(NOT_FOUND, "Aluno nao cadastrado");
+        }
 
-        return ResponseEntity.noContent().build();
+        throw new ResponseStatusException(UNPROCESSABLE_ENTITY, "Não é posssivel desfazer uma matricula inexistente");
     }
 }
@@ -4,6 +4,7 @@ import br.com.zup.edu.universidade.model.Aluno;
 import br.com.zup.edu.universidade.model.RespostaAvaliacao;
 import br.com.zup.edu.universidade.repository.AlunoRepository;
 import br.com.zup.edu.universidade.repository.RespostaAvaliacaoRepository;
+import br.com.zup.edu.universidade.service.EstatisticasDasAvaliacoes;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -19,10 +20,12 @@ import static org.springframework.http.HttpStatus.UNPROCESSABLE_ENTITY;
 public class RemoverAvaliacaoDoAlunoController {
     private final RespostaAvaliacaoRepository respostaAvaliacaoRepository;
     private final AlunoRepository alunoRepository;
+    private final EstatisticasDasAvaliacoes estatisticas;
 
-    public RemoverAvaliacaoDoAlunoController(RespostaAvaliacaoRepository respostaAvaliacaoRepository, AlunoRepository alunoRepository) {
+    public RemoverAvaliacaoDoAlunoController(RespostaAvaliacaoRepository respostaAvaliacaoRepository, AlunoRepository alunoRepository, EstatisticasDasAvaliacoes estatisticas) {
         this.respostaAvaliacaoRepository = respostaAvaliacaoRepository;
         this.alunoRepository = alunoRepository;
+        this.estatisticas = estatisticas;
     }
 
     @DeleteMapping("/aluno/{idAluno}/respostas/{idResposta}")
@@ -41,7 +44,8 @@ public class RemoverAvaliacaoDoAlunoController {
             throw new ResponseStatusException(UNPROCESSABLE_ENTITY,"Esta reposta de avaliacao não pertence a este aluno");
         }
 
-        respostaAvaliacaoRepository.delete(resposta);
+        estatisticas.removida(resposta);
+        respostaAvaliacaoRepository.remover(resposta);
 
         return ResponseEntity.noContent().build();
     }
@@ -0,0 +1,48 @@
+package br.com.zup.edu.universidade.controller.request;
+
+import br.com.zup.edu.universidade.model.Aluno;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Past;
+import javax.validation.constraints.Size;
+import java.time.LocalDate;
+
+public class AlunoAImportarRequest {
+    @NotBlank
+    @Size(max = 255)
+    private String nome;
+
+    @NotBlank
+    @Size(max = 255)
+    private String matricula;
+
+    @NotNull
+    @Past
+    private LocalDate dataNascimento;
+
+    public AlunoAImportarRequest(String nome, String matricula, LocalDate dataNascimento) {
+        this.nome = nome;
+        this.matricula = matricula;
+        this.dataNascimento = dataNascimento;
+    }
+
+    public AlunoAImportarRequest() {
+    }
+
+    public Aluno paraAluno() {
+        return new Aluno(nome, matricula, dataNascimento);
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public String getMatricula() {
+        return matricula;
+    }
+
+    public LocalDate getDataNascimento() {
+        return dataNascimento;
+    }
+}
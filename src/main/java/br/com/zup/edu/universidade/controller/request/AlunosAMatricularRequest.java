@@ -0,0 +1,33 @@
+package br.com.zup.edu.universidade.controller.request;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+public class AlunosAMatricularRequest {
+    @NotEmpty
+    @Size(max = 1000)
+    private List<@NotNull @Positive Long> idsAlunos;
+
+    public AlunosAMatricularRequest(List<Long> idsAlunos) {
+        this.idsAlunos = idsAlunos;
+    }
+
+    public AlunosAMatricularRequest() {
+    }
+
+    /**
+     * Ids sem repeticao, na ordem em que foram enviados.
+     */
+    public Set<Long> paraIdsDistintos() {
+        return new LinkedHashSet<>(idsAlunos);
+    }
+
+    public List<Long> getIdsAlunos() {
+        return idsAlunos;
+    }
+}
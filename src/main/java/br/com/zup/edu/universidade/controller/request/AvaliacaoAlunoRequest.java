@@ -2,16 +2,20 @@ package br.com.zup.edu.universidade.controller.request;
 
 import br.com.zup.edu.universidade.model.Aluno;
 import br.com.zup.edu.universidade.model.Avaliacao;
+import br.com.zup.edu.universidade.model.Questao;
 import br.com.zup.edu.universidade.model.RespostaAvaliacao;
 import br.com.zup.edu.universidade.model.RespostaQuestao;
 import br.com.zup.edu.universidade.repository.AvaliacaoRepository;
+import br.com.zup.edu.universidade.util.LongHashSet;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -30,16 +34,57 @@ public class AvaliacaoAlunoRequest {
     public AvaliacaoAlunoRequest() {
     }
 
+    /**
+     * Com mais de uma resposta para a mesma questao, vale a primeira; as demais nao sao gravadas
+     * nem contam na nota.
+     */
     public RespostaAvaliacao paraRespostaAvaliacao(Aluno aluno, Avaliacao avaliacao) {
+        validar(avaliacao);
 
+        Map<Long, Questao> questoes = avaliacao.getIndiceDeQuestoes();
 
-        Set<RespostaQuestao> respostasQuestoes = respostas.stream()
-                .map(request -> request.paraRespostaQuestao(aluno, avaliacao.getQuestoes()))
-                .collect(Collectors.toSet());
+        LongHashSet respondidas = new LongHashSet(respostas.size());
+        Set<RespostaQuestao> respostasQuestoes = new LinkedHashSet<>();
+        for (RespostaQuestaoRequest request : respostas) {
+            if (!respondidas.add(request.getIdQuestao())) {
+                continue;
+            }
+            respostasQuestoes.add(request.paraRespostaQuestao(aluno, questoes.get(request.getIdQuestao())));
+        }
 
         return new RespostaAvaliacao(aluno, avaliacao, respostasQuestoes);
     }
 
+    /**
+     * Rejeita, de uma vez, todas as respostas para questoes que nao fazem parte da avaliacao.
+     */
+    public void validar(Avaliacao avaliacao) {
+        Map<Long, Questao> questoes = avaliacao.getIndiceDeQuestoes();
+
+        Set<Long> idsInexistentes = new LinkedHashSet<>();
+        for (RespostaQuestaoRequest request : respostas) {
+            if (!questoes.containsKey(request.getIdQuestao())) {
+                idsInexistentes.add(request.getIdQuestao());
+            }
+        }
+
+        if (!idsInexistentes.isEmpty()) {
+            throw new ResponseStatusException(UNPROCESSABLE_ENTITY, mensagemQuestoesInexistentes(idsInexistentes));
+        }
+    }
+
+    private static String mensagemQuestoesInexistentes(Set<Long> idsInexistentes) {
+        if (idsInexistentes.size() == 1) {
+            return String.format("Nao existe cadastro para questao com id %d", idsInexistentes.iterator().next());
+        }
+
+        String ids = idsInexistentes.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(", "));
+
+        return String.format("Nao existe cadastro para questoes com ids %s", ids);
+    }
+
 
     public List<RespostaQuestaoRequest> getRespostas() {
         return respostas;
@@ -27,10 +27,18 @@ public class CriarTurmaRequest {
     @Future
     private LocalDate dataFim;
 
+    @Positive
+    private Integer vagas;
+
     public CriarTurmaRequest(Long idProfessor, LocalDate dataInicio, LocalDate dataFim) {
+        this(idProfessor, dataInicio, dataFim, null);
+    }
+
+    public CriarTurmaRequest(Long idProfessor, LocalDate dataInicio, LocalDate dataFim, Integer vagas) {
         this.idProfessor = idProfessor;
         this.dataInicio = dataInicio;
         this.dataFim = dataFim;
+        this.vagas = vagas;
     }
 
     public CriarTurmaRequest() {
@@ -40,7 +48,7 @@ public class CriarTurmaRequest {
         Professor professor = professorRepository.findById(idProfessor)
                 .orElseThrow(() -> new ResponseStatusException(UNPROCESSABLE_ENTITY, "Professor não cadastrado"));
 
-        return new Turma(disciplina,dataInicio,dataFim,professor);
+        return new Turma(disciplina,dataInicio,dataFim,professor,vagas);
     }
 
     public Long getIdProfessor() {
@@ -54,4 +62,8 @@ public class CriarTurmaRequest {
     public LocalDate getDataFim() {
         return dataFim;
     }
+
+    public Integer getVagas() {
+        return vagas;
+    }
 }
@@ -0,0 +1,21 @@
+package br.com.zup.edu.universidade.controller.request;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Size;
+
+public class MatriculaAImportarRequest {
+    @NotBlank
+    @Size(max = 255)
+    private String matricula;
+
+    public MatriculaAImportarRequest(String matricula) {
+        this.matricula = matricula;
+    }
+
+    public MatriculaAImportarRequest() {
+    }
+
+    public String getMatricula() {
+        return matricula;
+    }
+}
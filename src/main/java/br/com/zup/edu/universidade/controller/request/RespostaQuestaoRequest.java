@@ -3,15 +3,11 @@ package br.com.zup.edu.universidade.controller.request;
 import br.com.zup.edu.universidade.model.Aluno;
 import br.com.zup.edu.universidade.model.Questao;
 import br.com.zup.edu.universidade.model.RespostaQuestao;
-import org.springframework.http.HttpStatus;
-import org.springframework.web.server.ResponseStatusException;
 
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
-import java.util.Set;
-
-import static org.springframework.http.HttpStatus.*;
+import javax.validation.constraints.Size;
 
 public class RespostaQuestaoRequest {
     @NotNull
@@ -19,6 +15,7 @@ public class RespostaQuestaoRequest {
     private Long idQuestao;
 
     @NotBlank
+    @Size(max = 255)
     private String resposta;
 
     public RespostaQuestaoRequest(Long idQuestao, String resposta) {
@@ -29,17 +26,7 @@ public class RespostaQuestaoRequest {
     public RespostaQuestaoRequest() {
     }
 
-    public RespostaQuestao paraRespostaQuestao(Aluno aluno, Set<Questao> questoes) {
-        Questao questao = questoes.stream()
-                .filter(q -> q.getId().equals(idQuestao))
-                .findFirst()
-                .orElseThrow(
-                        () -> new ResponseStatusException(
-                                UNPROCESSABLE_ENTITY,
-                                String.format("Nao existe cadastro para questao com id %d", idQuestao)
-                        )
-                );
-
+    public RespostaQuestao paraRespostaQuestao(Aluno aluno, Questao questao) {
         return new RespostaQuestao(aluno, questao, resposta);
     }
 
@@ -0,0 +1,129 @@
+package br.com.zup.edu.universidade.controller.response;
+
+import br.com.zup.edu.universidade.service.EstatisticasDaAvaliacao;
+import br.com.zup.edu.universidade.service.HistogramaDeNotas;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class EstatisticasDaAvaliacaoResponse {
+    private final Long idAvaliacao;
+    private final long respostas;
+    private final BigDecimal notaMaxima;
+    private final BigDecimal media;
+    private final Map<String, BigDecimal> percentis = new LinkedHashMap<>();
+    private final List<FaixaDeNotasResponse> distribuicao = new ArrayList<>();
+    private final List<DesempenhoDaQuestaoResponse> questoes;
+
+    public EstatisticasDaAvaliacaoResponse(EstatisticasDaAvaliacao estatisticas) {
+        HistogramaDeNotas.Retrato notas = estatisticas.getNotas();
+
+        this.idAvaliacao = estatisticas.getIdAvaliacao();
+        this.respostas = notas.getQuantidade();
+        this.notaMaxima = notas.getNotaMaxima();
+        this.media = notas.media();
+        this.percentis.put("p50", notas.percentil(0.50));
+        this.percentis.put("p90", notas.percentil(0.90));
+        this.percentis.put("p99", notas.percentil(0.99));
+
+        for (int faixa = 0; faixa < HistogramaDeNotas.FAIXAS; faixa++) {
+            long quantidade = notas.quantidadeNaFaixa(faixa);
+            if (quantidade > 0) {
+                distribuicao.add(new FaixaDeNotasResponse(notas.inicioDaFaixa(faixa), notas.fimDaFaixa(faixa), quantidade));
+            }
+        }
+
+        this.questoes = estatisticas.getQuestoes().stream()
+                .map(DesempenhoDaQuestaoResponse::new)
+                .collect(Collectors.toList());
+    }
+
+    public Long getIdAvaliacao() {
+        return idAvaliacao;
+    }
+
+    public long getRespostas() {
+        return respostas;
+    }
+
+    public BigDecimal getNotaMaxima() {
+        return notaMaxima;
+    }
+
+    public BigDecimal getMedia() {
+        return media;
+    }
+
+    public Map<String, BigDecimal> getPercentis() {
+        return percentis;
+    }
+
+    public List<FaixaDeNotasResponse> getDistribuicao() {
+        return distribuicao;
+    }
+
+    public List<DesempenhoDaQuestaoResponse> getQuestoes() {
+        return questoes;
+    }
+
+    public static class FaixaDeNotasResponse {
+        private final BigDecimal de;
+        private final BigDecimal ate;
+        private final long quantidade;
+
+        FaixaDeNotasResponse(BigDecimal de, BigDecimal ate, long quantidade) {
+            this.de = de;
+            this.ate = ate;
+            this.quantidade = quantidade;
+        }
+
+        public BigDecimal getDe() {
+            return de;
+        }
+
+        public BigDecimal getAte() {
+            return ate;
+        }
+
+        public long getQuantidade() {
+            return quantidade;
+        }
+    }
+
+    public static class DesempenhoDaQuestaoResponse {
+        private final Long idQuestao;
+        private final long respostas;
+        private final long acertos;
+        private final BigDecimal taxaDeAcerto;
+
+        DesempenhoDaQuestaoResponse(EstatisticasDaAvaliacao.Desempenho desempenho) {
+            this.idQuestao = desempenho.getIdQuestao();
+            this.respostas = desempenho.getRespostas();
+            this.acertos = desempenho.getAcertos();
+            this.taxaDeAcerto = respostas == 0
+                    ? null
+                    : BigDecimal.valueOf(acertos).divide(BigDecimal.valueOf(respostas), 4, RoundingMode.HALF_EVEN);
+        }
+
+        public Long getIdQuestao() {
+            return idQuestao;
+        }
+
+        public long getRespostas() {
+            return respostas;
+        }
+
+        public long getAcertos() {
+            return acertos;
+        }
+
+        public BigDecimal getTaxaDeAcerto() {
+            return taxaDeAcerto;
+        }
+    }
+}
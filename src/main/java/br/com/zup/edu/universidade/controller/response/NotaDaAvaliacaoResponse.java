@@ -0,0 +1,23 @@
+package br.com.zup.edu.universidade.controller.response;
+
+import br.com.zup.edu.universidade.repository.projecao.NotaDaAvaliacao;
+
+import java.math.BigDecimal;
+
+public class NotaDaAvaliacaoResponse {
+    private final Long idResposta;
+    private final BigDecimal nota;
+
+    public NotaDaAvaliacaoResponse(NotaDaAvaliacao notaDaAvaliacao) {
+        this.idResposta = notaDaAvaliacao.getId();
+        this.nota = notaDaAvaliacao.getNota();
+    }
+
+    public Long getIdResposta() {
+        return idResposta;
+    }
+
+    public BigDecimal getNota() {
+        return nota;
+    }
+}
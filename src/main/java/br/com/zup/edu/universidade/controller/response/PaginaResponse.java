@@ -0,0 +1,39 @@
+package br.com.zup.edu.universidade.controller.response;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Pagina de uma listagem por busca (keyset). {@code proximo} e o valor a ser enviado em
+ * {@code aposId} para obter a pagina seguinte, ou nulo quando nao houver mais itens.
+ */
+public class PaginaResponse<T> {
+    private final List<T> itens;
+    private final Long proximo;
+
+    private PaginaResponse(List<T> itens, Long proximo) {
+        this.itens = itens;
+        this.proximo = proximo;
+    }
+
+    /**
+     * @param encontrados resultado de uma consulta com limite {@code limite + 1}; o item excedente
+     *                    so indica que existe uma proxima pagina
+     */
+    public static <T> PaginaResponse<T> de(List<T> encontrados, int limite, Function<T, Long> id) {
+        if (encontrados.size() <= limite) {
+            return new PaginaResponse<>(encontrados, null);
+        }
+
+        List<T> itens = encontrados.subList(0, limite);
+        return new PaginaResponse<>(itens, id.apply(itens.get(limite - 1)));
+    }
+
+    public List<T> getItens() {
+        return itens;
+    }
+
+    public Long getProximo() {
+        return proximo;
+    }
+}
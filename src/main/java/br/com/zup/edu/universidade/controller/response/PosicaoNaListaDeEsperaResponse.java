@@ -0,0 +1,19 @@
+package br.com.zup.edu.universidade.controller.response;
+
+public class PosicaoNaListaDeEsperaResponse {
+    private final Long idAluno;
+    private final Long posicao;
+
+    public PosicaoNaListaDeEsperaResponse(Long idAluno, Long posicao) {
+        this.idAluno = idAluno;
+        this.posicao = posicao;
+    }
+
+    public Long getIdAluno() {
+        return idAluno;
+    }
+
+    public Long getPosicao() {
+        return posicao;
+    }
+}
@@ -0,0 +1,26 @@
+package br.com.zup.edu.universidade.controller.response;
+
+public class ResultadoMatriculaResponse {
+    private final Long idAluno;
+    private final SituacaoMatricula situacao;
+
+    public ResultadoMatriculaResponse(Long idAluno, SituacaoMatricula situacao) {
+        this.idAluno = idAluno;
+        this.situacao = situacao;
+    }
+
+    public Long getIdAluno() {
+        return idAluno;
+    }
+
+    public SituacaoMatricula getSituacao() {
+        return situacao;
+    }
+
+    public enum SituacaoMatricula {
+        MATRICULADO,
+        JA_MATRICULADO,
+        SEM_VAGAS,
+        ALUNO_NAO_CADASTRADO
+    }
+}
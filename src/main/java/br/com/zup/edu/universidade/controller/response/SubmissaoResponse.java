@@ -0,0 +1,36 @@
+package br.com.zup.edu.universidade.controller.response;
+
+import br.com.zup.edu.universidade.model.SituacaoSubmissao;
+import br.com.zup.edu.universidade.model.SubmissaoPendente;
+
+import java.net.URI;
+
+public class SubmissaoResponse {
+    private final Long id;
+    private final SituacaoSubmissao situacao;
+    private final String mensagemDeErro;
+    private final URI resposta;
+
+    public SubmissaoResponse(SubmissaoPendente submissao, URI resposta) {
+        this.id = submissao.getId();
+        this.situacao = submissao.getSituacao();
+        this.mensagemDeErro = submissao.getMensagemDeErro();
+        this.resposta = resposta;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public SituacaoSubmissao getSituacao() {
+        return situacao;
+    }
+
+    public String getMensagemDeErro() {
+        return mensagemDeErro;
+    }
+
+    public URI getResposta() {
+        return resposta;
+    }
+}
@@ -6,5 +6,6 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
 public class MatriculaAlunoException extends RuntimeException {
     public MatriculaAlunoException(String mensagem) {
+        super(mensagem);
     }
 }
@@ -0,0 +1,7 @@
+package br.com.zup.edu.universidade.exception;
+
+public class OrcamentoDeSqlExcedidoException extends RuntimeException {
+    public OrcamentoDeSqlExcedidoException(String mensagem) {
+        super(mensagem);
+    }
+}
@@ -0,0 +1,75 @@
+package br.com.zup.edu.universidade.exportacao;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Uma linha por questao respondida, repetindo os dados da resposta e do aluno.
+ */
+class CsvDeRespostas implements EscritorDeRespostas {
+    private static final String CABECALHO = "idResposta,idAluno,matricula,nome,nota,idQuestao,resposta,notaDaQuestao";
+
+    private final Writer saida;
+
+    CsvDeRespostas(OutputStream saida) throws IOException {
+        this.saida = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+        this.saida.write(CABECALHO);
+        this.saida.write('\n');
+    }
+
+    @Override
+    public void linha(ResultSet rs) throws SQLException, IOException {
+        saida.write(Long.toString(rs.getLong(1)));
+        saida.write(',');
+        saida.write(Long.toString(rs.getLong(2)));
+        saida.write(',');
+        escreverTexto(rs.getString(3));
+        saida.write(',');
+        escreverTexto(rs.getString(4));
+        saida.write(',');
+        escreverNumero(rs.getBigDecimal(5));
+        saida.write(',');
+        long idQuestao = rs.getLong(6);
+        if (!rs.wasNull()) {
+            saida.write(Long.toString(idQuestao));
+        }
+        saida.write(',');
+        escreverTexto(rs.getString(7));
+        saida.write(',');
+        escreverNumero(rs.getBigDecimal(8));
+        saida.write('\n');
+    }
+
+    @Override
+    public void concluir() throws IOException {
+        saida.flush();
+    }
+
+    private void escreverNumero(BigDecimal numero) throws IOException {
+        if (numero != null) {
+            saida.write(numero.toPlainString());
+        }
+    }
+
+    private void escreverTexto(String texto) throws IOException {
+        if (texto == null) {
+            return;
+        }
+
+        if (texto.indexOf(',') < 0 && texto.indexOf('"') < 0 && texto.indexOf('\n') < 0 && texto.indexOf('\r') < 0) {
+            saida.write(texto);
+            return;
+        }
+
+        saida.write('"');
+        saida.write(texto.replace("\"", "\"\""));
+        saida.write('"');
+    }
+}
@@ -0,0 +1,15 @@
+package br.com.zup.edu.universidade.exportacao;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Escreve na saida, uma linha do cursor por vez, as respostas de uma avaliacao. As linhas chegam
+ * ordenadas por resposta e questao, com as colunas da consulta do {@link ExportadorDeRespostas}.
+ */
+interface EscritorDeRespostas {
+    void linha(ResultSet rs) throws SQLException, IOException;
+
+    void concluir() throws IOException;
+}
@@ -0,0 +1,72 @@
+package br.com.zup.edu.universidade.exportacao;
+
+import br.com.zup.edu.universidade.importacao.FormatoDeImportacao;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Exporta as respostas de uma avaliacao direto de um cursor JDBC para a saida, sem carregar
+ * entidades: o driver do Postgres so usa cursor (em vez de trazer o resultado inteiro) com
+ * {@code fetchSize} e dentro de uma transacao, por isso a consulta roda num
+ * {@link TransactionTemplate} somente leitura e num {@link JdbcTemplate} proprio. A memoria usada
+ * e a de {@code tamanhoDoLote} linhas, qualquer que seja o tamanho da avaliacao.
+ */
+@Component
+public class ExportadorDeRespostas {
+    private static final String CONSULTA = "select ra.id, a.id, a.matricula, a.nome, ra.nota, rq.questao_id, rq.resposta, rq.nota " +
+            "from resposta_avaliacao ra " +
+            "join aluno a on a.id = ra.aluno_id " +
+            "left join resposta_avaliacao_respostas rar on rar.resposta_avaliacao_id = ra.id " +
+            "left join resposta_questao rq on rq.id = rar.respostas_id " +
+            "where ra.avaliacao_id = ? and ra.id > ? " +
+            "order by ra.id, rq.questao_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper mapper;
+
+    public ExportadorDeRespostas(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper mapper,
+            @Value("${universidade.exportacao.tamanho-do-lote:1000}") int tamanhoDoLote
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(tamanhoDoLote);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.mapper = mapper;
+    }
+
+    /**
+     * Escreve as respostas da avaliacao com id maior que {@code aposId}, em ordem de id.
+     */
+    public void exportar(Long idAvaliacao, Long aposId, FormatoDeImportacao formato, OutputStream saida) throws IOException {
+        EscritorDeRespostas escritor = formato == FormatoDeImportacao.CSV
+                ? new CsvDeRespostas(saida)
+                : new NdjsonDeRespostas(mapper, saida);
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(CONSULTA, rs -> {
+                try {
+                    escritor.linha(rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, idAvaliacao, aposId));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        escritor.concluir();
+    }
+}
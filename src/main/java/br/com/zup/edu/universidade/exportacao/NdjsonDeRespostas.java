@@ -0,0 +1,76 @@
+package br.com.zup.edu.universidade.exportacao;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Um objeto por resposta de avaliacao, com as questoes respondidas em {@code respostas}. O objeto
+ * e escrito enquanto as linhas chegam, sem juntar as questoes em memoria; uma linha do NDJSON so
+ * termina quando a resposta esta completa, entao o ultimo {@code idResposta} recebido inteiro serve
+ * para retomar a exportacao.
+ */
+class NdjsonDeRespostas implements EscritorDeRespostas {
+    private final JsonGenerator gerador;
+    private long respostaAtual = -1;
+
+    NdjsonDeRespostas(ObjectMapper mapper, OutputStream saida) throws IOException {
+        this.gerador = mapper.getFactory().createGenerator(saida);
+        this.gerador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.gerador.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void linha(ResultSet rs) throws SQLException, IOException {
+        long idResposta = rs.getLong(1);
+        if (idResposta != respostaAtual) {
+            fecharResposta();
+            gerador.writeStartObject();
+            gerador.writeNumberField("idResposta", idResposta);
+            gerador.writeNumberField("idAluno", rs.getLong(2));
+            gerador.writeStringField("matricula", rs.getString(3));
+            gerador.writeStringField("nome", rs.getString(4));
+            escreverNumero("nota", rs.getBigDecimal(5));
+            gerador.writeArrayFieldStart("respostas");
+            respostaAtual = idResposta;
+        }
+
+        long idQuestao = rs.getLong(6);
+        if (!rs.wasNull()) {
+            gerador.writeStartObject();
+            gerador.writeNumberField("idQuestao", idQuestao);
+            gerador.writeStringField("resposta", rs.getString(7));
+            escreverNumero("nota", rs.getBigDecimal(8));
+            gerador.writeEndObject();
+        }
+    }
+
+    @Override
+    public void concluir() throws IOException {
+        fecharResposta();
+        gerador.flush();
+    }
+
+    private void fecharResposta() throws IOException {
+        if (respostaAtual < 0) {
+            return;
+        }
+
+        gerador.writeEndArray();
+        gerador.writeEndObject();
+        gerador.writeRaw('\n');
+    }
+
+    private void escreverNumero(String campo, BigDecimal numero) throws IOException {
+        if (numero == null) {
+            gerador.writeNullField(campo);
+        } else {
+            gerador.writeNumberField(campo, numero);
+        }
+    }
+}
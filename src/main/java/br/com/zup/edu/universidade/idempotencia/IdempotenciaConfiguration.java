@@ -0,0 +1,20 @@
+package br.com.zup.edu.universidade.idempotencia;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class IdempotenciaConfiguration implements WebMvcConfigurer {
+    private final RequisicoesIdempotentes requisicoes;
+
+    public IdempotenciaConfiguration(RequisicoesIdempotentes requisicoes) {
+        this.requisicoes = requisicoes;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RepeticaoIdempotenteInterceptor(requisicoes))
+                .addPathPatterns("/alunos/*/avaliacoes/*/respostas");
+    }
+}
@@ -0,0 +1,54 @@
+package br.com.zup.edu.universidade.idempotencia;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Responde a repeticao de uma submissao ja lembrada em memoria antes do controller, e portanto
+ * sem abrir transacao nem pegar conexao do pool. Os demais casos (chave invalida, esquecida ou
+ * usada em outra avaliacao) seguem para o {@code FazerAvaliacaoController}.
+ */
+class RepeticaoIdempotenteInterceptor implements HandlerInterceptor {
+    private final RequisicoesIdempotentes requisicoes;
+
+    RepeticaoIdempotenteInterceptor(RequisicoesIdempotentes requisicoes) {
+        this.requisicoes = requisicoes;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String chave = request.getHeader(RequisicoesIdempotentes.CABECALHO);
+        if (!"POST".equals(request.getMethod()) || !RequisicoesIdempotentes.valida(chave)) {
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, String> variaveis = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        Long idAluno;
+        Long idAvaliacao;
+        try {
+            idAluno = Long.valueOf(variaveis.get("id"));
+            idAvaliacao = Long.valueOf(variaveis.get("idAvaliacao"));
+        } catch (RuntimeException e) {
+            return true;
+        }
+
+        Optional<RequisicoesIdempotentes.Resultado> anterior = requisicoes.lembrar(idAluno, chave)
+                .filter(resultado -> resultado.pertenceA(idAvaliacao));
+        if (anterior.isEmpty()) {
+            return true;
+        }
+
+        RequisicoesIdempotentes.Resultado resultado = anterior.get();
+        response.setStatus(resultado.getStatus().value());
+        response.setHeader(HttpHeaders.LOCATION, resultado.location(idAluno, ServletUriComponentsBuilder.fromServletMapping(request)).toString());
+        return false;
+    }
+}
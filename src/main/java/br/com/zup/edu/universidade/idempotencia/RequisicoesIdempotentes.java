@@ -0,0 +1,191 @@
+package br.com.zup.edu.universidade.idempotencia;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Resultado das submissoes feitas com {@code Idempotency-Key}, para que a repeticao de uma
+ * submissao devolva a mesma resposta sem gravar outra. A chave vale por aluno.
+ * <p>
+ * Os resultados recentes ficam num cache em memoria, limitado e com validade, consultado antes de
+ * abrir transacao ({@link RepeticaoIdempotenteInterceptor}). Quem garante a unicidade e a
+ * restricao unica (aluno, chave) no banco: ela cobre as chaves que o cache ja esqueceu, as de
+ * outras instancias e duas repeticoes simultaneas.
+ */
+@Component
+public class RequisicoesIdempotentes {
+    public static final String CABECALHO = "Idempotency-Key";
+    public static final int TAMANHO_MAXIMO_DA_CHAVE = 255;
+
+    private static final Set<String> RESTRICOES_DA_CHAVE = Set.of(
+            "resposta_avaliacao_idempotencia_uk",
+            "submissao_pendente_idempotencia_uk"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<Chave, Resultado> resultados;
+
+    public RequisicoesIdempotentes(
+            JdbcTemplate jdbcTemplate,
+            @Value("${universidade.avaliacoes.idempotencia.validade-em-minutos:1440}") long validadeEmMinutos,
+            @Value("${universidade.avaliacoes.idempotencia.maximo-de-chaves:100000}") long maximoDeChaves
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.resultados = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(validadeEmMinutos))
+                .maximumSize(maximoDeChaves)
+                .build();
+    }
+
+    public static boolean valida(String chave) {
+        return chave != null && !chave.isBlank() && chave.length() <= TAMANHO_MAXIMO_DA_CHAVE;
+    }
+
+    /**
+     * @return se a violacao foi da restricao unica (aluno, chave), isto e, se outra requisicao
+     * gravou a mesma chave primeiro
+     */
+    public static boolean chaveEmUso(DataIntegrityViolationException e) {
+        if (!(e.getCause() instanceof ConstraintViolationException)) {
+            return false;
+        }
+
+        String restricao = ((ConstraintViolationException) e.getCause()).getConstraintName();
+        return restricao != null && RESTRICOES_DA_CHAVE.contains(restricao.toLowerCase());
+    }
+
+    /**
+     * @return o resultado guardado em memoria, sem consultar o banco
+     */
+    public Optional<Resultado> lembrar(Long idAluno, String chave) {
+        return Optional.ofNullable(resultados.getIfPresent(new Chave(idAluno, chave)));
+    }
+
+    /**
+     * @return o resultado guardado em memoria ou, na falta dele, o gravado no banco; se a chave
+     * estiver nas duas tabelas, vale a resposta ja gravada, e nao a submissao pendente
+     */
+    public Optional<Resultado> buscar(Long idAluno, String chave) {
+        Optional<Resultado> lembrado = lembrar(idAluno, chave);
+        if (lembrado.isPresent()) {
+            return lembrado;
+        }
+
+        Optional<Resultado> gravado = jdbcTemplate.query(
+                "select avaliacao_id, id, false from resposta_avaliacao where aluno_id = ? and chave_de_idempotencia = ? " +
+                        "union all " +
+                        "select id_avaliacao, id, true from submissao_pendente where id_aluno = ? and chave_de_idempotencia = ? " +
+                        "order by 3 limit 1",
+                (rs, linha) -> new Resultado(rs.getLong(1), rs.getLong(2), rs.getBoolean(3)),
+                idAluno,
+                chave,
+                idAluno,
+                chave
+        ).stream().findFirst();
+
+        gravado.ifPresent(resultado -> resultados.put(new Chave(idAluno, chave), resultado));
+        return gravado;
+    }
+
+    /**
+     * Guarda o resultado depois do commit da transacao que gravou a submissao.
+     */
+    public void registrar(Long idAluno, String chave, Resultado resultado) {
+        Runnable acao = () -> resultados.put(new Chave(idAluno, chave), resultado);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+
+    public static final class Resultado {
+        private final Long idAvaliacao;
+        private final Long id;
+        private final boolean assincrono;
+
+        private Resultado(Long idAvaliacao, Long id, boolean assincrono) {
+            this.idAvaliacao = idAvaliacao;
+            this.id = id;
+            this.assincrono = assincrono;
+        }
+
+        public static Resultado resposta(Long idAvaliacao, Long idResposta) {
+            return new Resultado(idAvaliacao, idResposta, false);
+        }
+
+        public static Resultado submissao(Long idAvaliacao, Long idSubmissao) {
+            return new Resultado(idAvaliacao, idSubmissao, true);
+        }
+
+        public boolean pertenceA(Long idAvaliacao) {
+            return this.idAvaliacao.equals(idAvaliacao);
+        }
+
+        public HttpStatus getStatus() {
+            return assincrono ? HttpStatus.ACCEPTED : HttpStatus.CREATED;
+        }
+
+        public URI location(Long idAluno, UriComponentsBuilder uriComponentsBuilder) {
+            String caminho = assincrono
+                    ? "/alunos/{id}/avaliacoes/{idAvaliacao}/submissoes/{idSubmissao}"
+                    : "/alunos/{id}/avaliacoes/{idAvaliacao}/respostas/{idResposta}";
+
+            return uriComponentsBuilder.path(caminho)
+                    .buildAndExpand(idAluno, idAvaliacao, id)
+                    .toUri();
+        }
+
+        public ResponseEntity<?> responder(Long idAluno, UriComponentsBuilder uriComponentsBuilder) {
+            return ResponseEntity.status(getStatus())
+                    .location(location(idAluno, uriComponentsBuilder))
+                    .build();
+        }
+    }
+
+    private static final class Chave {
+        private final Long idAluno;
+        private final String chave;
+
+        private Chave(Long idAluno, String chave) {
+            this.idAluno = idAluno;
+            this.chave = chave;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Chave)) return false;
+            Chave outra = (Chave) o;
+            return idAluno.equals(outra.idAluno) && chave.equals(outra.chave);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(idAluno, chave);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package br.com.zup.edu.universidade.importacao;
+
+import org.springframework.http.MediaType;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+public enum FormatoDeImportacao {
+    /**
+     * Primeira linha com os nomes dos campos, separados por virgula; aspas duplas delimitam
+     * valores com virgula.
+     */
+    CSV(MediaType.parseMediaType(FormatoDeImportacao.CSV_VALUE)),
+
+    /**
+     * Um objeto JSON por linha.
+     */
+    NDJSON(MediaType.parseMediaType(FormatoDeImportacao.NDJSON_VALUE));
+
+    public static final String CSV_VALUE = "text/csv";
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+
+    private final MediaType tipo;
+
+    FormatoDeImportacao(MediaType tipo) {
+        this.tipo = tipo;
+    }
+
+    /**
+     * @return o formato preferido entre os aceitos pelo cliente no cabecalho {@code Accept}
+     */
+    public static Optional<FormatoDeImportacao> aceito(String accept) {
+        List<MediaType> aceitos = MediaType.parseMediaTypes(accept);
+        MediaType.sortBySpecificityAndQuality(aceitos);
+        for (MediaType aceito : aceitos) {
+            for (FormatoDeImportacao formato : values()) {
+                if (aceito.isCompatibleWith(formato.tipo)) {
+                    return Optional.of(formato);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    public static Optional<FormatoDeImportacao> de(String contentType) {
+        MediaType tipo = MediaType.parseMediaType(contentType);
+        return Arrays.stream(values())
+                .filter(formato -> formato.tipo.isCompatibleWith(tipo))
+                .findFirst();
+    }
+
+    public MediaType getTipo() {
+        return tipo;
+    }
+}
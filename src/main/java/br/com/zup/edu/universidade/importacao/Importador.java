@@ -0,0 +1,218 @@
+package br.com.zup.edu.universidade.importacao;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Importa um corpo CSV ou NDJSON em lotes de {@code tamanhoDoLote} linhas: cada linha e convertida
+ * e validada como um request comum, e cada lote e gravado em uma transacao propria. A memoria usada
+ * e a de um lote, qualquer que seja o tamanho do arquivo; um lote que falha nao desfaz os anteriores.
+ * Um lote que falha ao gravar e regravado linha a linha, para que so a linha com problema seja recusada.
+ */
+@Component
+public class Importador {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Importador.class);
+    private static final String FALHA_AO_GRAVAR = "Nao foi possivel gravar a linha";
+
+    private final ObjectMapper mapper;
+    private final ObjectWriter writer;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanhoDoLote;
+    private final long errosReportados;
+
+    public Importador(
+            ObjectMapper mapper,
+            Validator validator,
+            PlatformTransactionManager transactionManager,
+            @Value("${universidade.importacao.tamanho-do-lote:1000}") int tamanhoDoLote,
+            @Value("${universidade.importacao.erros-reportados:1000}") long errosReportados
+    ) {
+        this.mapper = mapper;
+        this.writer = mapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanhoDoLote = tamanhoDoLote;
+        this.errosReportados = errosReportados;
+    }
+
+    public <T> void importar(
+            InputStream corpo,
+            FormatoDeImportacao formato,
+            Class<T> tipo,
+            Gravacao<T> gravacao,
+            OutputStream saida,
+            Locale idioma
+    ) throws IOException {
+        // Roda fora da thread da requisicao: as mensagens de validacao precisam do idioma pedido pelo cliente
+        LocaleContextHolder.setLocale(idioma);
+        try {
+            importar(corpo, formato, tipo, gravacao, saida);
+        } finally {
+            LocaleContextHolder.resetLocaleContext();
+        }
+    }
+
+    private <T> void importar(
+            InputStream corpo,
+            FormatoDeImportacao formato,
+            Class<T> tipo,
+            Gravacao<T> gravacao,
+            OutputStream saida
+    ) throws IOException {
+        LeitorDeRegistros leitor = new LeitorDeRegistros(corpo, formato, mapper);
+        RelatorioDeImportacao relatorio = new RelatorioDeImportacao(writer, saida, errosReportados);
+        List<Linha<T>> lote = new ArrayList<>(tamanhoDoLote);
+
+        LeitorDeRegistros.Registro registro;
+        while ((registro = leitor.proximo()) != null) {
+            relatorio.lida();
+
+            if (registro.erro != null) {
+                relatorio.erro(registro.linha, registro.erro);
+                continue;
+            }
+
+            String erro = null;
+            T valor = null;
+            try {
+                valor = mapper.convertValue(registro.campos, tipo);
+                erro = validar(valor);
+            } catch (IllegalArgumentException e) {
+                erro = mensagemDeConversao(e);
+            }
+
+            if (erro != null) {
+                relatorio.erro(registro.linha, erro);
+                continue;
+            }
+
+            lote.add(new Linha<>(registro.linha, valor));
+            if (lote.size() == tamanhoDoLote) {
+                gravar(lote, gravacao, relatorio);
+                lote.clear();
+            }
+        }
+
+        if (!lote.isEmpty()) {
+            gravar(lote, gravacao, relatorio);
+        }
+        relatorio.concluir();
+    }
+
+    private <T> void gravar(List<Linha<T>> lote, Gravacao<T> gravacao, RelatorioDeImportacao relatorio) throws IOException {
+        Map<Long, String> erros;
+        try {
+            erros = transactionTemplate.execute(status -> gravacao.gravar(lote));
+        } catch (ResponseStatusException e) {
+            erros = todasAsLinhas(lote, e.getReason());
+        } catch (RuntimeException e) {
+            if (lote.size() == 1) {
+                LOGGER.warn("Linha {} da importacao falhou ao gravar", lote.get(0).getNumero(), e);
+                erros = todasAsLinhas(lote, FALHA_AO_GRAVAR);
+            } else {
+                LOGGER.warn("Lote de importacao falhou ao gravar, regravando linha a linha", e);
+                erros = gravarIndividualmente(lote, gravacao);
+            }
+        }
+
+        for (Map.Entry<Long, String> erro : erros.entrySet()) {
+            relatorio.erro(erro.getKey(), erro.getValue());
+        }
+        relatorio.importadas(lote.size() - erros.size());
+    }
+
+    private <T> Map<Long, String> gravarIndividualmente(List<Linha<T>> lote, Gravacao<T> gravacao) {
+        Map<Long, String> erros = new TreeMap<>();
+        for (Linha<T> linha : lote) {
+            try {
+                erros.putAll(transactionTemplate.execute(status -> gravacao.gravar(List.of(linha))));
+            } catch (ResponseStatusException e) {
+                erros.put(linha.getNumero(), e.getReason());
+            } catch (RuntimeException e) {
+                LOGGER.warn("Linha {} da importacao falhou ao gravar", linha.getNumero(), e);
+                erros.put(linha.getNumero(), FALHA_AO_GRAVAR);
+            }
+        }
+        return erros;
+    }
+
+    private <T> String validar(T valor) {
+        Set<ConstraintViolation<T>> violacoes = validator.validate(valor);
+        if (violacoes.isEmpty()) {
+            return null;
+        }
+
+        return violacoes.stream()
+                .sorted(Comparator.comparing(violacao -> violacao.getPropertyPath().toString()))
+                .map(violacao -> String.format("O campo %s %s", violacao.getPropertyPath(), violacao.getMessage()))
+                .collect(Collectors.joining("; "));
+    }
+
+    private static String mensagemDeConversao(IllegalArgumentException e) {
+        if (e.getCause() instanceof JsonMappingException) {
+            List<JsonMappingException.Reference> caminho = ((JsonMappingException) e.getCause()).getPath();
+            if (!caminho.isEmpty()) {
+                return String.format("O campo %s tem um valor invalido", caminho.get(caminho.size() - 1).getFieldName());
+            }
+        }
+        return "Linha invalida";
+    }
+
+    private static <T> Map<Long, String> todasAsLinhas(List<Linha<T>> lote, String mensagem) {
+        return lote.stream().collect(Collectors.toMap(Linha::getNumero, linha -> mensagem, (a, b) -> a, TreeMap::new));
+    }
+
+    /**
+     * Grava um lote ja validado, dentro da transacao aberta pelo {@link Importador}.
+     */
+    @FunctionalInterface
+    public interface Gravacao<T> {
+        /**
+         * @return as linhas do lote que nao foram gravadas, com o motivo, em ordem
+         */
+        Map<Long, String> gravar(List<Linha<T>> lote);
+    }
+
+    public static class Linha<T> {
+        private final long numero;
+        private final T valor;
+
+        Linha(long numero, T valor) {
+            this.numero = numero;
+            this.valor = valor;
+        }
+
+        public long getNumero() {
+            return numero;
+        }
+
+        public T getValor() {
+            return valor;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package br.com.zup.edu.universidade.importacao;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Le o corpo da importacao uma linha por vez, sem guardar nada alem da linha atual (e do
+ * cabecalho, no CSV). Linhas maiores que {@link #TAMANHO_MAXIMO_DA_LINHA} sao descartadas e
+ * viram erro, para que um arquivo sem quebras de linha nao esgote a memoria.
+ */
+class LeitorDeRegistros {
+    static final int TAMANHO_MAXIMO_DA_LINHA = 64 * 1024;
+
+    private final Reader leitor;
+    private final FormatoDeImportacao formato;
+    private final ObjectMapper mapper;
+    private final char[] buffer = new char[8192];
+    private int posicao;
+    private int lidos;
+    private final StringBuilder linhaAtual = new StringBuilder();
+    private List<String> cabecalho;
+    private long numeroDaLinha;
+    private boolean fim;
+
+    LeitorDeRegistros(InputStream corpo, FormatoDeImportacao formato, ObjectMapper mapper) {
+        this.leitor = new InputStreamReader(corpo, StandardCharsets.UTF_8);
+        this.formato = formato;
+        this.mapper = mapper;
+    }
+
+    /**
+     * @return o proximo registro, valido ou nao, ou nulo no fim do corpo
+     */
+    Registro proximo() throws IOException {
+        while (lerLinha()) {
+            if (linhaAtual.length() > TAMANHO_MAXIMO_DA_LINHA) {
+                return Registro.invalido(numeroDaLinha, "linha maior que " + TAMANHO_MAXIMO_DA_LINHA + " caracteres");
+            }
+
+            String linha = linhaAtual.toString();
+            if (numeroDaLinha == 1 && linha.startsWith("\uFEFF")) {
+                linha = linha.substring(1);
+            }
+            if (linha.isBlank()) {
+                continue;
+            }
+
+            try {
+                if (formato == FormatoDeImportacao.NDJSON) {
+                    return Registro.valido(numeroDaLinha, lerJson(linha));
+                }
+                if (cabecalho == null) {
+                    cabecalho = dividirCsv(linha);
+                    continue;
+                }
+                return Registro.valido(numeroDaLinha, lerCsv(linha));
+            } catch (IllegalArgumentException e) {
+                return Registro.invalido(numeroDaLinha, e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private boolean lerLinha() throws IOException {
+        linhaAtual.setLength(0);
+        boolean leuAlgo = false;
+
+        while (true) {
+            if (posicao == lidos) {
+                int quantidade = fim ? -1 : leitor.read(buffer);
+                if (quantidade == -1) {
+                    fim = true;
+                    break;
+                }
+                posicao = 0;
+                lidos = quantidade;
+            }
+
+            leuAlgo = true;
+            char caractere = buffer[posicao++];
+            if (caractere == '\n') {
+                break;
+            }
+            if (linhaAtual.length() <= TAMANHO_MAXIMO_DA_LINHA) {
+                linhaAtual.append(caractere);
+            }
+        }
+
+        if (!leuAlgo) {
+            return false;
+        }
+
+        int ultimo = linhaAtual.length() - 1;
+        if (ultimo >= 0 && linhaAtual.charAt(ultimo) == '\r') {
+            linhaAtual.setLength(ultimo);
+        }
+        numeroDaLinha++;
+        return true;
+    }
+
+    private Map<String, Object> lerJson(String linha) {
+        JsonNode objeto;
+        try {
+            objeto = mapper.readTree(linha);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("JSON invalido");
+        }
+        if (!objeto.isObject()) {
+            throw new IllegalArgumentException("a linha deve ser um objeto JSON");
+        }
+        return mapper.convertValue(objeto, Map.class);
+    }
+
+    private Map<String, Object> lerCsv(String linha) {
+        List<String> valores = dividirCsv(linha);
+        if (valores.size() != cabecalho.size()) {
+            throw new IllegalArgumentException(String.format("esperados %d campos, encontrados %d", cabecalho.size(), valores.size()));
+        }
+
+        Map<String, Object> campos = new LinkedHashMap<>();
+        for (int i = 0; i < valores.size(); i++) {
+            campos.put(cabecalho.get(i), valores.get(i));
+        }
+        return campos;
+    }
+
+    static List<String> dividirCsv(String linha) {
+        List<String> valores = new ArrayList<>();
+        StringBuilder valor = new StringBuilder();
+        boolean entreAspas = false;
+
+        for (int i = 0; i < linha.length(); i++) {
+            char caractere = linha.charAt(i);
+            if (entreAspas) {
+                if (caractere != '"') {
+                    valor.append(caractere);
+                } else if (i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    valor.append('"');
+                    i++;
+                } else {
+                    entreAspas = false;
+                }
+            } else if (caractere == '"') {
+                entreAspas = true;
+            } else if (caractere == ',') {
+                valores.add(valor.toString().trim());
+                valor.setLength(0);
+            } else {
+                valor.append(caractere);
+            }
+        }
+
+        if (entreAspas) {
+            throw new IllegalArgumentException("aspas sem fechamento");
+        }
+        valores.add(valor.toString().trim());
+        return valores;
+    }
+
+    static class Registro {
+        final long linha;
+        final Map<String, Object> campos;
+        final String erro;
+
+        private Registro(long linha, Map<String, Object> campos, String erro) {
+            this.linha = linha;
+            this.campos = campos;
+            this.erro = erro;
+        }
+
+        static Registro valido(long linha, Map<String, Object> campos) {
+            return new Registro(linha, campos, null);
+        }
+
+        static Registro invalido(long linha, String erro) {
+            return new Registro(linha, null, erro);
+        }
+    }
+}
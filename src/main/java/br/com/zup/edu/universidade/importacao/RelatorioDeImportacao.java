@@ -0,0 +1,74 @@
+package br.com.zup.edu.universidade.importacao;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Escreve o andamento da importacao como NDJSON, a medida que ela acontece: um evento {@code erro}
+ * por linha recusada (ate {@code errosReportados}; os demais so entram na contagem), um
+ * {@code progresso} a cada lote gravado e um {@code resumo} no fim.
+ */
+class RelatorioDeImportacao {
+    private final ObjectWriter writer;
+    private final OutputStream saida;
+    private final long errosReportados;
+    private long linhas;
+    private long importadas;
+    private long erros;
+
+    RelatorioDeImportacao(ObjectWriter writer, OutputStream saida, long errosReportados) {
+        this.writer = writer;
+        this.saida = saida;
+        this.errosReportados = errosReportados;
+    }
+
+    void lida() {
+        linhas++;
+    }
+
+    void erro(long linha, String mensagem) throws IOException {
+        erros++;
+        if (erros <= errosReportados) {
+            Map<String, Object> evento = evento("erro");
+            evento.put("linha", linha);
+            evento.put("mensagem", mensagem);
+            escrever(evento);
+        }
+    }
+
+    void importadas(int quantidade) throws IOException {
+        importadas += quantidade;
+        escrever(contagem("progresso"));
+        saida.flush();
+    }
+
+    void concluir() throws IOException {
+        Map<String, Object> resumo = contagem("resumo");
+        resumo.put("errosOmitidos", Math.max(0, erros - errosReportados));
+        escrever(resumo);
+        saida.flush();
+    }
+
+    private Map<String, Object> contagem(String tipo) {
+        Map<String, Object> evento = evento(tipo);
+        evento.put("linhas", linhas);
+        evento.put("importadas", importadas);
+        evento.put("erros", erros);
+        return evento;
+    }
+
+    private static Map<String, Object> evento(String tipo) {
+        Map<String, Object> evento = new LinkedHashMap<>();
+        evento.put("tipo", tipo);
+        return evento;
+    }
+
+    private void escrever(Map<String, Object> evento) throws IOException {
+        saida.write(writer.writeValueAsBytes(evento));
+        saida.write('\n');
+    }
+}
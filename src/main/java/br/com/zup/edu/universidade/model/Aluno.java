@@ -5,12 +5,15 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Supplier;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "aluno_matricula_uk", columnNames = "matricula"))
 public class Aluno {
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @GeneratedValue(generator = SequenciaPorEntidadeGenerator.NOME)
     private Long id;
 
     @Column(nullable = false)
@@ -42,6 +45,18 @@ public class Aluno {
         return id;
     }
 
+    public String getNome() {
+        return nome;
+    }
+
+    public String getMatricula() {
+        return matricula;
+    }
+
+    public LocalDate getDataNascimento() {
+        return dataNascimento;
+    }
+
 
     public void adicionar(Turma turma) {
         this.turmas.add(turma);
@@ -51,7 +66,38 @@ public class Aluno {
         this.turmas.remove(turma);
     }
 
+    /**
+     * Reflete uma matricula gravada direto em {@code turma_alunos}, sem carregar as turmas. A
+     * turma so e obtida se elas ja estiverem carregadas.
+     */
+    public void refletirMatricula(Supplier<Turma> turma) {
+        ColecoesPersistentes.incluir(this.turmas, turma);
+    }
+
+    /**
+     * Reflete uma desmatricula gravada direto em {@code turma_alunos}, sem carregar as turmas.
+     */
+    public void refletirDesmatricula(Long idTurma) {
+        ColecoesPersistentes.retirar(this.turmas, turma -> turma.getId().equals(idTurma));
+    }
+
     public void adicionar(RespostaAvaliacao respostaAvaliacao) {
         this.avaliacoes.add(respostaAvaliacao);
     }
+
+    /**
+     * Pela matricula, chave natural do aluno: unica no banco e conhecida desde o construtor,
+     * antes do persist. Assim o hash nao muda com o aluno ja dentro de um {@code Set}.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Aluno)) return false;
+        return Objects.equals(matricula, ((Aluno) o).getMatricula());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(matricula);
+    }
 }
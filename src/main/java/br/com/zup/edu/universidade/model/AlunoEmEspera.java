@@ -0,0 +1,40 @@
+package br.com.zup.edu.universidade.model;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Aluno aguardando vaga em uma turma lotada. A fila e atendida por ordem de chegada quando uma
+ * matricula e desfeita; as linhas sao gravadas e consumidas pelo {@code ListaDeEsperaRepository}
+ * e pelo {@code MatriculaRepository}, sem passar pelo Hibernate.
+ */
+@Entity
+@Table(
+        uniqueConstraints = @UniqueConstraint(name = "aluno_em_espera_turma_aluno_uk", columnNames = {"turma_id", "aluno_id"}),
+        indexes = {
+                @Index(name = "aluno_em_espera_fila_idx", columnList = "turma_id, entrouEm, id"),
+                @Index(name = "aluno_em_espera_aluno_idx", columnList = "aluno_id")
+        }
+)
+public class AlunoEmEspera {
+    @Id
+    @GeneratedValue(generator = SequenciaPorEntidadeGenerator.NOME)
+    private Long id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    private Turma turma;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    private Aluno aluno;
+
+    @Column(nullable = false)
+    private LocalDateTime entrouEm = LocalDateTime.now();
+
+    @Deprecated
+    public AlunoEmEspera() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
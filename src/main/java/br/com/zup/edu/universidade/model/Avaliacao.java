@@ -1,23 +1,54 @@
 package br.com.zup.edu.universidade.model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
 
 @Entity
+@Table(indexes = @Index(name = "avaliacao_turma_idx", columnList = "turma_id"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = "avaliacao")
 public class Avaliacao {
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @GeneratedValue(generator = SequenciaPorEntidadeGenerator.NOME)
     private Long id;
 
+    /**
+     * So os alunos matriculados na turma podem responder a avaliacao. Nula nas avaliacoes
+     * cadastradas antes da turma existir no modelo, que nao aceitam respostas.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "turma_id", foreignKey = @ForeignKey(name = "avaliacao_turma_fk"))
+    private Turma turma;
+
     @ManyToMany(cascade = {CascadeType.PERSIST})
+    @JoinTable(
+            name = "avaliacao_questoes",
+            joinColumns = @JoinColumn(name = "avaliacao_id"),
+            inverseJoinColumns = @JoinColumn(name = "questoes_id"),
+            indexes = @Index(name = "avaliacao_questoes_questao_idx", columnList = "questoes_id")
+    )
+    @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = "avaliacao-questoes")
     private Set<Questao> questoes = new LinkedHashSet<>();
 
     @Column(nullable = false)
     private LocalDateTime criadoEm = LocalDateTime.now();
 
-    public Avaliacao(Set<Questao> questoes) {
+    /**
+     * Indice id -> questao, montado no primeiro acesso. As questoes de uma avaliacao nao
+     * mudam depois de cadastradas, entao o indice vale enquanto esta instancia existir.
+     */
+    @Transient
+    private Map<Long, Questao> indiceDeQuestoes;
+
+    public Avaliacao(Turma turma, Set<Questao> questoes) {
+        this.turma = turma;
         this.questoes = questoes;
     }
 
@@ -28,7 +59,26 @@ public class Avaliacao {
         return id;
     }
 
+    /**
+     * Le o id do proxy da turma, sem carrega-la.
+     */
+    public Long getIdTurma() {
+        return turma == null ? null : turma.getId();
+    }
+
     public Set<Questao> getQuestoes() {
         return questoes;
     }
+
+    public Map<Long, Questao> getIndiceDeQuestoes() {
+        if (indiceDeQuestoes == null) {
+            Map<Long, Questao> indice = new HashMap<>((int) (questoes.size() / 0.75f) + 1);
+            for (Questao questao : questoes) {
+                indice.put(questao.getId(), questao);
+            }
+            indiceDeQuestoes = indice;
+        }
+
+        return indiceDeQuestoes;
+    }
 }
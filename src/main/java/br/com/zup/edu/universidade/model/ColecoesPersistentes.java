@@ -0,0 +1,68 @@
+package br.com.zup.edu.universidade.model;
+
+import org.hibernate.Hibernate;
+import org.hibernate.collection.spi.PersistentCollection;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Aplica a uma colecao mapeada uma escrita ja feita direto no banco. Colecoes ainda nao
+ * carregadas ficam como estao, e serao lidas do banco ja com a escrita. Nas carregadas, a
+ * alteracao vale tambem para o retrato com que o Hibernate compara a colecao no flush, entao ele
+ * nao repete a escrita.
+ * <p>
+ * O elemento incluido so e obtido quando a colecao esta carregada: incluir num {@code Set} chama
+ * o {@code hashCode}, que inicializaria um proxy com um SELECT.
+ */
+final class ColecoesPersistentes {
+    private ColecoesPersistentes() {
+    }
+
+    static <T> void retirar(Collection<T> colecao, Predicate<T> filtro) {
+        alterar(colecao, elementos -> elementos.removeIf(filtro), retrato -> retrato.keySet().removeIf(filtro));
+    }
+
+    static <T> void incluir(Collection<T> colecao, Supplier<T> elemento) {
+        if (!Hibernate.isInitialized(colecao)) {
+            return;
+        }
+
+        T incluido = elemento.get();
+        alterar(colecao, elementos -> elementos.add(incluido), retrato -> retrato.put(incluido, incluido));
+    }
+
+    private static <T> void alterar(Collection<T> colecao, Alteracao<Collection<T>> naColecao, Alteracao<Map<T, T>> noRetrato) {
+        if (!Hibernate.isInitialized(colecao)) {
+            return;
+        }
+
+        if (!(colecao instanceof PersistentCollection)) {
+            naColecao.aplicar(colecao);
+            return;
+        }
+
+        PersistentCollection persistente = (PersistentCollection) colecao;
+        boolean alterada = persistente.isDirty();
+
+        naColecao.aplicar(colecao);
+
+        Serializable retrato = persistente.getStoredSnapshot();
+        if (retrato instanceof Map) {
+            @SuppressWarnings("unchecked")
+            Map<T, T> elementos = (Map<T, T>) retrato;
+            noRetrato.aplicar(elementos);
+        }
+
+        if (!alterada) {
+            persistente.clearDirty();
+        }
+    }
+
+    private interface Alteracao<C> {
+        void aplicar(C alvo);
+    }
+}
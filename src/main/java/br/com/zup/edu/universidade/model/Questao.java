@@ -1,14 +1,30 @@
 package br.com.zup.edu.universidade.model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
+
 import javax.persistence.*;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.UUID;
 
 @Entity
+@Immutable
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "questao")
 public class Questao {
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @GeneratedValue(generator = SequenciaPorEntidadeGenerator.NOME)
     private Long id;
 
+    /**
+     * Gerado no construtor e nunca alterado, para que o hash nao mude quando o id e atribuido no
+     * persist.
+     */
+    @Column(nullable = false, updatable = false)
+    private UUID identificador;
+
     @Column(nullable = false)
     private String descricao;
 
@@ -18,10 +34,17 @@ public class Questao {
     @Column(nullable = false)
     private BigDecimal valor;
 
+    /**
+     * Cache de {@link #valor} em centesimos, calculado na primeira correcao.
+     */
+    @Transient
+    private long valorEmCentesimos = -1;
+
     public Questao(String descricao, String resposta, BigDecimal valor) {
         this.descricao = descricao;
         this.resposta = resposta;
         this.valor = valor;
+        this.identificador = UUID.randomUUID();
     }
 
     @Deprecated
@@ -32,6 +55,82 @@ public class Questao {
         return id;
     }
 
+    public BigDecimal getValor() {
+        return valor;
+    }
+
+    /**
+     * Retorna, em centesimos, o valor da questao quando a resposta do aluno equivale a resposta
+     * esperada, ou zero caso contrario. A comparacao ignora caixa, espacos nas pontas e espacos
+     * repetidos entre as palavras, sem criar Strings intermediarias.
+     */
+    public long corrigirEmCentesimos(String respostaDoAluno) {
+        if (!equivalentes(resposta, respostaDoAluno)) {
+            return 0;
+        }
+
+        if (valorEmCentesimos < 0) {
+            valorEmCentesimos = valor.setScale(2, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+        }
+
+        return valorEmCentesimos;
+    }
+
+    static boolean equivalentes(String esperada, String informada) {
+        if (esperada == null || informada == null) {
+            return false;
+        }
+
+        int i = inicioSemEspacos(esperada);
+        int fimEsperada = fimSemEspacos(esperada);
+        int j = inicioSemEspacos(informada);
+        int fimInformada = fimSemEspacos(informada);
+
+        while (i < fimEsperada && j < fimInformada) {
+            char a = esperada.charAt(i);
+            char b = informada.charAt(j);
+
+            if (Character.isWhitespace(a) && Character.isWhitespace(b)) {
+                i = proximoNaoEspaco(esperada, i);
+                j = proximoNaoEspaco(informada, j);
+                continue;
+            }
+
+            if (a != b && Character.toLowerCase(a) != Character.toLowerCase(b)
+                    && Character.toUpperCase(a) != Character.toUpperCase(b)) {
+                return false;
+            }
+
+            i++;
+            j++;
+        }
+
+        return i == fimEsperada && j == fimInformada;
+    }
+
+    private static int inicioSemEspacos(String texto) {
+        int inicio = 0;
+        while (inicio < texto.length() && Character.isWhitespace(texto.charAt(inicio))) {
+            inicio++;
+        }
+        return inicio;
+    }
+
+    private static int fimSemEspacos(String texto) {
+        int fim = texto.length();
+        while (fim > 0 && Character.isWhitespace(texto.charAt(fim - 1))) {
+            fim--;
+        }
+        return fim;
+    }
+
+    private static int proximoNaoEspaco(String texto, int posicao) {
+        while (posicao < texto.length() && Character.isWhitespace(texto.charAt(posicao))) {
+            posicao++;
+        }
+        return posicao;
+    }
+
     @Override
     public String toString() {
         return "Questao{" +
@@ -41,4 +140,21 @@ public class Questao {
                 ", valor=" + valor +
                 '}';
     }
+
+    /**
+     * Pelo id, com o hash do {@link #identificador}: as questoes entram na avaliacao antes do
+     * persist, quando ainda nao tem id. A busca por id
+     * usa {@link Avaliacao#getIndiceDeQuestoes()}.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Questao)) return false;
+        return id != null && id.equals(((Questao) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return identificador.hashCode();
+    }
 }
@@ -1,34 +1,73 @@
 package br.com.zup.edu.universidade.model;
 
+import org.hibernate.annotations.BatchSize;
+
 import javax.persistence.*;
+import java.math.BigDecimal;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
 @Entity
+@Table(
+        indexes = {
+                @Index(name = "resposta_avaliacao_avaliacao_idx", columnList = "avaliacao_id, id"),
+                @Index(name = "resposta_avaliacao_aluno_avaliacao_idx", columnList = "aluno_id, avaliacao_id, id")
+        },
+        uniqueConstraints = @UniqueConstraint(name = "resposta_avaliacao_idempotencia_uk", columnNames = {"aluno_id", "chaveDeIdempotencia"})
+)
+@NamedEntityGraph(name = RespostaAvaliacao.COM_RESPOSTAS, attributeNodes = @NamedAttributeNode("respostas"))
 public class RespostaAvaliacao {
+    public static final String COM_RESPOSTAS = "RespostaAvaliacao.respostas";
+    public static final int TAMANHO_DO_LOTE = 100;
+
+
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @GeneratedValue(generator = SequenciaPorEntidadeGenerator.NOME)
     private Long id;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     private Aluno aluno;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     private Avaliacao avaliacao;
 
-    @ManyToMany(cascade = {CascadeType.PERSIST, CascadeType.REMOVE}, fetch = FetchType.EAGER)
+    /**
+     * Carregadas sob demanda. Ao percorrer uma pagina de respostas de avaliacao, as respostas
+     * de ate {@value #TAMANHO_DO_LOTE} avaliacoes sao inicializadas em uma unica consulta.
+     */
+    @ManyToMany(cascade = {CascadeType.PERSIST, CascadeType.REMOVE})
+    @JoinTable(
+            name = "resposta_avaliacao_respostas",
+            joinColumns = @JoinColumn(name = "resposta_avaliacao_id"),
+            inverseJoinColumns = @JoinColumn(name = "respostas_id"),
+            indexes = @Index(name = "resposta_avaliacao_respostas_questao_idx", columnList = "respostas_id")
+    )
+    @BatchSize(size = RespostaAvaliacao.TAMANHO_DO_LOTE)
     private Set<RespostaQuestao> respostas = new LinkedHashSet<>();
 
+    @Column
+    private BigDecimal nota;
+
+    /**
+     * {@code Idempotency-Key} da submissao, unica por aluno.
+     */
+    private String chaveDeIdempotencia;
+
     public RespostaAvaliacao(Aluno aluno, Avaliacao avaliacao, Set<RespostaQuestao> respostas) {
         this.aluno = aluno;
         this.avaliacao = avaliacao;
         this.respostas = respostas;
+        this.nota = somarNotas(respostas);
     }
 
     @Deprecated
     public RespostaAvaliacao() {
     }
 
+    public void identificarPor(String chaveDeIdempotencia) {
+        this.chaveDeIdempotencia = chaveDeIdempotencia;
+    }
+
     public Set<RespostaQuestao> getRespostas() {
         return respostas;
     }
@@ -37,7 +76,24 @@ public class RespostaAvaliacao {
         return id;
     }
 
+    public Avaliacao getAvaliacao() {
+        return avaliacao;
+    }
+
+    public BigDecimal getNota() {
+        return nota;
+    }
+
+    private static BigDecimal somarNotas(Set<RespostaQuestao> respostas) {
+        long centesimos = 0;
+        for (RespostaQuestao resposta : respostas) {
+            centesimos += resposta.getNotaEmCentesimos();
+        }
+
+        return BigDecimal.valueOf(centesimos, 2);
+    }
+
     public boolean pertence(Aluno aluno) {
-        return this.aluno.equals(aluno);
+        return this.aluno.getId().equals(aluno.getId());
     }
 }
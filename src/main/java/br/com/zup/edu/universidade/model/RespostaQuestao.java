@@ -1,26 +1,52 @@
 package br.com.zup.edu.universidade.model;
 
 import javax.persistence.*;
+import java.math.BigDecimal;
+import java.util.UUID;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "resposta_questao_aluno_idx", columnList = "aluno_id"),
+        @Index(name = "resposta_questao_questao_idx", columnList = "questao_id")
+})
 public class RespostaQuestao {
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @GeneratedValue(generator = SequenciaPorEntidadeGenerator.NOME)
     private Long id;
 
-    @ManyToOne(optional = false)
+    /**
+     * Gerado no construtor e nunca alterado, para que o hash nao mude quando o id e atribuido no
+     * persist.
+     */
+    @Column(nullable = false, updatable = false)
+    private UUID identificador;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     private Aluno aluno;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     private Questao questao;
 
     @Column(nullable = false)
     private String resposta;
 
+    @Column
+    private BigDecimal nota;
+
+    /**
+     * A {@link #nota}, corrigida uma unica vez no construtor, para a soma da
+     * {@link RespostaAvaliacao}.
+     */
+    @Transient
+    private long notaEmCentesimos;
+
     public RespostaQuestao(Aluno aluno, Questao questao, String resposta) {
         this.aluno = aluno;
         this.questao = questao;
         this.resposta = resposta;
+        this.notaEmCentesimos = questao.corrigirEmCentesimos(resposta);
+        this.nota = BigDecimal.valueOf(notaEmCentesimos, 2);
+        this.identificador = UUID.randomUUID();
     }
 
     @Deprecated
@@ -43,10 +69,34 @@ public class RespostaQuestao {
         return aluno;
     }
 
+    public BigDecimal getNota() {
+        return nota;
+    }
+
+    long getNotaEmCentesimos() {
+        return notaEmCentesimos;
+    }
+
     @Override
     public String toString() {
         return "RespostaQuestao{" +
                 "id=" + id +
                 '}';
     }
+
+    /**
+     * Pelo id, com o hash do {@link #identificador}, pois a resposta entra em
+     * {@link RespostaAvaliacao#getRespostas()} antes do persist, quando ainda nao tem id.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof RespostaQuestao)) return false;
+        return id != null && id.equals(((RespostaQuestao) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return identificador.hashCode();
+    }
 }
@@ -0,0 +1,42 @@
+package br.com.zup.edu.universidade.model;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Gera ids a partir de uma sequence por entidade ({@code aluno_seq}, {@code resposta_questao_seq}, ...)
+ * com o otimizador pooled-lo, reservando um bloco de ids a cada ida ao banco.
+ * <p>
+ * O tamanho do bloco vem de {@value #INCREMENTO}, o mesmo para todas as entidades. O Hibernate
+ * compara esse valor com o {@code increment by} da sequence no banco ao subir a aplicacao (veja
+ * {@code hibernate.id.sequence.increment_size_mismatch_strategy}); o Flyway o recebe no
+ * placeholder {@code incremento} e ajusta as sequences antes disso, no
+ * {@code afterMigrate__incremento_das_sequencias.sql}.
+ */
+public class SequenciaPorEntidadeGenerator extends SequenceStyleGenerator {
+    public static final String NOME = "sequencia_por_entidade";
+    public static final String INCREMENTO = "universidade.id.incremento";
+    private static final String INCREMENTO_PADRAO = "50";
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        Map<?, ?> configuracoes = serviceRegistry.getService(ConfigurationService.class).getSettings();
+        String entidade = params.getProperty(TABLE).toLowerCase(Locale.ROOT);
+
+        Object incremento = configuracoes.get(INCREMENTO);
+
+        params.putIfAbsent(SEQUENCE_PARAM, entidade + "_seq");
+        params.putIfAbsent(INCREMENT_PARAM, incremento == null ? INCREMENTO_PADRAO : incremento.toString());
+        params.putIfAbsent(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+
+        super.configure(type, params, serviceRegistry);
+    }
+}
@@ -0,0 +1,7 @@
+package br.com.zup.edu.universidade.model;
+
+public enum SituacaoSubmissao {
+    PENDENTE,
+    PROCESSADA,
+    FALHOU
+}
@@ -0,0 +1,116 @@
+package br.com.zup.edu.universidade.model;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Respostas de avaliacao recebidas no modo assincrono, gravadas como estavam no corpo da
+ * requisicao e convertidas em {@link RespostaAvaliacao} pelos trabalhadores em segundo plano.
+ */
+@Entity
+@Table(
+        indexes = @Index(name = "submissao_pendente_situacao_idx", columnList = "situacao, id"),
+        uniqueConstraints = @UniqueConstraint(name = "submissao_pendente_idempotencia_uk", columnNames = {"idAluno", "chaveDeIdempotencia"})
+)
+public class SubmissaoPendente {
+    public static final int TAMANHO_MAXIMO_DA_MENSAGEM = 255;
+
+    @Id
+    @GeneratedValue(generator = SequenciaPorEntidadeGenerator.NOME)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long idAluno;
+
+    @Column(nullable = false)
+    private Long idAvaliacao;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private SituacaoSubmissao situacao = SituacaoSubmissao.PENDENTE;
+
+    private Long idResposta;
+
+    @Column(length = TAMANHO_MAXIMO_DA_MENSAGEM)
+    private String mensagemDeErro;
+
+    @Column(nullable = false)
+    private LocalDateTime criadoEm = LocalDateTime.now();
+
+    private LocalDateTime processadoEm;
+
+    /**
+     * {@code Idempotency-Key} da submissao, unica por aluno.
+     */
+    private String chaveDeIdempotencia;
+
+    public SubmissaoPendente(Long idAluno, Long idAvaliacao, String payload) {
+        this.idAluno = idAluno;
+        this.idAvaliacao = idAvaliacao;
+        this.payload = payload;
+    }
+
+    @Deprecated
+    public SubmissaoPendente() {
+    }
+
+    public void identificarPor(String chaveDeIdempotencia) {
+        this.chaveDeIdempotencia = chaveDeIdempotencia;
+    }
+
+    public void processada(Long idResposta) {
+        this.situacao = SituacaoSubmissao.PROCESSADA;
+        this.idResposta = idResposta;
+        this.processadoEm = LocalDateTime.now();
+    }
+
+    /**
+     * Mensagens maiores que a coluna sao cortadas, para que registrar a falha nao falhe tambem.
+     */
+    public void falhou(String mensagemDeErro) {
+        this.situacao = SituacaoSubmissao.FALHOU;
+        this.mensagemDeErro = mensagemDeErro == null || mensagemDeErro.length() <= TAMANHO_MAXIMO_DA_MENSAGEM
+                ? mensagemDeErro
+                : mensagemDeErro.substring(0, TAMANHO_MAXIMO_DA_MENSAGEM);
+        this.processadoEm = LocalDateTime.now();
+    }
+
+    public boolean isPendente() {
+        return situacao == SituacaoSubmissao.PENDENTE;
+    }
+
+    public boolean pertence(Long idAluno, Long idAvaliacao) {
+        return this.idAluno.equals(idAluno) && this.idAvaliacao.equals(idAvaliacao);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getIdAluno() {
+        return idAluno;
+    }
+
+    public Long getIdAvaliacao() {
+        return idAvaliacao;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public SituacaoSubmissao getSituacao() {
+        return situacao;
+    }
+
+    public Long getIdResposta() {
+        return idResposta;
+    }
+
+    public String getMensagemDeErro() {
+        return mensagemDeErro;
+    }
+}
@@ -1,18 +1,32 @@
 package br.com.zup.edu.universidade.model;
 
 import br.com.zup.edu.universidade.exception.MatriculaAlunoException;
+import br.com.zup.edu.universidade.util.LongHashSet;
 
 import javax.persistence.*;
 import java.time.LocalDate;
 import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "turma_disciplina_idx", columnList = "disciplina_id"),
+        @Index(name = "turma_professor_idx", columnList = "professor_id")
+})
 public class Turma {
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @GeneratedValue(generator = SequenciaPorEntidadeGenerator.NOME)
     private Long id;
 
+    /**
+     * Gerado no construtor e nunca alterado, para que o hash nao mude quando o id e atribuido no
+     * persist.
+     */
+    @Column(nullable = false, updatable = false)
+    private UUID identificador;
+
     @ManyToOne(optional = false)
     private Disciplina disciplina;
 
@@ -26,13 +40,45 @@ public class Turma {
     private Professor professor;
 
     @ManyToMany(cascade = {CascadeType.PERSIST, CascadeType.MERGE})
+    @JoinTable(
+            name = "turma_alunos",
+            joinColumns = @JoinColumn(name = "turmas_id"),
+            inverseJoinColumns = @JoinColumn(name = "alunos_id"),
+            indexes = @Index(name = "turma_alunos_aluno_turma_idx", columnList = "alunos_id, turmas_id")
+    )
     private Set<Aluno> alunos = new LinkedHashSet<>();
 
+    /**
+     * Ids dos alunos, montado na primeira consulta a {@link #isMatriculado(Aluno)} e mantido a
+     * cada matricula. Nulo enquanto houver aluno sem id na turma.
+     */
+    @Transient
+    private LongHashSet idsDosAlunos;
+
+    /**
+     * Limite de alunos matriculados; nulo quando a turma nao tem limite.
+     */
+    private Integer vagas;
+
+    /**
+     * Contador de matriculas, mantido pelo {@code MatriculaRepository} com updates atomicos no
+     * banco. O Hibernate nunca grava esta coluna, para que uma {@code Turma} carregada antes de
+     * uma matricula concorrente nao sobrescreva o valor.
+     */
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "integer not null default 0")
+    private int matriculados;
+
     public Turma(Disciplina disciplina, LocalDate inicio, LocalDate fim, Professor professor) {
+        this(disciplina, inicio, fim, professor, null);
+    }
+
+    public Turma(Disciplina disciplina, LocalDate inicio, LocalDate fim, Professor professor, Integer vagas) {
         this.disciplina = disciplina;
         this.inicio = inicio;
         this.fim = fim;
         this.professor = professor;
+        this.vagas = vagas;
+        this.identificador = UUID.randomUUID();
         professor.adicionar(this);
         disciplina.adicionar(this);
     }
@@ -45,6 +91,21 @@ public class Turma {
         return id;
     }
 
+    public Integer getVagas() {
+        return vagas;
+    }
+
+    public int getMatriculados() {
+        return matriculados;
+    }
+
+    /**
+     * Segundo o contador lido do banco junto com a turma.
+     */
+    public boolean isLotada() {
+        return vagas != null && matriculados >= vagas;
+    }
+
     public void adicionar(Aluno aluno){
         if(isMatriculado(aluno)){
             throw new MatriculaAlunoException("Aluno já matriculado");
@@ -52,10 +113,47 @@ public class Turma {
 
         this.alunos.add(aluno);
         aluno.adicionar(this);
+        indexar(aluno);
     }
 
     public boolean isMatriculado(Aluno aluno) {
-        return alunos.contains(aluno);
+        LongHashSet ids = idsDosAlunos();
+        if (ids == null || aluno.getId() == null) {
+            return alunos.contains(aluno);
+        }
+        return ids.contains(aluno.getId());
+    }
+
+    private LongHashSet idsDosAlunos() {
+        if (idsDosAlunos == null) {
+            LongHashSet ids = new LongHashSet(alunos.size());
+            for (Aluno aluno : alunos) {
+                if (aluno.getId() == null) {
+                    return null;
+                }
+                ids.add(aluno.getId());
+            }
+            idsDosAlunos = ids;
+        }
+        return idsDosAlunos;
+    }
+
+    private void indexar(Aluno aluno) {
+        if (idsDosAlunos == null) {
+            return;
+        }
+
+        if (aluno.getId() == null) {
+            idsDosAlunos = null;
+        } else {
+            idsDosAlunos.add(aluno.getId());
+        }
+    }
+
+    private void desindexar(Long idAluno) {
+        if (idsDosAlunos != null && idAluno != null) {
+            idsDosAlunos.remove(idAluno);
+        }
     }
 
     public void trocar(Professor novoProfessor){
@@ -71,5 +169,42 @@ public class Turma {
 
         this.alunos.remove(aluno);
         aluno.remover(this);
+        desindexar(aluno.getId());
+    }
+
+    /**
+     * Reflete uma matricula gravada direto em {@code turma_alunos}, sem carregar os alunos. O aluno
+     * so e obtido se eles ja estiverem carregados.
+     */
+    public void refletirMatricula(Long idAluno, Supplier<Aluno> aluno) {
+        ColecoesPersistentes.incluir(this.alunos, aluno);
+        if (idsDosAlunos != null) {
+            idsDosAlunos.add(idAluno);
+        }
+    }
+
+    /**
+     * Reflete uma desmatricula gravada direto em {@code turma_alunos}, sem carregar os alunos.
+     */
+    public void refletirDesmatricula(Long idAluno) {
+        ColecoesPersistentes.retirar(this.alunos, aluno -> aluno.getId().equals(idAluno));
+        desindexar(idAluno);
+    }
+
+    /**
+     * Pelo id, ja que a turma nao tem chave natural. Antes do persist so a propria instancia e
+     * igual. O hash vem do {@link #identificador}, porque o id so e atribuido no persist, com a
+     * turma ja dentro dos {@code Set}s do professor e da disciplina.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Turma)) return false;
+        return id != null && id.equals(((Turma) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return identificador.hashCode();
     }
 }
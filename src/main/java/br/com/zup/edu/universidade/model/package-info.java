@@ -0,0 +1,4 @@
+@GenericGenerator(name = SequenciaPorEntidadeGenerator.NOME, strategy = "br.com.zup.edu.universidade.model.SequenciaPorEntidadeGenerator")
+package br.com.zup.edu.universidade.model;
+
+import org.hibernate.annotations.GenericGenerator;
@@ -0,0 +1,80 @@
+package br.com.zup.edu.universidade.monitoramento;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Comandos, linhas, entidades e colecoes carregados pela requisicao em andamento na thread.
+ * Fora de uma requisicao (tarefas em segundo plano, testes chamando repositorios) nao ha
+ * consumo atual e nada e contado.
+ */
+public class ConsumoDeSql {
+    private static final ThreadLocal<ConsumoDeSql> ATUAL = new ThreadLocal<>();
+
+    private int comandos;
+    private long linhas;
+    private int entidades;
+    private int colecoes;
+    private final Map<String, Integer> execucoesPorComando = new HashMap<>();
+
+    static ConsumoDeSql iniciar() {
+        ConsumoDeSql consumo = new ConsumoDeSql();
+        ATUAL.set(consumo);
+        return consumo;
+    }
+
+    static void encerrar() {
+        ATUAL.remove();
+    }
+
+    static ConsumoDeSql atual() {
+        return ATUAL.get();
+    }
+
+    void comando(String sql) {
+        comandos++;
+        execucoesPorComando.merge(sql, 1, Integer::sum);
+    }
+
+    void linha() {
+        linhas++;
+    }
+
+    void entidade() {
+        entidades++;
+    }
+
+    void colecao() {
+        colecoes++;
+    }
+
+    public int getComandos() {
+        return comandos;
+    }
+
+    public long getLinhas() {
+        return linhas;
+    }
+
+    public int getEntidades() {
+        return entidades;
+    }
+
+    public int getColecoes() {
+        return colecoes;
+    }
+
+    /**
+     * O comando executado mais vezes na requisicao. Um mesmo SELECT repetido a cada item de
+     * uma lista e o sinal de um N+1.
+     */
+    Map.Entry<String, Integer> comandoMaisRepetido() {
+        Map.Entry<String, Integer> maisRepetido = null;
+        for (Map.Entry<String, Integer> comando : execucoesPorComando.entrySet()) {
+            if (maisRepetido == null || comando.getValue() > maisRepetido.getValue()) {
+                maisRepetido = comando;
+            }
+        }
+        return maisRepetido;
+    }
+}
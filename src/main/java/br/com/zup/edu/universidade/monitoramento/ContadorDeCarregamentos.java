@@ -0,0 +1,46 @@
+package br.com.zup.edu.universidade.monitoramento;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * Conta as entidades hidratadas e as colecoes lazy inicializadas pelo Hibernate, que e onde
+ * aparecem os carregamentos de Turma.alunos, Aluno.turmas e Professor.turmas.
+ */
+class ContadorDeCarregamentos implements Integrator, PostLoadEventListener, InitializeCollectionEventListener {
+
+    @Override
+    public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        EventListenerRegistry registro = serviceRegistry.getService(EventListenerRegistry.class);
+        registro.appendListeners(EventType.POST_LOAD, this);
+        registro.appendListeners(EventType.INIT_COLLECTION, this);
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent evento) {
+        ConsumoDeSql consumo = ConsumoDeSql.atual();
+        if (consumo != null) {
+            consumo.entidade();
+        }
+    }
+
+    @Override
+    public void onInitializeCollection(InitializeCollectionEvent evento) {
+        ConsumoDeSql consumo = ConsumoDeSql.atual();
+        if (consumo != null) {
+            consumo.colecao();
+        }
+    }
+}
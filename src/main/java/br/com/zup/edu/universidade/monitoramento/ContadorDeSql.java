@@ -0,0 +1,45 @@
+package br.com.zup.edu.universidade.monitoramento;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * Conta, no nivel do JDBC, os comandos executados e as linhas lidas, inclusive os que passam
+ * pelo JdbcTemplate. Um lote (executeBatch) conta como um comando.
+ */
+class ContadorDeSql implements QueryExecutionListener, MethodExecutionListener {
+
+    @Override
+    public void beforeQuery(ExecutionInfo execucao, List<QueryInfo> consultas) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execucao, List<QueryInfo> consultas) {
+        ConsumoDeSql consumo = ConsumoDeSql.atual();
+        if (consumo != null && !consultas.isEmpty()) {
+            consumo.comando(consultas.get(0).getQuery());
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext contexto) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext contexto) {
+        if (contexto.getTarget() instanceof ResultSet
+                && "next".equals(contexto.getMethod().getName())
+                && Boolean.TRUE.equals(contexto.getResult())) {
+            ConsumoDeSql consumo = ConsumoDeSql.atual();
+            if (consumo != null) {
+                consumo.linha();
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package br.com.zup.edu.universidade.monitoramento;
+
+import br.com.zup.edu.universidade.exception.OrcamentoDeSqlExcedidoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mede o consumo de SQL de cada requisicao, publica as medidas por controller e metodo e
+ * confere o orcamento do endpoint. Em {@link Modo#FALHAR} (usado nos testes) a requisicao que
+ * passar do orcamento lanca {@link OrcamentoDeSqlExcedidoException}; em {@link Modo#LOG} so
+ * registra um aviso.
+ */
+public class FiltroDeConsumoDeSql extends OncePerRequestFilter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FiltroDeConsumoDeSql.class);
+
+    public enum Modo {
+        LOG, FALHAR
+    }
+
+    private final MeterRegistry registry;
+    private final int comandosPorRequisicao;
+    private final int repeticoesPorComando;
+    private final Modo modo;
+    private final Map<Method, Medidores> medidores = new ConcurrentHashMap<>();
+
+    public FiltroDeConsumoDeSql(MeterRegistry registry, int comandosPorRequisicao, int repeticoesPorComando, Modo modo) {
+        this.registry = registry;
+        this.comandosPorRequisicao = comandosPorRequisicao;
+        this.repeticoesPorComando = repeticoesPorComando;
+        this.modo = modo;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+        ConsumoDeSql consumo = ConsumoDeSql.iniciar();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ConsumoDeSql.encerrar();
+        }
+
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod) {
+            HandlerMethod metodo = (HandlerMethod) handler;
+            Medidores medidoresDoMetodo = medidores.computeIfAbsent(metodo.getMethod(), m -> new Medidores(metodo));
+            medidoresDoMetodo.registrar(consumo);
+            conferirOrcamento(metodo, medidoresDoMetodo, consumo);
+        }
+    }
+
+    private void conferirOrcamento(HandlerMethod metodo, Medidores medidores, ConsumoDeSql consumo) {
+        OrcamentoDeSql orcamento = metodo.getMethodAnnotation(OrcamentoDeSql.class);
+        int limite = orcamento == null ? comandosPorRequisicao : orcamento.comandos();
+
+        List<String> problemas = new ArrayList<>();
+        if (consumo.getComandos() > limite) {
+            problemas.add(String.format("%d comandos SQL, orcamento de %d", consumo.getComandos(), limite));
+        }
+
+        Map.Entry<String, Integer> maisRepetido = consumo.comandoMaisRepetido();
+        if (maisRepetido != null && maisRepetido.getValue() > repeticoesPorComando) {
+            problemas.add(String.format("possivel N+1, o mesmo comando rodou %d vezes: %s", maisRepetido.getValue(), maisRepetido.getKey()));
+        }
+
+        if (problemas.isEmpty()) {
+            return;
+        }
+
+        medidores.excedido.increment();
+
+        String mensagem = String.format("%s.%s excedeu o orcamento de SQL (%s; %d linhas, %d entidades, %d colecoes)",
+                metodo.getBeanType().getSimpleName(),
+                metodo.getMethod().getName(),
+                String.join("; ", problemas),
+                consumo.getLinhas(),
+                consumo.getEntidades(),
+                consumo.getColecoes());
+
+        if (modo == Modo.FALHAR) {
+            throw new OrcamentoDeSqlExcedidoException(mensagem);
+        }
+
+        LOGGER.warn(mensagem);
+    }
+
+    private class Medidores {
+        private final DistributionSummary comandos;
+        private final DistributionSummary linhas;
+        private final DistributionSummary entidades;
+        private final DistributionSummary colecoes;
+        private final Counter excedido;
+
+        private Medidores(HandlerMethod metodo) {
+            Tags tags = Tags.of(
+                    "controlador", metodo.getBeanType().getSimpleName(),
+                    "metodo", metodo.getMethod().getName()
+            );
+
+            this.comandos = DistributionSummary.builder("universidade.sql.comandos").tags(tags).register(registry);
+            this.linhas = DistributionSummary.builder("universidade.sql.linhas").tags(tags).register(registry);
+            this.entidades = DistributionSummary.builder("universidade.sql.entidades").tags(tags).register(registry);
+            this.colecoes = DistributionSummary.builder("universidade.sql.colecoes").tags(tags).register(registry);
+            this.excedido = Counter.builder("universidade.sql.orcamento.excedido").tags(tags).register(registry);
+        }
+
+        private void registrar(ConsumoDeSql consumo) {
+            comandos.record(consumo.getComandos());
+            linhas.record(consumo.getLinhas());
+            entidades.record(consumo.getEntidades());
+            colecoes.record(consumo.getColecoes());
+        }
+    }
+}
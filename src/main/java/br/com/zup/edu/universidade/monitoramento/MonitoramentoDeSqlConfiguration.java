@@ -0,0 +1,78 @@
+package br.com.zup.edu.universidade.monitoramento;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Instrumenta o DataSource e o Hibernate para medir o consumo de SQL por requisicao
+ * ({@code universidade.sql.monitoramento.habilitado}) e para o log estruturado de comandos
+ * ({@code universidade.sql.log.*}). Sem nenhum dos dois, o DataSource fica sem proxy.
+ */
+@Configuration
+public class MonitoramentoDeSqlConfiguration {
+    private static final String HABILITADO = "universidade.sql.monitoramento.habilitado";
+
+    @Bean
+    public static BeanPostProcessor instrumentacaoDoDataSource(Environment environment) {
+        boolean monitoramento = environment.getProperty(HABILITADO, Boolean.class, true);
+        RegistroDeSql registro = new RegistroDeSql(
+                environment.getProperty("universidade.sql.log.amostragem", Double.class, 0.0),
+                environment.getProperty("universidade.sql.log.lento-a-partir-de-ms", Long.class, -1L)
+        );
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String nome) {
+                if (!(bean instanceof DataSource) || (!monitoramento && !registro.isAtivo())) {
+                    return bean;
+                }
+
+                ProxyDataSourceBuilder proxy = ProxyDataSourceBuilder.create(nome, (DataSource) bean);
+
+                if (monitoramento) {
+                    ContadorDeSql contador = new ContadorDeSql();
+                    proxy.listener(contador)
+                            .methodListener(contador)
+                            .proxyResultSet();
+                }
+
+                if (registro.isAtivo()) {
+                    proxy.listener(registro);
+                }
+
+                return proxy.build();
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = HABILITADO, havingValue = "true", matchIfMissing = true)
+    public HibernatePropertiesCustomizer contadorDeCarregamentos() {
+        return propriedades -> propriedades.put(
+                "hibernate.integrator_provider",
+                (IntegratorProvider) () -> List.of(new ContadorDeCarregamentos())
+        );
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = HABILITADO, havingValue = "true", matchIfMissing = true)
+    public FiltroDeConsumoDeSql filtroDeConsumoDeSql(
+            MeterRegistry registry,
+            @Value("${universidade.sql.orcamento.comandos:20}") int comandosPorRequisicao,
+            @Value("${universidade.sql.orcamento.repeticoes:5}") int repeticoesPorComando,
+            @Value("${universidade.sql.orcamento.modo:LOG}") FiltroDeConsumoDeSql.Modo modo
+    ) {
+        return new FiltroDeConsumoDeSql(registry, comandosPorRequisicao, repeticoesPorComando, modo);
+    }
+}
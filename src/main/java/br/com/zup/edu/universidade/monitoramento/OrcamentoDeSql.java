@@ -0,0 +1,16 @@
+package br.com.zup.edu.universidade.monitoramento;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Substitui, para um endpoint, o orcamento padrao de comandos SQL por requisicao
+ * ({@code universidade.sql.orcamento.comandos}).
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface OrcamentoDeSql {
+    int comandos();
+}
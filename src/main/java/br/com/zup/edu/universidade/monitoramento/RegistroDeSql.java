@@ -0,0 +1,52 @@
+package br.com.zup.edu.universidade.monitoramento;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.logging.DefaultJsonQueryLogEntryCreator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Registra comandos SQL como JSON, com parametros e tempo de execucao, no logger
+ * {@code universidade.sql}. Comandos que levam {@code lentoAPartirDeMs} ou mais sao sempre
+ * registrados (em WARN); os demais entram numa amostra de {@code amostragem} (0 a 1) em INFO.
+ * O logger escreve por um appender assincrono (logback-spring.xml), fora da thread da requisicao.
+ */
+class RegistroDeSql implements QueryExecutionListener {
+    private static final Logger LOGGER = LoggerFactory.getLogger("universidade.sql");
+
+    private final double amostragem;
+    private final long lentoAPartirDeMs;
+    private final DefaultJsonQueryLogEntryCreator formatador = new DefaultJsonQueryLogEntryCreator();
+
+    RegistroDeSql(double amostragem, long lentoAPartirDeMs) {
+        this.amostragem = amostragem;
+        this.lentoAPartirDeMs = lentoAPartirDeMs;
+    }
+
+    boolean isAtivo() {
+        return amostragem > 0 || lentoAPartirDeMs >= 0;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execucao, List<QueryInfo> consultas) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execucao, List<QueryInfo> consultas) {
+        if (lentoAPartirDeMs >= 0 && execucao.getElapsedTime() >= lentoAPartirDeMs) {
+            if (LOGGER.isWarnEnabled()) {
+                LOGGER.warn(formatador.getLogEntry(execucao, consultas, false, true, false));
+            }
+            return;
+        }
+
+        if (amostragem > 0 && LOGGER.isInfoEnabled() && ThreadLocalRandom.current().nextDouble() < amostragem) {
+            LOGGER.info(formatador.getLogEntry(execucao, consultas, false, true, false));
+        }
+    }
+}
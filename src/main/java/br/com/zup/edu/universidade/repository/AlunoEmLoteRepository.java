@@ -0,0 +1,114 @@
+package br.com.zup.edu.universidade.repository;
+
+import br.com.zup.edu.universidade.model.Aluno;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cadastro de alunos em lote para a importacao, com um unico insert por lote em vez de um por
+ * aluno. Os ids vem da mesma sequencia que o Hibernate usa: cada {@code nextval} reserva um bloco
+ * de {@code increment} ids (otimizador pooled-lo), entao um lote de n alunos gasta n / increment chamadas.
+ */
+@Repository
+public class AlunoEmLoteRepository {
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Integer incremento;
+
+    public AlunoEmLoteRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insere os alunos ignorando as matriculas ja cadastradas, pela restricao unica
+     * {@code aluno_matricula_uk}. Deve rodar dentro de uma transacao.
+     *
+     * @return as matriculas efetivamente inseridas
+     */
+    public Set<String> cadastrar(List<Aluno> alunos) {
+        if (alunos.isEmpty()) {
+            return Set.of();
+        }
+
+        long[] ids = reservarIds(alunos.size());
+        Long[] colunaId = new Long[alunos.size()];
+        String[] colunaNome = new String[alunos.size()];
+        String[] colunaMatricula = new String[alunos.size()];
+        String[] colunaDataNascimento = new String[alunos.size()];
+        for (int i = 0; i < alunos.size(); i++) {
+            Aluno aluno = alunos.get(i);
+            colunaId[i] = ids[i];
+            colunaNome[i] = aluno.getNome();
+            colunaMatricula[i] = aluno.getMatricula();
+            colunaDataNascimento[i] = aluno.getDataNascimento().toString();
+        }
+
+        List<String> inseridas = jdbcTemplate.query(conexao -> {
+            PreparedStatement insert = conexao.prepareStatement(
+                    "insert into aluno (id, nome, matricula, data_nascimento) " +
+                            "select * from unnest(?::bigint[], ?::varchar[], ?::varchar[], ?::date[]) " +
+                            "on conflict (matricula) do nothing returning matricula"
+            );
+            insert.setArray(1, conexao.createArrayOf("bigint", colunaId));
+            insert.setArray(2, conexao.createArrayOf("varchar", colunaNome));
+            insert.setArray(3, conexao.createArrayOf("varchar", colunaMatricula));
+            insert.setArray(4, conexao.createArrayOf("varchar", colunaDataNascimento));
+            return insert;
+        }, (rs, linha) -> rs.getString(1));
+
+        return new HashSet<>(inseridas);
+    }
+
+    public Map<String, Long> buscarIdsPorMatricula(Collection<String> matriculas) {
+        Map<String, Long> ids = new HashMap<>();
+        if (matriculas.isEmpty()) {
+            return ids;
+        }
+
+        jdbcTemplate.query(conexao -> {
+            PreparedStatement select = conexao.prepareStatement("select matricula, id from aluno where matricula = any(?)");
+            Array parametro = conexao.createArrayOf("varchar", matriculas.toArray(String[]::new));
+            select.setArray(1, parametro);
+            return select;
+        }, rs -> {
+            ids.put(rs.getString(1), rs.getLong(2));
+        });
+
+        return ids;
+    }
+
+    private long[] reservarIds(int quantidade) {
+        int incremento = incremento();
+        List<Long> inicios = jdbcTemplate.queryForList(
+                "select nextval('aluno_seq') from generate_series(1, ?)",
+                Long.class,
+                (quantidade + incremento - 1) / incremento
+        );
+
+        long[] ids = new long[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            ids[i] = inicios.get(i / incremento) + i % incremento;
+        }
+        return ids;
+    }
+
+    private int incremento() {
+        Integer incremento = this.incremento;
+        if (incremento == null) {
+            incremento = jdbcTemplate.queryForObject(
+                    "select increment_by from pg_sequences where schemaname = current_schema() and sequencename = 'aluno_seq'",
+                    Integer.class
+            );
+            this.incremento = incremento;
+        }
+        return incremento;
+    }
+}
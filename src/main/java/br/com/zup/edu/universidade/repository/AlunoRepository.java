@@ -1,7 +1,84 @@
 package br.com.zup.edu.universidade.repository;
 
 import br.com.zup.edu.universidade.model.Aluno;
+import br.com.zup.edu.universidade.repository.projecao.TurmaDoAluno;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+
+import static org.hibernate.jpa.QueryHints.HINT_NATIVE_SPACES;
 
 public interface AlunoRepository extends JpaRepository<Aluno, Long> {
+
+    @Query("select a.id from Aluno a where a.id in :ids")
+    List<Long> findIdsExistentes(Collection<Long> ids);
+
+    /**
+     * Pagina por busca (keyset) sobre o indice (alunos_id, turmas_id) de turma_alunos.
+     */
+    @Query(value = "select t.id as \"id\", t.inicio as \"inicio\", t.fim as \"fim\", " +
+            "d.id as \"idDisciplina\", d.sigla as \"siglaDisciplina\", d.nome as \"nomeDisciplina\" " +
+            "from turma_alunos ta join turma t on t.id = ta.turmas_id join disciplina d on d.id = t.disciplina_id " +
+            "where ta.alunos_id = :idAluno and ta.turmas_id > :aposId " +
+            "order by ta.turmas_id limit :limite", nativeQuery = true)
+    List<TurmaDoAluno> buscarTurmas(Long idAluno, Long aposId, int limite);
+
+    /**
+     * Remove o aluno, suas respostas de avaliacao, as respostas das questoes e as listas de espera com um comando por
+     * tabela, sem carregar nenhuma entidade. As matriculas ja devem ter sido desfeitas pela {@code AdmissaoDeMatriculas},
+     * que libera as vagas e promove a lista de espera de cada turma.
+     * As submissoes ainda pendentes do aluno sao marcadas como falhas, para que os trabalhadores nao tentem grava-las.
+     * Deve rodar dentro de uma transacao. Cada comando declara a tabela que altera, senao o Hibernate descartaria todo o cache de
+     * segundo nivel a cada execucao.
+     *
+     * @return total de linhas removidas em todas as tabelas (as turmas atualizadas nao entram)
+     */
+    default int removerEmLote(Long id) {
+        int removidas = removerVinculosDasRespostas(id)
+                + removerRespostasDasQuestoes(id)
+                + removerRespostasDasAvaliacoes(id);
+
+        falharSubmissoesPendentes(id);
+
+        return removidas
+                + removerEsperas(id)
+                + removerPorId(id);
+    }
+
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "resposta_avaliacao_respostas"))
+    @Modifying(flushAutomatically = true)
+    @Query(value = "delete from resposta_avaliacao_respostas where resposta_avaliacao_id in " +
+            "(select id from resposta_avaliacao where aluno_id = :id)", nativeQuery = true)
+    int removerVinculosDasRespostas(Long id);
+
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "resposta_questao"))
+    @Modifying
+    @Query(value = "delete from resposta_questao where aluno_id = :id", nativeQuery = true)
+    int removerRespostasDasQuestoes(Long id);
+
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "resposta_avaliacao"))
+    @Modifying
+    @Query(value = "delete from resposta_avaliacao where aluno_id = :id", nativeQuery = true)
+    int removerRespostasDasAvaliacoes(Long id);
+
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "aluno_em_espera"))
+    @Modifying
+    @Query(value = "delete from aluno_em_espera where aluno_id = :id", nativeQuery = true)
+    int removerEsperas(Long id);
+
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "submissao_pendente"))
+    @Modifying
+    @Query(value = "update submissao_pendente set situacao = 'FALHOU', mensagem_de_erro = 'Aluno removido', processado_em = now() " +
+            "where id_aluno = :id and situacao = 'PENDENTE'", nativeQuery = true)
+    int falharSubmissoesPendentes(Long id);
+
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = "aluno"))
+    @Modifying(clearAutomatically = true)
+    @Query(value = "delete from aluno where id = :id", nativeQuery = true)
+    int removerPorId(Long id);
 }
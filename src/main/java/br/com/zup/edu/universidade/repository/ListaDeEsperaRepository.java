@@ -0,0 +1,45 @@
+package br.com.zup.edu.universidade.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Acesso direto a tabela {@code aluno_em_espera}. A promocao do primeiro da fila para a turma
+ * fica no {@link MatriculaRepository#desmatricular(Long, Long)}, na mesma transacao que libera a vaga.
+ */
+@Repository
+public class ListaDeEsperaRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public ListaDeEsperaRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return se o aluno entrou na fila; falso quando ele ja estava nela
+     */
+    public boolean entrar(Long idTurma, Long idAluno) {
+        return jdbcTemplate.update(
+                "insert into aluno_em_espera (id, turma_id, aluno_id, entrou_em) " +
+                        "values (nextval('aluno_em_espera_seq'), ?, ?, localtimestamp) on conflict do nothing",
+                idTurma,
+                idAluno
+        ) > 0;
+    }
+
+    /**
+     * @return a posicao do aluno na fila da turma, comecando em 1
+     */
+    public Optional<Long> buscarPosicao(Long idTurma, Long idAluno) {
+        return jdbcTemplate.query(
+                "select count(*) from aluno_em_espera a join aluno_em_espera e on e.turma_id = a.turma_id " +
+                        "and (e.entrou_em, e.id) <= (a.entrou_em, a.id) " +
+                        "where a.turma_id = ? and a.aluno_id = ? group by a.id",
+                (rs, linha) -> rs.getLong(1),
+                idTurma,
+                idAluno
+        ).stream().findFirst();
+    }
+}
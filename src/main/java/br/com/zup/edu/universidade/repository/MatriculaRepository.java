@@ -0,0 +1,277 @@
+package br.com.zup.edu.universidade.repository;
+
+import br.com.zup.edu.universidade.model.Aluno;
+import br.com.zup.edu.universidade.model.Turma;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Acesso direto a tabela de juncao {@code turma_alunos}, sem inicializar as colecoes
+ * {@code Turma.alunos} e {@code Aluno.turmas}. Toda matricula e desmatricula passa por aqui para
+ * manter o contador {@code turma.matriculados} em dia. Turmas e alunos ja carregados na transacao
+ * recebem as desmatriculas em memoria, sem inicializar as colecoes.
+ */
+@Repository
+public class MatriculaRepository {
+    /**
+     * Tira da fila o primeiro aluno a espera de vaga na turma e o matricula. O {@code skip locked}
+     * faz duas desmatriculas simultaneas promoverem alunos diferentes.
+     */
+    private static final String PROMOVER_DA_LISTA_DE_ESPERA = "with proximo as (" +
+            "delete from aluno_em_espera where id = (" +
+            "select id from aluno_em_espera where turma_id = ? order by entrou_em, id limit 1 for update skip locked" +
+            ") returning aluno_id" +
+            ") insert into turma_alunos (turmas_id, alunos_id) select ?, aluno_id from proximo on conflict do nothing " +
+            "returning alunos_id";
+
+    /**
+     * Como {@link #PROMOVER_DA_LISTA_DE_ESPERA}, para todas as turmas do aluno de uma vez: desfaz as
+     * matriculas, passa cada vaga para o primeiro da fila da turma (que nao seja o proprio aluno) e
+     * libera no contador as vagas que ninguem ocupou. Devolve uma linha por turma, com o promovido
+     * ou nulo.
+     */
+    private static final String DESMATRICULAR_DE_TODAS = "with desfeitas as (" +
+            "delete from turma_alunos where alunos_id = ? returning turmas_id" +
+            "), proximos as (" +
+            "delete from aluno_em_espera e using desfeitas d cross join lateral (" +
+            "select id from aluno_em_espera where turma_id = d.turmas_id and aluno_id <> ? " +
+            "order by entrou_em, id limit 1 for update skip locked" +
+            ") p where e.id = p.id returning e.turma_id, e.aluno_id" +
+            "), promovidos as (" +
+            "insert into turma_alunos (turmas_id, alunos_id) select turma_id, aluno_id from proximos on conflict do nothing " +
+            "returning turmas_id, alunos_id" +
+            "), liberadas as (" +
+            "update turma set matriculados = matriculados - 1 " +
+            "where id in (select turmas_id from desfeitas) and id not in (select turmas_id from promovidos)" +
+            ") select d.turmas_id, p.alunos_id from desfeitas d left join promovidos p on p.turmas_id = d.turmas_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final EntityManager entityManager;
+
+    public MatriculaRepository(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate, EntityManager entityManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.entityManager = entityManager;
+    }
+
+    public Set<Long> buscarMatriculados(Long idTurma, Collection<Long> idsAlunos) {
+        MapSqlParameterSource parametros = new MapSqlParameterSource()
+                .addValue("idTurma", idTurma)
+                .addValue("idsAlunos", idsAlunos);
+
+        List<Long> matriculados = namedJdbcTemplate.queryForList(
+                "select alunos_id from turma_alunos where turmas_id = :idTurma and alunos_id in (:idsAlunos)",
+                parametros,
+                Long.class
+        );
+
+        return new HashSet<>(matriculados);
+    }
+
+    /**
+     * Matricula os alunos com um unico insert. Quem ja esta matriculado e ignorado pela chave
+     * primaria (turmas_id, alunos_id), entao duas requisicoes simultaneas para o mesmo aluno nao
+     * geram linha duplicada nem erro. As vagas sao ocupadas depois, no contador da turma: a linha
+     * da turma fica travada so entre esse update e o commit. Se nao houver vaga para todos, ficam
+     * os de menor id que couberem e as demais linhas inseridas sao apagadas.
+     *
+     * @return os alunos que este insert matriculou, sem os que ja estavam matriculados (inclusive
+     * por uma requisicao simultanea), e os que ficaram sem vaga
+     */
+    @Transactional
+    public Matriculas matricular(Long idTurma, Collection<Long> idsAlunos) {
+        if (idsAlunos.isEmpty()) {
+            return Matriculas.NENHUMA;
+        }
+
+        Long[] ids = idsAlunos.toArray(Long[]::new);
+        List<Long> matriculados = jdbcTemplate.query(conexao -> {
+            PreparedStatement insert = conexao.prepareStatement(
+                    "insert into turma_alunos (turmas_id, alunos_id) select ?, unnest(?) on conflict do nothing returning alunos_id"
+            );
+            insert.setLong(1, idTurma);
+            insert.setArray(2, conexao.createArrayOf("bigint", ids));
+            return insert;
+        }, (rs, linha) -> rs.getLong(1));
+
+        if (matriculados.isEmpty()) {
+            return Matriculas.NENHUMA;
+        }
+
+        int ocupadas = ocuparVagas(idTurma, matriculados.size());
+        if (ocupadas == matriculados.size()) {
+            return new Matriculas(new HashSet<>(matriculados), Set.of());
+        }
+
+        List<Long> porId = new ArrayList<>(matriculados);
+        Collections.sort(porId);
+        List<Long> semVaga = porId.subList(ocupadas, porId.size());
+        jdbcTemplate.update(conexao -> {
+            PreparedStatement delete = conexao.prepareStatement(
+                    "delete from turma_alunos where turmas_id = ? and alunos_id = any(?)"
+            );
+            delete.setLong(1, idTurma);
+            delete.setArray(2, conexao.createArrayOf("bigint", semVaga.toArray(Long[]::new)));
+            return delete;
+        });
+
+        return new Matriculas(new HashSet<>(porId.subList(0, ocupadas)), new HashSet<>(semVaga));
+    }
+
+    /**
+     * Desfaz a matricula e passa a vaga para o primeiro da lista de espera da turma, se houver.
+     * Com a promocao, o contador da turma nao muda. Nenhuma colecao e carregada, entao o custo nao
+     * depende do tamanho da turma nem de quantas turmas o aluno tem.
+     *
+     * @return a desmatricula, que nao foi desfeita se o aluno nao estava matriculado na turma (ou
+     * se a turma ou o aluno nao existem)
+     */
+    @Transactional
+    public Desmatricula desmatricular(Long idTurma, Long idAluno) {
+        int removidas = jdbcTemplate.update(
+                "delete from turma_alunos where turmas_id = ? and alunos_id = ?",
+                idTurma,
+                idAluno
+        );
+
+        if (removidas == 0) {
+            return Desmatricula.INEXISTENTE;
+        }
+
+        List<Long> promovidos = jdbcTemplate.queryForList(PROMOVER_DA_LISTA_DE_ESPERA, Long.class, idTurma, idTurma);
+        if (promovidos.size() < removidas) {
+            jdbcTemplate.update("update turma set matriculados = matriculados - ? where id = ?", removidas - promovidos.size(), idTurma);
+        }
+
+        refletirNaSessao(idTurma, idAluno, promovidos);
+
+        return new Desmatricula(promovidos);
+    }
+
+    /**
+     * Desfaz todas as matriculas do aluno com um unico comando, promovendo a lista de espera de
+     * cada turma como {@link #desmatricular}.
+     *
+     * @return a desmatricula de cada turma em que o aluno estava
+     */
+    @Transactional
+    public Map<Long, Desmatricula> desmatricularDeTodas(Long idAluno) {
+        Map<Long, Desmatricula> porTurma = new LinkedHashMap<>();
+        jdbcTemplate.query(
+                DESMATRICULAR_DE_TODAS,
+                rs -> {
+                    long idPromovido = rs.getLong(2);
+                    List<Long> promovidos = rs.wasNull() ? List.of() : List.of(idPromovido);
+                    porTurma.put(rs.getLong(1), new Desmatricula(promovidos));
+                },
+                idAluno,
+                idAluno
+        );
+
+        porTurma.forEach((idTurma, desmatricula) -> refletirNaSessao(idTurma, idAluno, desmatricula.getPromovidos()));
+        return porTurma;
+    }
+
+    private void refletirNaSessao(Long idTurma, Long idAluno, List<Long> promovidos) {
+        SessionImplementor sessao = entityManager.unwrap(SessionImplementor.class);
+
+        gerenciada(sessao, Aluno.class, idAluno).ifPresent(aluno -> aluno.refletirDesmatricula(idTurma));
+
+        Optional<Turma> turma = gerenciada(sessao, Turma.class, idTurma);
+        turma.ifPresent(t -> t.refletirDesmatricula(idAluno));
+
+        for (Long idPromovido : promovidos) {
+            turma.ifPresent(t -> t.refletirMatricula(idPromovido, () -> entityManager.find(Aluno.class, idPromovido)));
+            gerenciada(sessao, Aluno.class, idPromovido)
+                    .ifPresent(aluno -> aluno.refletirMatricula(() -> entityManager.find(Turma.class, idTurma)));
+        }
+    }
+
+    /**
+     * @return a entidade, se ja estiver na sessao; nunca consulta o banco
+     */
+    private static <T> Optional<T> gerenciada(SessionImplementor sessao, Class<T> tipo, Long id) {
+        Object entidade = sessao.getPersistenceContextInternal().getEntity(
+                sessao.generateEntityKey(id, sessao.getFactory().getMetamodel().entityPersister(tipo))
+        );
+        return Optional.ofNullable(tipo.cast(entidade));
+    }
+
+    /**
+     * @return quantas das vagas pedidas a turma tinha livres e foram ocupadas
+     */
+    private int ocuparVagas(Long idTurma, int quantidade) {
+        List<Integer> ocupadas = jdbcTemplate.queryForList(
+                "update turma t set matriculados = t.matriculados + livres.ocupadas from (" +
+                        "select id, least(?, greatest(coalesce(vagas - matriculados, ?), 0)) as ocupadas " +
+                        "from turma where id = ? for no key update" +
+                        ") livres where t.id = livres.id and livres.ocupadas > 0 returning livres.ocupadas",
+                Integer.class,
+                quantidade,
+                quantidade,
+                idTurma
+        );
+        return ocupadas.isEmpty() ? 0 : ocupadas.get(0);
+    }
+
+    public static final class Matriculas {
+        static final Matriculas NENHUMA = new Matriculas(Set.of(), Set.of());
+
+        private final Set<Long> matriculados;
+        private final Set<Long> semVaga;
+
+        private Matriculas(Set<Long> matriculados, Set<Long> semVaga) {
+            this.matriculados = matriculados;
+            this.semVaga = semVaga;
+        }
+
+        public Set<Long> getMatriculados() {
+            return matriculados;
+        }
+
+        /**
+         * @return os alunos que nao estavam matriculados, mas nao couberam na turma
+         */
+        public Set<Long> getSemVaga() {
+            return semVaga;
+        }
+    }
+
+    public static final class Desmatricula {
+        static final Desmatricula INEXISTENTE = new Desmatricula(null);
+
+        private final List<Long> promovidos;
+
+        private Desmatricula(List<Long> promovidos) {
+            this.promovidos = promovidos;
+        }
+
+        public boolean isDesfeita() {
+            return promovidos != null;
+        }
+
+        /**
+         * @return os alunos da lista de espera que ficaram com a vaga
+         */
+        public List<Long> getPromovidos() {
+            return promovidos == null ? List.of() : promovidos;
+        }
+    }
+}
@@ -2,8 +2,54 @@ package br.com.zup.edu.universidade.repository;
 
 import br.com.zup.edu.universidade.model.Aluno;
 import br.com.zup.edu.universidade.model.RespostaAvaliacao;
+import br.com.zup.edu.universidade.repository.projecao.NotaDaAvaliacao;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import javax.persistence.QueryHint;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hibernate.jpa.QueryHints.HINT_NATIVE_SPACES;
 
 public interface RespostaAvaliacaoRepository extends JpaRepository<RespostaAvaliacao, Long> {
 
+    Optional<NotaDaAvaliacao> findFirstByAlunoIdAndAvaliacaoIdOrderByIdDesc(Long idAluno, Long idAvaliacao);
+
+    @EntityGraph(RespostaAvaliacao.COM_RESPOSTAS)
+    Optional<RespostaAvaliacao> findComRespostasById(Long id);
+
+    /**
+     * Uma consulta para a pagina e, ao acessar as respostas, uma segunda consulta que inicializa
+     * as respostas de toda a pagina de uma vez, desde que a pagina nao passe de
+     * {@link RespostaAvaliacao#TAMANHO_DO_LOTE} itens.
+     */
+    List<RespostaAvaliacao> findByAvaliacaoIdOrderById(Long idAvaliacao, Pageable pageable);
+
+    /**
+     * Remove a resposta da avaliacao e as respostas das questoes sem carrega-las.
+     * As tabelas afetadas sao declaradas para preservar o cache de segundo nivel.
+     */
+    default void remover(RespostaAvaliacao respostaAvaliacao) {
+        removerRespostasDasQuestoes(respostaAvaliacao.getId());
+        removerPorId(respostaAvaliacao.getId());
+    }
+
+    @QueryHints({
+            @QueryHint(name = HINT_NATIVE_SPACES, value = "resposta_avaliacao_respostas"),
+            @QueryHint(name = HINT_NATIVE_SPACES, value = "resposta_questao")
+    })
+    @Modifying(flushAutomatically = true)
+    @Query(value = "with vinculos as (" +
+            "delete from resposta_avaliacao_respostas where resposta_avaliacao_id = :id returning respostas_id" +
+            ") delete from resposta_questao where id in (select respostas_id from vinculos)", nativeQuery = true)
+    int removerRespostasDasQuestoes(Long id);
+
+    @Modifying
+    @Query("delete from RespostaAvaliacao r where r.id = :id")
+    int removerPorId(Long id);
 }
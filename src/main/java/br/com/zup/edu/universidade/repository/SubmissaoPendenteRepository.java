@@ -0,0 +1,38 @@
+package br.com.zup.edu.universidade.repository;
+
+import br.com.zup.edu.universidade.model.SituacaoSubmissao;
+import br.com.zup.edu.universidade.model.SubmissaoPendente;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface SubmissaoPendenteRepository extends JpaRepository<SubmissaoPendente, Long> {
+
+    long countBySituacao(SituacaoSubmissao situacao);
+
+    /**
+     * Trava ate {@code quantidade} submissoes pendentes para a transacao atual, pulando as que
+     * ja estao com outro trabalhador.
+     */
+    @Query(value = "select * from submissao_pendente where situacao = 'PENDENTE' " +
+            "order by id limit :quantidade for update skip locked", nativeQuery = true)
+    List<SubmissaoPendente> travarPendentes(int quantidade);
+
+    @Query(value = "select * from submissao_pendente where id = :id and situacao = 'PENDENTE' " +
+            "for update skip locked", nativeQuery = true)
+    Optional<SubmissaoPendente> travarPendente(Long id);
+
+    @Query(value = "select id from submissao_pendente where situacao = 'PENDENTE' order by id limit :quantidade", nativeQuery = true)
+    List<Long> buscarIdsPendentes(int quantidade);
+
+    /**
+     * Marca a falha sem mensagem e sem carregar a entidade, para quando nem a mensagem pode ser gravada.
+     */
+    @Modifying
+    @Query(value = "update submissao_pendente set situacao = 'FALHOU', processado_em = now() " +
+            "where id = :id and situacao = 'PENDENTE'", nativeQuery = true)
+    int marcarFalha(Long id);
+}
@@ -1,7 +1,21 @@
 package br.com.zup.edu.universidade.repository;
 
 import br.com.zup.edu.universidade.model.Turma;
+import br.com.zup.edu.universidade.repository.projecao.AlunoDaTurma;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface TurmaRepository extends JpaRepository<Turma, Long> {
+
+    /**
+     * Pagina por busca (keyset) sobre a chave primaria (turmas_id, alunos_id) de turma_alunos:
+     * o custo nao depende de quantas paginas ja foram lidas nem do tamanho da turma.
+     */
+    @Query(value = "select a.id as \"id\", a.nome as \"nome\", a.matricula as \"matricula\" " +
+            "from turma_alunos ta join aluno a on a.id = ta.alunos_id " +
+            "where ta.turmas_id = :idTurma and ta.alunos_id > :aposId " +
+            "order by ta.alunos_id limit :limite", nativeQuery = true)
+    List<AlunoDaTurma> buscarAlunos(Long idTurma, Long aposId, int limite);
 }
@@ -0,0 +1,9 @@
+package br.com.zup.edu.universidade.repository.projecao;
+
+public interface AlunoDaTurma {
+    Long getId();
+
+    String getNome();
+
+    String getMatricula();
+}
@@ -0,0 +1,9 @@
+package br.com.zup.edu.universidade.repository.projecao;
+
+import java.math.BigDecimal;
+
+public interface NotaDaAvaliacao {
+    Long getId();
+
+    BigDecimal getNota();
+}
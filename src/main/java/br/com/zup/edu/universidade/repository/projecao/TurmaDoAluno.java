@@ -0,0 +1,17 @@
+package br.com.zup.edu.universidade.repository.projecao;
+
+import java.time.LocalDate;
+
+public interface TurmaDoAluno {
+    Long getId();
+
+    LocalDate getInicio();
+
+    LocalDate getFim();
+
+    Long getIdDisciplina();
+
+    String getSiglaDisciplina();
+
+    String getNomeDisciplina();
+}
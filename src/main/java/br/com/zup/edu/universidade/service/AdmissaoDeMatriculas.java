@@ -0,0 +1,199 @@
+package br.com.zup.edu.universidade.service;
+
+import br.com.zup.edu.universidade.exception.MatriculaAlunoException;
+import br.com.zup.edu.universidade.repository.MatriculaRepository;
+import br.com.zup.edu.universidade.repository.MatriculaRepository.Desmatricula;
+import br.com.zup.edu.universidade.repository.MatriculaRepository.Matriculas;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Recusa em memoria as matriculas em turmas lotadas, antes de qualquer consulta ao banco. Cada
+ * turma com limite de vagas tem um contador distribuido ({@link LongAdder}), reconstruido a partir
+ * do banco quando a aplicacao sobe e atualizado depois do commit de cada matricula e desmatricula.
+ * <p>
+ * O contador so serve para recusar cedo: quem garante que a turma nunca passa do limite e o update
+ * condicional do {@link MatriculaRepository}. Na duvida o contador fica abaixo do real, o que so
+ * deixa a requisicao seguir ate o banco. Uma turma vista como lotada volta a ser conferida no banco
+ * a cada {@link #REVALIDAR_LOTADA_APOS_NANOS}, para enxergar vagas liberadas por outras instancias.
+ */
+@Component
+public class AdmissaoDeMatriculas {
+    static final long REVALIDAR_LOTADA_APOS_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final MatriculaRepository matriculaRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final IndiceDeMatriculas indice;
+    private final Map<Long, Vagas> porTurma = new ConcurrentHashMap<>();
+
+    public AdmissaoDeMatriculas(MatriculaRepository matriculaRepository, JdbcTemplate jdbcTemplate, IndiceDeMatriculas indice) {
+        this.matriculaRepository = matriculaRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.indice = indice;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        porTurma.clear();
+        jdbcTemplate.query(
+                "select id, vagas, matriculados from turma where vagas is not null",
+                rs -> {
+                    registrar(rs.getLong("id"), rs.getInt("vagas"), rs.getInt("matriculados"));
+                }
+        );
+    }
+
+    /**
+     * @return falso quando a turma esta lotada segundo o contador em memoria
+     */
+    public boolean temVaga(Long idTurma) {
+        Vagas vagas = porTurma.get(idTurma);
+        return vagas == null || vagas.admite();
+    }
+
+    /**
+     * @throws MatriculaAlunoException quando a turma esta lotada segundo o contador em memoria
+     */
+    public void verificarVaga(Long idTurma) {
+        if (!temVaga(idTurma)) {
+            throw new MatriculaAlunoException("Turma sem vagas");
+        }
+    }
+
+    /**
+     * Matricula pelo {@link MatriculaRepository}. Deve rodar dentro de uma transacao. Quando falta
+     * vaga, o contador em memoria estava abaixo do real e e recarregado do banco depois do commit.
+     */
+    public Matriculas matricular(Long idTurma, Collection<Long> idsAlunos) {
+        Matriculas matriculas = matriculaRepository.matricular(idTurma, idsAlunos);
+
+        if (matriculas.getSemVaga().isEmpty()) {
+            aposOCommit(idTurma, matriculas.getMatriculados().size());
+        } else {
+            executarAposOCommit(() -> sincronizar(idTurma));
+        }
+        if (!matriculas.getMatriculados().isEmpty()) {
+            indice.matriculados(idTurma, matriculas.getMatriculados());
+        }
+        return matriculas;
+    }
+
+    /**
+     * Desmatricula pelo {@link MatriculaRepository}. Deve rodar dentro de uma transacao. Quando a
+     * vaga vai para alguem da lista de espera o contador em memoria nao muda.
+     *
+     * @return se o aluno estava matriculado na turma
+     */
+    public boolean desmatricular(Long idTurma, Long idAluno) {
+        Desmatricula desmatricula = matriculaRepository.desmatricular(idTurma, idAluno);
+        if (!desmatricula.isDesfeita()) {
+            return false;
+        }
+
+        desmatriculado(idTurma, idAluno, desmatricula);
+        return true;
+    }
+
+    /**
+     * Desfaz todas as matriculas do aluno, como {@link #desmatricular}, antes de ele ser removido.
+     * Deve rodar dentro de uma transacao.
+     */
+    public void desmatricularDeTodas(Long idAluno) {
+        matriculaRepository.desmatricularDeTodas(idAluno)
+                .forEach((idTurma, desmatricula) -> desmatriculado(idTurma, idAluno, desmatricula));
+    }
+
+    private void desmatriculado(Long idTurma, Long idAluno, Desmatricula desmatricula) {
+        indice.desmatriculado(idTurma, idAluno);
+        if (desmatricula.getPromovidos().isEmpty()) {
+            aposOCommit(idTurma, -1);
+        } else {
+            indice.matriculados(idTurma, desmatricula.getPromovidos());
+        }
+    }
+
+    /**
+     * Passa a acompanhar uma turma recem-cadastrada, depois do commit do cadastro.
+     */
+    public void turmaCadastrada(Long idTurma, Integer vagas) {
+        if (vagas == null) {
+            return;
+        }
+        executarAposOCommit(() -> registrar(idTurma, vagas, 0));
+    }
+
+    private void sincronizar(Long idTurma) {
+        jdbcTemplate.query(
+                "select vagas, matriculados from turma where id = ? and vagas is not null",
+                rs -> {
+                    registrar(idTurma, rs.getInt("vagas"), rs.getInt("matriculados"));
+                },
+                idTurma
+        );
+    }
+
+    private void registrar(Long idTurma, int limite, int matriculados) {
+        porTurma.put(idTurma, new Vagas(limite, matriculados));
+    }
+
+    private void aposOCommit(Long idTurma, int variacao) {
+        if (variacao != 0) {
+            executarAposOCommit(() -> {
+                Vagas vagas = porTurma.get(idTurma);
+                if (vagas != null) {
+                    vagas.ocupadas.add(variacao);
+                }
+            });
+        }
+    }
+
+    private static void executarAposOCommit(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+
+    static final class Vagas {
+        private final int limite;
+        private final LongAdder ocupadas = new LongAdder();
+        private final AtomicLong verificadaEm = new AtomicLong(System.nanoTime());
+
+        Vagas(int limite, int ocupadas) {
+            this.limite = limite;
+            this.ocupadas.add(ocupadas);
+        }
+
+        /**
+         * Com a turma lotada, deixa passar ate o banco uma requisicao por
+         * {@link #REVALIDAR_LOTADA_APOS_NANOS}: a que renova {@code verificadaEm}.
+         */
+        boolean admite() {
+            if (ocupadas.sum() < limite) {
+                return true;
+            }
+
+            long anterior = verificadaEm.get();
+            long agora = System.nanoTime();
+            return agora - anterior > REVALIDAR_LOTADA_APOS_NANOS && verificadaEm.compareAndSet(anterior, agora);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package br.com.zup.edu.universidade.service;
+
+import br.com.zup.edu.universidade.model.Avaliacao;
+import br.com.zup.edu.universidade.model.Questao;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Contadores de uma avaliacao: o histograma das notas e, por questao, quantas vezes foi respondida
+ * e acertada. As questoes de uma avaliacao nao mudam, entao o mapa e montado uma vez e so os
+ * contadores variam.
+ */
+public class EstatisticasDaAvaliacao {
+    private final Long idAvaliacao;
+    private final HistogramaDeNotas notas;
+    private final Map<Long, Desempenho> questoes;
+
+    EstatisticasDaAvaliacao(Avaliacao avaliacao) {
+        this.idAvaliacao = avaliacao.getId();
+
+        long maxima = 0;
+        for (Questao questao : avaliacao.getQuestoes()) {
+            maxima += questao.getValor().setScale(2, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+        }
+        this.notas = new HistogramaDeNotas(maxima);
+
+        this.questoes = avaliacao.getQuestoes().stream()
+                .map(Questao::getId)
+                .sorted()
+                .collect(Collectors.toMap(Function.identity(), Desempenho::new, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    void registrar(Correcao correcao, int sinal) {
+        notas.adicionar(correcao.notaEmCentesimos, sinal);
+        correcao.acertos.forEach((idQuestao, acertou) -> {
+            Desempenho desempenho = questoes.get(idQuestao);
+            if (desempenho != null) {
+                desempenho.respostas.add(sinal);
+                if (acertou) {
+                    desempenho.acertos.add(sinal);
+                }
+            }
+        });
+    }
+
+    void somarQuestao(Long idQuestao, long respostas, long acertos) {
+        Desempenho desempenho = questoes.get(idQuestao);
+        if (desempenho != null) {
+            desempenho.respostas.add(respostas);
+            desempenho.acertos.add(acertos);
+        }
+    }
+
+    HistogramaDeNotas histograma() {
+        return notas;
+    }
+
+    public Long getIdAvaliacao() {
+        return idAvaliacao;
+    }
+
+    public HistogramaDeNotas.Retrato getNotas() {
+        return notas.retrato();
+    }
+
+    public Collection<Desempenho> getQuestoes() {
+        return questoes.values();
+    }
+
+    public static class Desempenho {
+        private final Long idQuestao;
+        private final LongAdder respostas = new LongAdder();
+        private final LongAdder acertos = new LongAdder();
+
+        Desempenho(Long idQuestao) {
+            this.idQuestao = idQuestao;
+        }
+
+        public Long getIdQuestao() {
+            return idQuestao;
+        }
+
+        public long getRespostas() {
+            return respostas.sum();
+        }
+
+        public long getAcertos() {
+            return acertos.sum();
+        }
+    }
+
+    /**
+     * O que uma resposta de avaliacao soma (ou tira) das estatisticas: a nota total e, por questao
+     * respondida, se houve acerto.
+     */
+    static final class Correcao {
+        private final Long idResposta;
+        private final Long idAvaliacao;
+        private final long notaEmCentesimos;
+        private final Map<Long, Boolean> acertos = new HashMap<>();
+
+        Correcao(Long idResposta, Long idAvaliacao, BigDecimal nota) {
+            this.idResposta = idResposta;
+            this.idAvaliacao = idAvaliacao;
+            this.notaEmCentesimos = nota == null ? 0 : nota.setScale(2, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+        }
+
+        /**
+         * Conta como acerto a questao que rendeu alguma nota.
+         */
+        void respondida(Long idQuestao, BigDecimal nota) {
+            acertos.put(idQuestao, nota != null && nota.signum() > 0);
+        }
+
+        Long getIdResposta() {
+            return idResposta;
+        }
+
+        Long getIdAvaliacao() {
+            return idAvaliacao;
+        }
+    }
+}
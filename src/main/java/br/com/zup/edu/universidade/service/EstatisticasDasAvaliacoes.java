@@ -0,0 +1,390 @@
+package br.com.zup.edu.universidade.service;
+
+import br.com.zup.edu.universidade.model.Avaliacao;
+import br.com.zup.edu.universidade.model.RespostaAvaliacao;
+import br.com.zup.edu.universidade.model.RespostaQuestao;
+import br.com.zup.edu.universidade.repository.AvaliacaoRepository;
+import br.com.zup.edu.universidade.service.EstatisticasDaAvaliacao.Correcao;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Estatisticas de cada avaliacao mantidas em memoria. Na primeira consulta de uma avaliacao os
+ * contadores sao carregados do banco com duas consultas agregadas; dai em diante cada submissao e
+ * cada remocao os atualiza depois do commit, e a consulta nao le o banco. Avaliacoes ainda nao
+ * consultadas nao sao acompanhadas.
+ * <p>
+ * Cada submissao e remocao fica em {@code emAndamento} ate o fim da transacao. No fim da carga,
+ * ainda no retrato do banco usado pelas consultas agregadas, as que estavam em andamento ou foram
+ * confirmadas durante a carga sao conferidas pelo id das respostas, e so sao aplicadas as que a
+ * carga nao contou. Submissoes feitas em outras instancias nao chegam aqui; por isso os contadores
+ * sao descartados e recarregados apos {@code validade-em-segundos}.
+ */
+@Component
+public class EstatisticasDasAvaliacoes {
+    private static final String RESPOSTAS = "select ra.id, ra.avaliacao_id, ra.nota, rq.questao_id, rq.nota " +
+            "from resposta_avaliacao ra " +
+            "left join resposta_avaliacao_respostas rar on rar.resposta_avaliacao_id = ra.id " +
+            "left join resposta_questao rq on rq.id = rar.respostas_id ";
+
+    private final AvaliacaoRepository avaliacaoRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<Long, Acompanhamento> porAvaliacao;
+    private final Set<Alteracao> emAndamento = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger remocoesNaoConsultadas = new AtomicInteger();
+
+    public EstatisticasDasAvaliacoes(
+            AvaliacaoRepository avaliacaoRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${universidade.avaliacoes.estatisticas.validade-em-segundos:600}") long validadeEmSegundos,
+            @Value("${universidade.avaliacoes.estatisticas.maximo-de-avaliacoes:10000}") long maximoDeAvaliacoes
+    ) {
+        this.avaliacaoRepository = avaliacaoRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        // As consultas da carga e a conferencia das alteracoes precisam ver o mesmo retrato do banco
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.porAvaliacao = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(validadeEmSegundos))
+                .maximumSize(maximoDeAvaliacoes)
+                .build();
+    }
+
+    /**
+     * Carrega a avaliacao se ainda nao estiver em memoria. A carga roda fora do cache: a avaliacao
+     * entra no cache antes, ainda carregando, para que as alteracoes confirmadas durante a carga
+     * sejam guardadas e conferidas com o resultado dela. Quem consulta a mesma avaliacao nesse meio
+     * tempo espera a carga.
+     *
+     * @return vazio quando a avaliacao nao existe
+     */
+    public Optional<EstatisticasDaAvaliacao> buscar(Long idAvaliacao) {
+        Acompanhamento acompanhamento = porAvaliacao.getIfPresent(idAvaliacao);
+        if (acompanhamento == null) {
+            Acompanhamento carregando = new Acompanhamento();
+            acompanhamento = porAvaliacao.asMap().putIfAbsent(idAvaliacao, carregando);
+            if (acompanhamento == null) {
+                acompanhamento = carregando;
+                carregar(idAvaliacao, carregando);
+            }
+        }
+        return Optional.ofNullable(acompanhamento.aguardarCarga());
+    }
+
+    /**
+     * Soma a resposta as estatisticas da avaliacao, depois do commit. Deve rodar dentro da
+     * transacao que grava a resposta, depois de ela receber o id.
+     */
+    public void registrar(Avaliacao avaliacao, RespostaAvaliacao respostaAvaliacao) {
+        Correcao correcao = new Correcao(respostaAvaliacao.getId(), avaliacao.getId(), respostaAvaliacao.getNota());
+        for (RespostaQuestao resposta : respostaAvaliacao.getRespostas()) {
+            correcao.respondida(resposta.getQuestao().getId(), resposta.getNota());
+        }
+
+        aposOCommit(new Alteracao(List.of(correcao), 1));
+    }
+
+    /**
+     * Tira a resposta das estatisticas, depois do commit. Deve rodar dentro da transacao que a
+     * remove e antes da remocao.
+     */
+    public void removida(RespostaAvaliacao respostaAvaliacao) {
+        aposOCommit(new Alteracao(buscarCorrecoes("where ra.id = ?", respostaAvaliacao.getId()), -1));
+    }
+
+    /**
+     * Tira das estatisticas todas as respostas do aluno, depois do commit. Deve rodar dentro da
+     * transacao que remove o aluno e antes da remocao; so consulta o banco se houver alguma
+     * avaliacao em memoria. Sem a consulta, a remocao fica em {@code remocoesNaoConsultadas} ate o
+     * fim da transacao.
+     */
+    public void alunoRemovido(Long idAluno) {
+        remocoesNaoConsultadas.incrementAndGet();
+        if (porAvaliacao.estimatedSize() == 0) {
+            aoTerminar(status -> remocoesNaoConsultadas.decrementAndGet());
+            return;
+        }
+        remocoesNaoConsultadas.decrementAndGet();
+
+        aposOCommit(new Alteracao(buscarCorrecoes("where ra.aluno_id = ?", idAluno), -1));
+    }
+
+    /**
+     * A avaliacao que nao existe sai do cache. Se a carga falhar, a avaliacao tambem sai, e quem
+     * esperava a carga a trata como inexistente. Uma remocao de aluno que nao consultou as respostas
+     * e termina depois do retrato da carga nao chegaria aos contadores: com uma em andamento, a
+     * carga so responde a quem a esperava e nao fica em memoria.
+     */
+    private void carregar(Long idAvaliacao, Acompanhamento carregando) {
+        boolean carregada = false;
+        boolean incompleta = remocoesNaoConsultadas.get() > 0;
+        try {
+            carregada = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                Optional<Avaliacao> avaliacao = avaliacaoRepository.findById(idAvaliacao);
+                avaliacao.ifPresent(encontrada -> carregando.carregada(carregar(encontrada), emAndamento, this::buscarExistentes));
+                return avaliacao.isPresent();
+            }));
+        } finally {
+            if (!carregada) {
+                porAvaliacao.asMap().remove(idAvaliacao, carregando);
+                carregando.inexistente();
+            } else if (incompleta) {
+                porAvaliacao.asMap().remove(idAvaliacao, carregando);
+            }
+        }
+    }
+
+    private EstatisticasDaAvaliacao carregar(Avaliacao avaliacao) {
+        EstatisticasDaAvaliacao estatisticas = new EstatisticasDaAvaliacao(avaliacao);
+
+        jdbcTemplate.query(
+                "select (nota * 100)::bigint, count(*) from resposta_avaliacao where avaliacao_id = ? group by 1",
+                rs -> {
+                    estatisticas.histograma().adicionar(rs.getLong(1), rs.getLong(2));
+                },
+                avaliacao.getId()
+        );
+
+        jdbcTemplate.query(
+                "select rq.questao_id, count(*), count(*) filter (where rq.nota > 0) " +
+                        "from resposta_avaliacao ra " +
+                        "join resposta_avaliacao_respostas rar on rar.resposta_avaliacao_id = ra.id " +
+                        "join resposta_questao rq on rq.id = rar.respostas_id " +
+                        "where ra.avaliacao_id = ? group by rq.questao_id",
+                rs -> {
+                    estatisticas.somarQuestao(rs.getLong(1), rs.getLong(2), rs.getLong(3));
+                },
+                avaliacao.getId()
+        );
+
+        return estatisticas;
+    }
+
+    private Set<Long> buscarExistentes(Collection<Long> idsRespostas) {
+        if (idsRespostas.isEmpty()) {
+            return Set.of();
+        }
+
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "select id from resposta_avaliacao where id = any(?)",
+                Long.class,
+                (Object) idsRespostas.toArray(Long[]::new)
+        ));
+    }
+
+    private List<Correcao> buscarCorrecoes(String filtro, Long id) {
+        Map<Long, Correcao> porResposta = new LinkedHashMap<>();
+        jdbcTemplate.query(RESPOSTAS + filtro, rs -> {
+            Correcao correcao = porResposta.get(rs.getLong(1));
+            if (correcao == null) {
+                correcao = new Correcao(rs.getLong(1), rs.getLong(2), rs.getBigDecimal(3));
+                porResposta.put(rs.getLong(1), correcao);
+            }
+
+            long idQuestao = rs.getLong(4);
+            if (!rs.wasNull()) {
+                correcao.respondida(idQuestao, rs.getBigDecimal(5));
+            }
+        }, id);
+        return List.copyOf(porResposta.values());
+    }
+
+    private void aposOCommit(Alteracao alteracao) {
+        if (alteracao.correcoes.isEmpty()) {
+            return;
+        }
+
+        emAndamento.add(alteracao);
+        aoTerminar(status -> {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                Set<Long> avaliacoes = new HashSet<>();
+                for (Correcao correcao : alteracao.correcoes) {
+                    Acompanhamento acompanhamento = porAvaliacao.getIfPresent(correcao.getIdAvaliacao());
+                    if (acompanhamento != null && avaliacoes.add(correcao.getIdAvaliacao())) {
+                        acompanhamento.aplicar(alteracao);
+                    }
+                }
+            }
+            emAndamento.remove(alteracao);
+        });
+    }
+
+    /**
+     * Roda a acao no fim da transacao, com a situacao dela; fora de uma transacao, roda ja, como
+     * confirmada.
+     */
+    private static void aoTerminar(TerminoDaTransacao acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.terminada(TransactionSynchronization.STATUS_COMMITTED);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                acao.terminada(status);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface TerminoDaTransacao {
+        void terminada(int status);
+    }
+
+    /**
+     * Respostas gravadas ({@code sinal} 1) ou removidas (-1) por uma transacao.
+     */
+    private static final class Alteracao {
+        private final List<Correcao> correcoes;
+        private final int sinal;
+
+        Alteracao(List<Correcao> correcoes, int sinal) {
+            this.correcoes = correcoes;
+            this.sinal = sinal;
+        }
+
+        List<Correcao> da(Long idAvaliacao) {
+            return correcoes.stream()
+                    .filter(correcao -> correcao.getIdAvaliacao().equals(idAvaliacao))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Enquanto a avaliacao carrega, as alteracoes confirmadas ficam em {@code alteracoesDuranteACarga}.
+     * No fim da carga elas e as ainda em andamento sao conferidas com o banco: uma resposta gravada
+     * conta se a carga nao a viu, e uma removida, se a carga a viu ou se a gravacao dela foi aplicada
+     * por cima da carga. O que cada alteracao em andamento ainda deve aplicar fica em
+     * {@code conferidas}; as que comecam depois da carga sao aplicadas inteiras.
+     */
+    private static final class Acompanhamento {
+        private final CountDownLatch carga = new CountDownLatch(1);
+        private final Map<Alteracao, List<Correcao>> conferidas = new ConcurrentHashMap<>();
+        private volatile EstatisticasDaAvaliacao estatisticas;
+        private List<Alteracao> alteracoesDuranteACarga = new ArrayList<>();
+
+        /**
+         * @return nulo quando a avaliacao nao existe ou a carga falhou
+         */
+        EstatisticasDaAvaliacao aguardarCarga() {
+            boolean interrompida = false;
+            while (true) {
+                try {
+                    carga.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrompida = true;
+                }
+            }
+            if (interrompida) {
+                Thread.currentThread().interrupt();
+            }
+            return estatisticas;
+        }
+
+        /**
+         * Roda na transacao da carga: {@code existentes} responde, no retrato dela, quais respostas
+         * existiam.
+         */
+        synchronized void carregada(
+                EstatisticasDaAvaliacao doBanco,
+                Collection<Alteracao> emAndamento,
+                Function<Collection<Long>, Set<Long>> existentes
+        ) {
+            Long idAvaliacao = doBanco.getIdAvaliacao();
+            Map<Alteracao, List<Correcao>> aConferir = new IdentityHashMap<>();
+            alteracoesDuranteACarga.forEach(alteracao -> aConferir.put(alteracao, alteracao.da(idAvaliacao)));
+            for (Alteracao alteracao : emAndamento) {
+                List<Correcao> correcoes = alteracao.da(idAvaliacao);
+                if (!correcoes.isEmpty()) {
+                    aConferir.putIfAbsent(alteracao, correcoes);
+                }
+            }
+
+            Set<Long> vistas = existentes.apply(aConferir.values().stream()
+                    .flatMap(List::stream)
+                    .map(Correcao::getIdResposta)
+                    .collect(Collectors.toSet()));
+            Set<Long> somadas = new HashSet<>();
+            aConferir.forEach((alteracao, correcoes) -> {
+                if (alteracao.sinal > 0) {
+                    correcoes.stream()
+                            .map(Correcao::getIdResposta)
+                            .filter(idResposta -> !vistas.contains(idResposta))
+                            .forEach(somadas::add);
+                }
+            });
+
+            aConferir.forEach((alteracao, correcoes) -> {
+                List<Correcao> aAplicar = correcoes.stream()
+                        .filter(correcao -> alteracao.sinal > 0
+                                ? !vistas.contains(correcao.getIdResposta())
+                                : vistas.contains(correcao.getIdResposta()) || somadas.contains(correcao.getIdResposta()))
+                        .collect(Collectors.toList());
+                conferidas.put(alteracao, aAplicar);
+            });
+            alteracoesDuranteACarga.forEach(alteracao -> aplicar(doBanco, alteracao));
+            alteracoesDuranteACarga = null;
+
+            this.estatisticas = doBanco;
+            carga.countDown();
+        }
+
+        synchronized void inexistente() {
+            alteracoesDuranteACarga = null;
+            carga.countDown();
+        }
+
+        void aplicar(Alteracao alteracao) {
+            EstatisticasDaAvaliacao carregadas = estatisticas;
+            if (carregadas == null) {
+                synchronized (this) {
+                    if (alteracoesDuranteACarga != null) {
+                        alteracoesDuranteACarga.add(alteracao);
+                        return;
+                    }
+                    carregadas = estatisticas;
+                }
+            }
+            if (carregadas != null) {
+                aplicar(carregadas, alteracao);
+            }
+        }
+
+        private void aplicar(EstatisticasDaAvaliacao carregadas, Alteracao alteracao) {
+            List<Correcao> aAplicar = conferidas.isEmpty() ? null : conferidas.remove(alteracao);
+            if (aAplicar == null) {
+                aAplicar = alteracao.da(carregadas.getIdAvaliacao());
+            }
+            aAplicar.forEach(correcao -> carregadas.registrar(correcao, alteracao.sinal));
+        }
+    }
+}
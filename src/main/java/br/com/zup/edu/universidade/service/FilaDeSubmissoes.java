@@ -0,0 +1,80 @@
+package br.com.zup.edu.universidade.service;
+
+import br.com.zup.edu.universidade.controller.request.AvaliacaoAlunoRequest;
+import br.com.zup.edu.universidade.model.SituacaoSubmissao;
+import br.com.zup.edu.universidade.model.SubmissaoPendente;
+import br.com.zup.edu.universidade.repository.SubmissaoPendenteRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fila duravel de respostas de avaliacao do modo assincrono, apoiada na tabela
+ * {@code submissao_pendente}. A profundidade e mantida em memoria para que a recusa por fila
+ * cheia nao custe uma consulta por requisicao; os trabalhadores a corrigem a partir do banco.
+ */
+@Component
+public class FilaDeSubmissoes {
+    private final SubmissaoPendenteRepository repository;
+    private final ObjectWriter writer;
+    private final long limite;
+    private final AtomicLong profundidade = new AtomicLong();
+
+    public FilaDeSubmissoes(
+            SubmissaoPendenteRepository repository,
+            ObjectMapper mapper,
+            MeterRegistry registry,
+            @Value("${universidade.avaliacoes.ingestao.limite-da-fila:10000}") long limite
+    ) {
+        this.repository = repository;
+        this.writer = mapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        this.limite = limite;
+
+        Gauge.builder("universidade.submissoes.fila", profundidade, AtomicLong::get)
+                .description("Submissoes aguardando processamento")
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void atualizarProfundidade() {
+        profundidade.set(repository.countBySituacao(SituacaoSubmissao.PENDENTE));
+    }
+
+    public boolean estaCheia() {
+        return profundidade.get() >= limite;
+    }
+
+    /**
+     * Com {@code chaveDeIdempotencia}, a submissao e gravada na hora, para que uma chave repetida
+     * falhe aqui com {@link org.springframework.dao.DataIntegrityViolationException}.
+     */
+    public SubmissaoPendente enfileirar(Long idAluno, Long idAvaliacao, AvaliacaoAlunoRequest request, String chaveDeIdempotencia) {
+        try {
+            SubmissaoPendente submissao = new SubmissaoPendente(idAluno, idAvaliacao, writer.writeValueAsString(request));
+            if (chaveDeIdempotencia != null) {
+                submissao.identificarPor(chaveDeIdempotencia);
+                submissao = repository.saveAndFlush(submissao);
+            } else {
+                submissao = repository.save(submissao);
+            }
+            profundidade.incrementAndGet();
+            return submissao;
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void removidas(int quantidade) {
+        profundidade.updateAndGet(atual -> Math.max(0, atual - quantidade));
+    }
+}
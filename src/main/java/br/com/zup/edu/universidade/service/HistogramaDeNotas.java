@@ -0,0 +1,154 @@
+package br.com.zup.edu.universidade.service;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Distribuicao das notas de uma avaliacao em {@value #FAIXAS} faixas de mesma largura, de zero a
+ * nota maxima. Cada faixa e um {@link LongAdder}, entao submissoes simultaneas nao disputam a
+ * mesma variavel; e, ao contrario de um t-digest, uma nota pode ser retirada quando a resposta e
+ * removida. Histogramas com a mesma nota maxima se somam faixa a faixa ({@link #somar}).
+ * <p>
+ * Os percentis sao interpolados dentro da faixa, com erro de no maximo uma faixa (1% da nota
+ * maxima). A media e exata.
+ */
+public class HistogramaDeNotas {
+    public static final int FAIXAS = 100;
+
+    private final long maximaEmCentesimos;
+    private final LongAdder[] faixas = new LongAdder[FAIXAS];
+    private final LongAdder somaEmCentesimos = new LongAdder();
+
+    public HistogramaDeNotas(long maximaEmCentesimos) {
+        this.maximaEmCentesimos = maximaEmCentesimos;
+        for (int i = 0; i < FAIXAS; i++) {
+            faixas[i] = new LongAdder();
+        }
+    }
+
+    public void registrar(long notaEmCentesimos) {
+        adicionar(notaEmCentesimos, 1);
+    }
+
+    public void retirar(long notaEmCentesimos) {
+        adicionar(notaEmCentesimos, -1);
+    }
+
+    /**
+     * Conta {@code quantidade} notas iguais de uma vez; negativa para retirar.
+     */
+    public void adicionar(long notaEmCentesimos, long quantidade) {
+        faixas[faixa(notaEmCentesimos)].add(quantidade);
+        somaEmCentesimos.add(notaEmCentesimos * quantidade);
+    }
+
+    public void somar(HistogramaDeNotas outro) {
+        if (outro.maximaEmCentesimos != maximaEmCentesimos) {
+            throw new IllegalArgumentException("Histogramas com notas maximas diferentes");
+        }
+
+        for (int i = 0; i < FAIXAS; i++) {
+            faixas[i].add(outro.faixas[i].sum());
+        }
+        somaEmCentesimos.add(outro.somaEmCentesimos.sum());
+    }
+
+    /**
+     * Copia as contagens para calcular media e percentis sobre valores que nao mudam no meio da conta.
+     */
+    public Retrato retrato() {
+        long[] quantidades = new long[FAIXAS];
+        for (int i = 0; i < FAIXAS; i++) {
+            quantidades[i] = faixas[i].sum();
+        }
+        return new Retrato(maximaEmCentesimos, quantidades, somaEmCentesimos.sum());
+    }
+
+    int faixa(long notaEmCentesimos) {
+        if (maximaEmCentesimos <= 0 || notaEmCentesimos <= 0) {
+            return 0;
+        }
+        return (int) Math.min(FAIXAS - 1, notaEmCentesimos * FAIXAS / maximaEmCentesimos);
+    }
+
+    public static class Retrato {
+        private final long maximaEmCentesimos;
+        private final long[] quantidades;
+        private final long somaEmCentesimos;
+        private final long quantidade;
+
+        Retrato(long maximaEmCentesimos, long[] quantidades, long somaEmCentesimos) {
+            this.maximaEmCentesimos = maximaEmCentesimos;
+            this.quantidades = quantidades;
+            this.somaEmCentesimos = somaEmCentesimos;
+
+            long quantidade = 0;
+            for (long naFaixa : quantidades) {
+                quantidade += naFaixa;
+            }
+            this.quantidade = quantidade;
+        }
+
+        public long getQuantidade() {
+            return quantidade;
+        }
+
+        public BigDecimal getNotaMaxima() {
+            return BigDecimal.valueOf(maximaEmCentesimos, 2);
+        }
+
+        /**
+         * @return a media das notas, ou nulo sem nenhuma nota
+         */
+        public BigDecimal media() {
+            if (quantidade <= 0) {
+                return null;
+            }
+            return BigDecimal.valueOf(Math.round((double) somaEmCentesimos / quantidade), 2);
+        }
+
+        /**
+         * @param fracao entre 0 e 1, como 0.5 para a mediana
+         * @return o percentil estimado, ou nulo sem nenhuma nota
+         */
+        public BigDecimal percentil(double fracao) {
+            if (quantidade <= 0) {
+                return null;
+            }
+
+            long posicao = Math.max(1, (long) Math.ceil(fracao * quantidade));
+            long acumulado = 0;
+            for (int i = 0; i < FAIXAS; i++) {
+                long naFaixa = quantidades[i];
+                if (naFaixa > 0 && acumulado + naFaixa >= posicao) {
+                    double dentroDaFaixa = (double) (posicao - acumulado) / naFaixa;
+                    long nota = Math.round(inicio(i) + dentroDaFaixa * largura());
+                    return BigDecimal.valueOf(Math.min(nota, maximaEmCentesimos), 2);
+                }
+                acumulado += naFaixa;
+            }
+
+            return getNotaMaxima();
+        }
+
+        public long quantidadeNaFaixa(int faixa) {
+            return quantidades[faixa];
+        }
+
+        public BigDecimal inicioDaFaixa(int faixa) {
+            return BigDecimal.valueOf(Math.round(inicio(faixa)), 2);
+        }
+
+        public BigDecimal fimDaFaixa(int faixa) {
+            return BigDecimal.valueOf(Math.round(inicio(faixa + 1)), 2);
+        }
+
+        private double inicio(int faixa) {
+            return faixa * largura();
+        }
+
+        private double largura() {
+            return (double) maximaEmCentesimos / FAIXAS;
+        }
+    }
+}
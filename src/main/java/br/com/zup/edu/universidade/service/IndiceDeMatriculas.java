@@ -0,0 +1,325 @@
+package br.com.zup.edu.universidade.service;
+
+import br.com.zup.edu.universidade.util.LongHashSet;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Ids dos alunos matriculados em cada turma, para responder "o aluno esta matriculado?" sem SQL
+ * e sem carregar {@code Turma.alunos}. Cada turma tem um {@link LongHashSet}, carregado do banco
+ * na primeira consulta e atualizado depois do commit de cada matricula e desmatricula feita pela
+ * {@link AdmissaoDeMatriculas}, e autoriza as respostas das avaliacoes. A leitura e otimista ({@link StampedLock}): sem escrita
+ * concorrente, nao trava nem aloca.
+ * <p>
+ * O indice e limitado a aproximadamente {@code maximo-de-alunos} ids, somando todas as turmas, e cada turma e
+ * recarregada a cada {@code validade-em-segundos}, o que tambem incorpora as matriculas feitas em
+ * outras instancias. Dentro desse intervalo a resposta pode estar desatualizada em relacao a elas.
+ */
+@Component
+public class IndiceDeMatriculas {
+    public enum Pertinencia {
+        MATRICULADO,
+        NAO_MATRICULADO,
+        /**
+         * A turma nao esta no indice.
+         */
+        DESCONHECIDA
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<Long, Matriculados> porTurma;
+
+    public IndiceDeMatriculas(
+            JdbcTemplate jdbcTemplate,
+            @Value("${universidade.matriculas.indice.validade-em-segundos:60}") long validadeEmSegundos,
+            @Value("${universidade.matriculas.indice.maximo-de-alunos:1000000}") long maximoDeAlunos
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.porTurma = Caffeine.newBuilder()
+                .expireAfter(new ValidadeDesdeACarga(Duration.ofSeconds(validadeEmSegundos)))
+                .maximumWeight(maximoDeAlunos)
+                .weigher((Long idTurma, Matriculados matriculados) -> 1 + matriculados.tamanho())
+                .build();
+    }
+
+    /**
+     * Carrega a turma no indice se ainda nao estiver la. A consulta roda fora do cache: a turma
+     * entra no indice antes, ainda carregando, para que as matriculas e desmatriculas confirmadas
+     * durante a carga sejam guardadas e aplicadas sobre o resultado dela. Quem consulta a mesma
+     * turma nesse meio tempo espera a carga.
+     *
+     * @return falso tambem quando a turma nao existe
+     */
+    public boolean isMatriculado(Long idTurma, long idAluno) {
+        Matriculados matriculados = porTurma.getIfPresent(idTurma);
+        if (matriculados == null) {
+            Matriculados carregando = new Matriculados();
+            matriculados = porTurma.asMap().putIfAbsent(idTurma, carregando);
+            if (matriculados == null) {
+                matriculados = carregando;
+                carregar(idTurma, carregando);
+            }
+        }
+        return matriculados.aguardarCarga() && matriculados.contem(idAluno);
+    }
+
+    /**
+     * Como {@link #isMatriculado}, mas confere no banco a resposta negativa, que pode vir de uma
+     * matricula feita em outra instancia depois da carga da turma, e corrige o indice.
+     */
+    public boolean confirmarMatricula(Long idTurma, long idAluno) {
+        if (isMatriculado(idTurma, idAluno)) {
+            return true;
+        }
+
+        Boolean matriculado = jdbcTemplate.queryForObject(
+                "select exists (select 1 from turma_alunos where turmas_id = ? and alunos_id = ?)",
+                Boolean.class,
+                idTurma,
+                idAluno
+        );
+        if (!Boolean.TRUE.equals(matriculado)) {
+            return false;
+        }
+
+        Matriculados matriculados = porTurma.getIfPresent(idTurma);
+        if (matriculados != null) {
+            matriculados.incluir(List.of(idAluno));
+            repesar(idTurma, matriculados);
+        }
+        return true;
+    }
+
+    /**
+     * So consulta a memoria, sem esperar uma carga em andamento. Uma turma conhecida existe no banco.
+     */
+    public Pertinencia consultar(Long idTurma, long idAluno) {
+        Matriculados matriculados = porTurma.getIfPresent(idTurma);
+        if (matriculados == null || !matriculados.isCarregada()) {
+            return Pertinencia.DESCONHECIDA;
+        }
+        return matriculados.contem(idAluno) ? Pertinencia.MATRICULADO : Pertinencia.NAO_MATRICULADO;
+    }
+
+    /**
+     * Inclui os alunos na turma depois do commit.
+     */
+    public void matriculados(Long idTurma, Collection<Long> idsAlunos) {
+        executarAposOCommit(() -> {
+            Matriculados matriculados = porTurma.getIfPresent(idTurma);
+            if (matriculados != null) {
+                matriculados.incluir(idsAlunos);
+                repesar(idTurma, matriculados);
+            }
+        });
+    }
+
+    /**
+     * Retira o aluno da turma depois do commit.
+     */
+    public void desmatriculado(Long idTurma, Long idAluno) {
+        executarAposOCommit(() -> {
+            Matriculados matriculados = porTurma.getIfPresent(idTurma);
+            if (matriculados != null) {
+                matriculados.retirar(idAluno);
+            }
+        });
+    }
+
+    /**
+     * A turma que nao existe sai do indice, para nao ocupa-lo. Se a consulta falhar, a turma tambem
+     * sai, e quem esperava a carga a trata como inexistente.
+     */
+    private void carregar(Long idTurma, Matriculados carregando) {
+        LongHashSet ids = new LongHashSet();
+        boolean[] existe = {false};
+        boolean consultada = false;
+        try {
+            jdbcTemplate.query(
+                    "select ta.alunos_id from turma t left join turma_alunos ta on ta.turmas_id = t.id where t.id = ?",
+                    rs -> {
+                        existe[0] = true;
+                        long idAluno = rs.getLong(1);
+                        if (!rs.wasNull()) {
+                            ids.add(idAluno);
+                        }
+                    },
+                    idTurma
+            );
+            consultada = true;
+        } finally {
+            if (consultada && existe[0]) {
+                carregando.carregada(ids);
+                repesar(idTurma, carregando);
+            } else {
+                porTurma.asMap().remove(idTurma, carregando);
+                carregando.inexistente();
+            }
+        }
+    }
+
+    /**
+     * O Caffeine so calcula o peso quando a turma e gravada no cache; regravar a mesma instancia
+     * atualiza o peso sem renovar a validade. As desmatriculas nao repesam a turma: o peso dela so
+     * diminui na proxima inclusao, e o limite de alunos e aproximado.
+     */
+    private void repesar(Long idTurma, Matriculados matriculados) {
+        porTurma.asMap().replace(idTurma, matriculados, matriculados);
+    }
+
+    private static void executarAposOCommit(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            acao.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                acao.run();
+            }
+        });
+    }
+
+    /**
+     * Conta a validade a partir da carga da turma, e nao da ultima vez que ela foi repesada.
+     */
+    private static final class ValidadeDesdeACarga implements Expiry<Long, Matriculados> {
+        private final long validadeEmNanos;
+
+        private ValidadeDesdeACarga(Duration validade) {
+            this.validadeEmNanos = validade.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(Long idTurma, Matriculados matriculados, long agora) {
+            return validadeEmNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Long idTurma, Matriculados matriculados, long agora, long restante) {
+            return restante;
+        }
+
+        @Override
+        public long expireAfterRead(Long idTurma, Matriculados matriculados, long agora, long restante) {
+            return restante;
+        }
+    }
+
+    /**
+     * Enquanto a turma carrega, as inclusoes e retiradas ficam em {@code alteracoesDuranteACarga} e
+     * sao reaplicadas, na ordem, sobre o resultado da consulta. Reaplicar uma alteracao que a
+     * consulta ja viu nao muda nada.
+     */
+    private static final class Matriculados {
+        private final StampedLock trava = new StampedLock();
+        private final CountDownLatch carga = new CountDownLatch(1);
+        private LongHashSet ids = new LongHashSet();
+        private List<Alteracao> alteracoesDuranteACarga = new ArrayList<>();
+        private volatile boolean existe = true;
+
+        boolean isCarregada() {
+            return carga.getCount() == 0 && existe;
+        }
+
+        /**
+         * @return falso quando a turma nao existe ou a carga falhou
+         */
+        boolean aguardarCarga() {
+            boolean interrompida = false;
+            while (true) {
+                try {
+                    carga.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrompida = true;
+                }
+            }
+            if (interrompida) {
+                Thread.currentThread().interrupt();
+            }
+            return existe;
+        }
+
+        void carregada(LongHashSet doBanco) {
+            long carimbo = trava.writeLock();
+            try {
+                alteracoesDuranteACarga.forEach(alteracao -> alteracao.aplicar(doBanco));
+                ids = doBanco;
+                alteracoesDuranteACarga = null;
+            } finally {
+                trava.unlockWrite(carimbo);
+            }
+            carga.countDown();
+        }
+
+        void inexistente() {
+            existe = false;
+            carga.countDown();
+        }
+
+        int tamanho() {
+            return ids.size();
+        }
+
+        boolean contem(long idAluno) {
+            long carimbo = trava.tryOptimisticRead();
+            boolean contem = ids.contains(idAluno);
+            if (trava.validate(carimbo)) {
+                return contem;
+            }
+
+            carimbo = trava.readLock();
+            try {
+                return ids.contains(idAluno);
+            } finally {
+                trava.unlockRead(carimbo);
+            }
+        }
+
+        void incluir(Collection<Long> idsAlunos) {
+            long carimbo = trava.writeLock();
+            try {
+                if (alteracoesDuranteACarga != null) {
+                    alteracoesDuranteACarga.add(ids -> idsAlunos.forEach(ids::add));
+                } else {
+                    idsAlunos.forEach(ids::add);
+                }
+            } finally {
+                trava.unlockWrite(carimbo);
+            }
+        }
+
+        void retirar(long idAluno) {
+            long carimbo = trava.writeLock();
+            try {
+                if (alteracoesDuranteACarga != null) {
+                    alteracoesDuranteACarga.add(ids -> ids.remove(idAluno));
+                } else {
+                    ids.remove(idAluno);
+                }
+            } finally {
+                trava.unlockWrite(carimbo);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Alteracao {
+        void aplicar(LongHashSet ids);
+    }
+}
@@ -0,0 +1,242 @@
+package br.com.zup.edu.universidade.service;
+
+import br.com.zup.edu.universidade.controller.request.AvaliacaoAlunoRequest;
+import br.com.zup.edu.universidade.model.Aluno;
+import br.com.zup.edu.universidade.model.Avaliacao;
+import br.com.zup.edu.universidade.model.RespostaAvaliacao;
+import br.com.zup.edu.universidade.model.SubmissaoPendente;
+import br.com.zup.edu.universidade.repository.AlunoRepository;
+import br.com.zup.edu.universidade.repository.AvaliacaoRepository;
+import br.com.zup.edu.universidade.repository.RespostaAvaliacaoRepository;
+import br.com.zup.edu.universidade.repository.SubmissaoPendenteRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+
+/**
+ * Trabalhadores do modo assincrono: cada um trava um lote de submissoes pendentes com
+ * {@code for update skip locked}, grava as respostas do lote em uma unica transacao (e, com o
+ * batch do Hibernate, em poucos inserts) e marca as submissoes como processadas. Se o lote
+ * falhar no flush, as submissoes sao reprocessadas uma a uma para isolar a que falhou.
+ */
+@Component
+@ConditionalOnProperty(name = "universidade.avaliacoes.ingestao.assincrona", havingValue = "true")
+public class ProcessadorDeSubmissoes implements SmartLifecycle {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProcessadorDeSubmissoes.class);
+
+    private final SubmissaoPendenteRepository submissaoRepository;
+    private final RespostaAvaliacaoRepository respostaAvaliacaoRepository;
+    private final AvaliacaoRepository avaliacaoRepository;
+    private final AlunoRepository alunoRepository;
+    private final FilaDeSubmissoes fila;
+    private final EstatisticasDasAvaliacoes estatisticas;
+    private final ObjectMapper mapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int trabalhadores;
+    private final int tamanhoDoLote;
+    private final long intervaloEmMs;
+    private final Counter processadas;
+    private final Counter falhas;
+    private final Timer tempoDoLote;
+
+    private volatile boolean executando;
+    private ExecutorService executor;
+
+    public ProcessadorDeSubmissoes(
+            SubmissaoPendenteRepository submissaoRepository,
+            RespostaAvaliacaoRepository respostaAvaliacaoRepository,
+            AvaliacaoRepository avaliacaoRepository,
+            AlunoRepository alunoRepository,
+            FilaDeSubmissoes fila,
+            EstatisticasDasAvaliacoes estatisticas,
+            ObjectMapper mapper,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry registry,
+            @Value("${universidade.avaliacoes.ingestao.trabalhadores:2}") int trabalhadores,
+            @Value("${universidade.avaliacoes.ingestao.tamanho-do-lote:100}") int tamanhoDoLote,
+            @Value("${universidade.avaliacoes.ingestao.intervalo-em-ms:200}") long intervaloEmMs
+    ) {
+        this.submissaoRepository = submissaoRepository;
+        this.respostaAvaliacaoRepository = respostaAvaliacaoRepository;
+        this.avaliacaoRepository = avaliacaoRepository;
+        this.alunoRepository = alunoRepository;
+        this.fila = fila;
+        this.estatisticas = estatisticas;
+        this.mapper = mapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.trabalhadores = trabalhadores;
+        this.tamanhoDoLote = tamanhoDoLote;
+        this.intervaloEmMs = intervaloEmMs;
+        this.processadas = Counter.builder("universidade.submissoes.processadas")
+                .tag("resultado", "sucesso")
+                .register(registry);
+        this.falhas = Counter.builder("universidade.submissoes.processadas")
+                .tag("resultado", "falha")
+                .register(registry);
+        this.tempoDoLote = Timer.builder("universidade.submissoes.lote")
+                .description("Tempo para gravar um lote de submissoes")
+                .register(registry);
+    }
+
+    @Override
+    public void start() {
+        executando = true;
+        executor = Executors.newFixedThreadPool(trabalhadores, new CustomizableThreadFactory("processador-submissoes-"));
+        for (int i = 0; i < trabalhadores; i++) {
+            executor.submit(this::trabalhar);
+        }
+    }
+
+    @Override
+    public void stop() {
+        executando = false;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executando;
+    }
+
+    private void trabalhar() {
+        while (executando) {
+            try {
+                if (processarLote() == 0) {
+                    fila.atualizarProfundidade();
+                    Thread.sleep(intervaloEmMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                LOGGER.error("Falha ao processar lote de submissoes", e);
+                try {
+                    Thread.sleep(intervaloEmMs);
+                } catch (InterruptedException interrompido) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    int processarLote() {
+        Resultado resultado;
+        try {
+            resultado = tempoDoLote.record(() -> transactionTemplate.execute(status -> {
+                Resultado parcial = new Resultado();
+                List<SubmissaoPendente> lote = submissaoRepository.travarPendentes(tamanhoDoLote);
+                lote.forEach(submissao -> processar(submissao, parcial));
+                submissaoRepository.flush();
+                return parcial;
+            }));
+        } catch (RuntimeException e) {
+            LOGGER.warn("Lote de submissoes falhou ao gravar, reprocessando individualmente", e);
+            resultado = processarIndividualmente();
+        }
+
+        processadas.increment(resultado.processadas);
+        falhas.increment(resultado.falhas);
+        fila.removidas(resultado.total());
+
+        return resultado.total();
+    }
+
+    private Resultado processarIndividualmente() {
+        Resultado resultado = new Resultado();
+
+        for (Long id : submissaoRepository.buscarIdsPendentes(tamanhoDoLote)) {
+            Resultado doItem = new Resultado();
+            try {
+                transactionTemplate.executeWithoutResult(status -> submissaoRepository.travarPendente(id)
+                        .ifPresent(submissao -> {
+                            processar(submissao, doItem);
+                            submissaoRepository.flush();
+                        }));
+                resultado.processadas += doItem.processadas;
+                resultado.falhas += doItem.falhas;
+            } catch (RuntimeException e) {
+                registrarFalha(id, e);
+                resultado.falhas++;
+            }
+        }
+
+        return resultado;
+    }
+
+    /**
+     * Se nem a mensagem da falha puder ser gravada, marca so a situacao, para que a submissao
+     * nao volte para o proximo lote.
+     */
+    private void registrarFalha(Long id, RuntimeException causa) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> submissaoRepository.travarPendente(id)
+                    .ifPresent(submissao -> {
+                        submissao.falhou(causa.getMessage());
+                        submissaoRepository.flush();
+                    }));
+        } catch (RuntimeException e) {
+            LOGGER.warn("Nao foi possivel gravar a mensagem de falha da submissao {}", id, e);
+            transactionTemplate.executeWithoutResult(status -> submissaoRepository.marcarFalha(id));
+        }
+    }
+
+    private void processar(SubmissaoPendente submissao, Resultado resultado) {
+        try {
+            AvaliacaoAlunoRequest request = mapper.readValue(submissao.getPayload(), AvaliacaoAlunoRequest.class);
+
+            Aluno aluno = alunoRepository.getById(submissao.getIdAluno());
+            Avaliacao avaliacao = avaliacaoRepository.findById(submissao.getIdAvaliacao())
+                    .orElseThrow(() -> new ResponseStatusException(NOT_FOUND, "Avaliacao não cadastrada"));
+
+            RespostaAvaliacao respostaAvaliacao = request.paraRespostaAvaliacao(aluno, avaliacao);
+            respostaAvaliacaoRepository.save(respostaAvaliacao);
+            estatisticas.registrar(avaliacao, respostaAvaliacao);
+
+            submissao.processada(respostaAvaliacao.getId());
+            resultado.processadas++;
+        } catch (ResponseStatusException e) {
+            submissao.falhou(e.getReason());
+            resultado.falhas++;
+        } catch (JsonProcessingException e) {
+            submissao.falhou(e.getOriginalMessage());
+            resultado.falhas++;
+        }
+    }
+
+    private static class Resultado {
+        private int processadas;
+        private int falhas;
+
+        int total() {
+            return processadas + falhas;
+        }
+    }
+}
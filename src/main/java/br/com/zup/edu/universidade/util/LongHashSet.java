@@ -0,0 +1,190 @@
+package br.com.zup.edu.universidade.util;
+
+import java.util.Arrays;
+
+/**
+ * Conjunto de {@code long} sem boxing, para testes de pertinencia por id. Enderecamento aberto
+ * com sondagem linear; a remocao puxa para tras os elementos seguintes do mesmo agrupamento, em
+ * vez de deixar marcas de removido, entao a busca nunca fica mais lenta com o uso.
+ * <p>
+ * O zero marca posicao vazia na tabela e, como elemento, e guardado a parte. Nao e thread-safe,
+ * mas {@link #contains(long)} pode rodar sob uma leitura otimista ({@code StampedLock}) enquanto
+ * outra thread escreve: o resultado pode sair errado, e deve ser descartado se a leitura nao for
+ * validada, mas a busca sempre termina sem excecao.
+ */
+public final class LongHashSet {
+    private static final int CAPACIDADE_MINIMA = 8;
+
+    private long[] tabela;
+    private int mascara;
+    private int tamanho;
+    private boolean temZero;
+
+    public LongHashSet() {
+        this(CAPACIDADE_MINIMA);
+    }
+
+    /**
+     * @param esperados quantos elementos devem caber sem redimensionar a tabela
+     */
+    public LongHashSet(int esperados) {
+        int capacidade = Integer.highestOneBit(Math.max(CAPACIDADE_MINIMA, esperados * 2 - 1)) << 1;
+        this.tabela = new long[capacidade];
+        this.mascara = capacidade - 1;
+    }
+
+    /**
+     * @return se o valor ainda nao estava no conjunto
+     */
+    public boolean add(long valor) {
+        if (valor == 0) {
+            boolean novo = !temZero;
+            temZero = true;
+            if (novo) {
+                tamanho++;
+            }
+            return novo;
+        }
+
+        int posicao = posicao(valor);
+        while (tabela[posicao] != 0) {
+            if (tabela[posicao] == valor) {
+                return false;
+            }
+            posicao = (posicao + 1) & mascara;
+        }
+
+        tabela[posicao] = valor;
+        if (++tamanho * 2 > tabela.length) {
+            redimensionar(tabela.length << 1);
+        }
+        return true;
+    }
+
+    public boolean contains(long valor) {
+        if (valor == 0) {
+            return temZero;
+        }
+
+        // A mascara sai do proprio array lido, e nao do campo, para as duas nunca divergirem
+        // durante um redimensionamento concorrente.
+        long[] tabela = this.tabela;
+        int mascara = tabela.length - 1;
+        int posicao = posicao(valor, mascara);
+        long atual;
+        while ((atual = tabela[posicao]) != 0) {
+            if (atual == valor) {
+                return true;
+            }
+            posicao = (posicao + 1) & mascara;
+        }
+        return false;
+    }
+
+    /**
+     * @return se o valor estava no conjunto
+     */
+    public boolean remove(long valor) {
+        if (valor == 0) {
+            boolean estava = temZero;
+            temZero = false;
+            if (estava) {
+                tamanho--;
+            }
+            return estava;
+        }
+
+        int posicao = posicao(valor);
+        while (tabela[posicao] != valor) {
+            if (tabela[posicao] == 0) {
+                return false;
+            }
+            posicao = (posicao + 1) & mascara;
+        }
+
+        puxarParaTras(posicao);
+        tamanho--;
+        return true;
+    }
+
+    public int size() {
+        return tamanho;
+    }
+
+    public boolean isEmpty() {
+        return tamanho == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(tabela, 0);
+        temZero = false;
+        tamanho = 0;
+    }
+
+    public long[] toArray() {
+        long[] valores = new long[tamanho];
+        int i = 0;
+        if (temZero) {
+            valores[i++] = 0;
+        }
+        for (long valor : tabela) {
+            if (valor != 0) {
+                valores[i++] = valor;
+            }
+        }
+        return valores;
+    }
+
+    /**
+     * Preenche a posicao liberada com o proximo elemento do agrupamento que nao esteja na sua
+     * posicao de origem ou antes dela, ate chegar a uma posicao vazia.
+     */
+    private void puxarParaTras(int livre) {
+        int atual = livre;
+        while (true) {
+            atual = (atual + 1) & mascara;
+            long valor = tabela[atual];
+            if (valor == 0) {
+                tabela[livre] = 0;
+                return;
+            }
+
+            int origem = posicao(valor);
+            boolean podeMover = livre <= atual
+                    ? origem <= livre || origem > atual
+                    : origem <= livre && origem > atual;
+            if (podeMover) {
+                tabela[livre] = valor;
+                livre = atual;
+            }
+        }
+    }
+
+    private void redimensionar(int capacidade) {
+        long[] antiga = tabela;
+        tabela = new long[capacidade];
+        mascara = capacidade - 1;
+        for (long valor : antiga) {
+            if (valor != 0) {
+                int posicao = posicao(valor);
+                while (tabela[posicao] != 0) {
+                    posicao = (posicao + 1) & mascara;
+                }
+                tabela[posicao] = valor;
+            }
+        }
+    }
+
+    /**
+     * Ids de sequencia sao consecutivos; o espalhamento de Fibonacci evita que eles ocupem
+     * posicoes vizinhas e formem agrupamentos longos.
+     */
+    private int posicao(long valor) {
+        return posicao(valor, mascara);
+    }
+
+    private static int posicao(long valor, int mascara) {
+        long misturado = valor * 0x9E3779B97F4A7C15L;
+        return (int) (misturado ^ (misturado >>> 32)) & mascara;
+    }
+}
@@ -0,0 +1,145 @@
+-- Esquema criado ate aqui pelo ddl-auto=update do Hibernate. Bancos que ja existiam sao
+-- marcados nesta versao (spring.flyway.baseline-on-migrate) e seguem a partir da V2.
+
+create sequence aluno_seq start 1 increment 50;
+create sequence aluno_em_espera_seq start 1 increment 50;
+create sequence avaliacao_seq start 1 increment 50;
+create sequence disciplina_seq start 1 increment 50;
+create sequence professor_seq start 1 increment 50;
+create sequence questao_seq start 1 increment 50;
+create sequence resposta_avaliacao_seq start 1 increment 50;
+create sequence resposta_questao_seq start 1 increment 50;
+create sequence submissao_pendente_seq start 1 increment 50;
+create sequence turma_seq start 1 increment 50;
+
+create table aluno (
+    id int8 not null,
+    data_nascimento date not null,
+    matricula varchar(255) not null,
+    nome varchar(255) not null,
+    primary key (id),
+    constraint aluno_matricula_uk unique (matricula)
+);
+
+create table professor (
+    id int8 not null,
+    matricula varchar(255) not null,
+    nome varchar(255) not null,
+    primary key (id),
+    constraint uk_hbc55xkmu9ty3qpw3y9rehvoc unique (matricula)
+);
+
+create table disciplina (
+    id int8 not null,
+    carga_horaria_em_horas int4 not null,
+    criado_em timestamp not null,
+    ementa varchar(255) not null,
+    nome varchar(255) not null,
+    sigla varchar(255) not null,
+    primary key (id)
+);
+
+create table turma (
+    id int8 not null,
+    fim date not null,
+    inicio date not null,
+    matriculados integer default 0 not null,
+    vagas int4,
+    disciplina_id int8 not null,
+    professor_id int8 not null,
+    primary key (id),
+    constraint fkeee13bbo1a87bo2i3bxxwvegm foreign key (disciplina_id) references disciplina,
+    constraint fk9xwtpw9i63l1u1uevrsdc6g69 foreign key (professor_id) references professor
+);
+
+create table turma_alunos (
+    turmas_id int8 not null,
+    alunos_id int8 not null,
+    primary key (turmas_id, alunos_id),
+    constraint fkh1ig95q01iccxv2ywgejuhom6 foreign key (turmas_id) references turma,
+    constraint fk3ae0fi80uylf7jbthfxbgbm3n foreign key (alunos_id) references aluno
+);
+create index turma_alunos_aluno_turma_idx on turma_alunos (alunos_id, turmas_id);
+
+create table aluno_em_espera (
+    id int8 not null,
+    entrou_em timestamp not null,
+    aluno_id int8 not null,
+    turma_id int8 not null,
+    primary key (id),
+    constraint aluno_em_espera_turma_aluno_uk unique (turma_id, aluno_id),
+    constraint fkckhiyusday02jou9v4tdivcmx foreign key (aluno_id) references aluno,
+    constraint fkmvg36a8lc5mk0whwnmbdpdx2l foreign key (turma_id) references turma
+);
+create index aluno_em_espera_fila_idx on aluno_em_espera (turma_id, entrou_em, id);
+create index aluno_em_espera_aluno_idx on aluno_em_espera (aluno_id);
+
+create table questao (
+    id int8 not null,
+    descricao varchar(255) not null,
+    resposta varchar(255) not null,
+    valor numeric(19, 2) not null,
+    primary key (id)
+);
+
+create table avaliacao (
+    id int8 not null,
+    criado_em timestamp not null,
+    primary key (id)
+);
+
+create table avaliacao_questoes (
+    avaliacao_id int8 not null,
+    questoes_id int8 not null,
+    primary key (avaliacao_id, questoes_id),
+    constraint fk2llsu0rdh3w9ob232tm9w16ty foreign key (avaliacao_id) references avaliacao,
+    constraint fk9k0opda4qcicl2lbsocpdsc94 foreign key (questoes_id) references questao
+);
+
+create table resposta_questao (
+    id int8 not null,
+    nota numeric(19, 2),
+    resposta varchar(255) not null,
+    aluno_id int8 not null,
+    questao_id int8 not null,
+    primary key (id),
+    constraint fk2i3yjpt0dxd0ss81ffedbb5eh foreign key (aluno_id) references aluno,
+    constraint fkr4ymvyg2ofiepfecafbg3gar3 foreign key (questao_id) references questao
+);
+
+create table resposta_avaliacao (
+    id int8 not null,
+    chave_de_idempotencia varchar(255),
+    nota numeric(19, 2),
+    aluno_id int8 not null,
+    avaliacao_id int8 not null,
+    primary key (id),
+    constraint resposta_avaliacao_idempotencia_uk unique (aluno_id, chave_de_idempotencia),
+    constraint fkdchcy0eg39wlth49h9ad0rsdd foreign key (aluno_id) references aluno,
+    constraint fkg5u57d9oy7cw0atuem2m2cxlu foreign key (avaliacao_id) references avaliacao
+);
+create index resposta_avaliacao_avaliacao_idx on resposta_avaliacao (avaliacao_id, id);
+
+create table resposta_avaliacao_respostas (
+    resposta_avaliacao_id int8 not null,
+    respostas_id int8 not null,
+    primary key (resposta_avaliacao_id, respostas_id),
+    constraint fkt42vu6shjg6r83jmn5jdofvyv foreign key (resposta_avaliacao_id) references resposta_avaliacao,
+    constraint fkk5ua7jyoru5gv2s54ww9v15v9 foreign key (respostas_id) references resposta_questao
+);
+
+create table submissao_pendente (
+    id int8 not null,
+    chave_de_idempotencia varchar(255),
+    criado_em timestamp not null,
+    id_aluno int8 not null,
+    id_avaliacao int8 not null,
+    id_resposta int8,
+    mensagem_de_erro varchar(255),
+    payload text not null,
+    processado_em timestamp,
+    situacao varchar(255) not null,
+    primary key (id),
+    constraint submissao_pendente_idempotencia_uk unique (id_aluno, chave_de_idempotencia)
+);
+create index submissao_pendente_situacao_idx on submissao_pendente (situacao, id);
@@ -0,0 +1,6 @@
+-- O update do Hibernate criou turma.matriculados com zero nas turmas que ja tinham alunos.
+update turma t
+set matriculados = m.quantidade
+from (select turmas_id, count(*) as quantidade from turma_alunos group by turmas_id) m
+where m.turmas_id = t.id
+  and t.matriculados <> m.quantidade;
@@ -0,0 +1,13 @@
+-- Indices das chaves estrangeiras, na ordem em que as consultas filtram (por aluno, por
+-- avaliacao, por turma). Criados com concurrently para nao bloquear as escritas em bancos ja
+-- populados; por isso o Flyway roda este script fora de transacao, e ele so pode ter indices.
+-- O "if not exists" permite repetir o script se um indice ficar pela metade (invalido
+-- apos uma falha, ele precisa ser removido antes).
+
+create index concurrently if not exists resposta_avaliacao_aluno_avaliacao_idx on resposta_avaliacao (aluno_id, avaliacao_id, id);
+create index concurrently if not exists resposta_avaliacao_respostas_questao_idx on resposta_avaliacao_respostas (respostas_id);
+create index concurrently if not exists resposta_questao_aluno_idx on resposta_questao (aluno_id);
+create index concurrently if not exists resposta_questao_questao_idx on resposta_questao (questao_id);
+create index concurrently if not exists avaliacao_questoes_questao_idx on avaliacao_questoes (questoes_id);
+create index concurrently if not exists turma_disciplina_idx on turma (disciplina_id);
+create index concurrently if not exists turma_professor_idx on turma (professor_id);
@@ -0,0 +1,7 @@
+-- Cada avaliacao passa a pertencer a uma turma, e so os alunos matriculados nela podem
+-- responde-la. As avaliacoes cadastradas antes desta versao ficam sem turma e deixam de aceitar
+-- respostas ate serem associadas a uma.
+
+alter table avaliacao add column turma_id int8;
+alter table avaliacao add constraint avaliacao_turma_fk foreign key (turma_id) references turma;
+create index avaliacao_turma_idx on avaliacao (turma_id);
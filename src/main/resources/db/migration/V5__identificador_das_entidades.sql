@@ -0,0 +1,7 @@
+-- Turma, questao e resposta_questao nao tem chave natural, e o id so e atribuido no persist. O
+-- identificador e gerado na criacao do objeto, antes de ele entrar em qualquer Set, e nunca muda,
+-- entao serve de hash. O default preenche as linhas existentes e as gravadas direto em SQL.
+
+alter table turma add column identificador uuid not null default gen_random_uuid();
+alter table questao add column identificador uuid not null default gen_random_uuid();
+alter table resposta_questao add column identificador uuid not null default gen_random_uuid();
@@ -0,0 +1,14 @@
+-- Um banco marcado na V1 (spring.flyway.baseline-on-migrate) nao rodou o script que cria as
+-- sequences, e nada garante que elas estejam depois dos ids ja gravados. Cada sequence passa a
+-- comecar depois do maior id da tabela, sem nunca voltar.
+
+select setval('aluno_seq', greatest((select coalesce(max(id), 0) + 1 from aluno), (select last_value from aluno_seq)));
+select setval('aluno_em_espera_seq', greatest((select coalesce(max(id), 0) + 1 from aluno_em_espera), (select last_value from aluno_em_espera_seq)));
+select setval('avaliacao_seq', greatest((select coalesce(max(id), 0) + 1 from avaliacao), (select last_value from avaliacao_seq)));
+select setval('disciplina_seq', greatest((select coalesce(max(id), 0) + 1 from disciplina), (select last_value from disciplina_seq)));
+select setval('professor_seq', greatest((select coalesce(max(id), 0) + 1 from professor), (select last_value from professor_seq)));
+select setval('questao_seq', greatest((select coalesce(max(id), 0) + 1 from questao), (select last_value from questao_seq)));
+select setval('resposta_avaliacao_seq', greatest((select coalesce(max(id), 0) + 1 from resposta_avaliacao), (select last_value from resposta_avaliacao_seq)));
+select setval('resposta_questao_seq', greatest((select coalesce(max(id), 0) + 1 from resposta_questao), (select last_value from resposta_questao_seq)));
+select setval('submissao_pendente_seq', greatest((select coalesce(max(id), 0) + 1 from submissao_pendente), (select last_value from submissao_pendente_seq)));
+select setval('turma_seq', greatest((select coalesce(max(id), 0) + 1 from turma), (select last_value from turma_seq)));
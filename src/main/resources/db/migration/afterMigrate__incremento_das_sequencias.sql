@@ -0,0 +1,21 @@
+-- Roda depois de toda migracao. O increment by de cada sequence acompanha
+-- universidade.id.incremento (ID_INCREMENTO), o tamanho do bloco de ids que o Hibernate reserva
+-- e confere ao subir. Ao mudar o incremento, a sequence pula o ultimo bloco reservado com o
+-- incremento anterior, que uma instancia ainda no ar pode estar usando.
+
+do $$
+declare
+    sequencia record;
+begin
+    for sequencia in
+        select sequencename, increment_by, last_value
+        from pg_sequences
+        where schemaname = current_schema() and sequencename like '%\_seq' and increment_by <> ${incremento}
+    loop
+        execute format('alter sequence %I increment by %s', sequencia.sequencename, ${incremento});
+        if sequencia.last_value is not null then
+            perform setval(sequencia.sequencename::regclass, sequencia.last_value + sequencia.increment_by);
+        end if;
+    end loop;
+end
+$$;
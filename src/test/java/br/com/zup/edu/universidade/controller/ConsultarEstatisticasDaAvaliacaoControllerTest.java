@@ -0,0 +1,278 @@
+package br.com.zup.edu.universidade.controller;
+
+import br.com.zup.edu.universidade.controller.request.AvaliacaoAlunoRequest;
+import br.com.zup.edu.universidade.controller.request.RespostaQuestaoRequest;
+import br.com.zup.edu.universidade.model.*;
+import br.com.zup.edu.universidade.repository.*;
+import br.com.zup.edu.universidade.service.EstatisticasDaAvaliacao;
+import br.com.zup.edu.universidade.service.EstatisticasDasAvaliacoes;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc(printOnlyOnFailure = false)
+@ActiveProfiles("test")
+class ConsultarEstatisticasDaAvaliacaoControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    @Autowired
+    private MatriculaRepository matriculaRepository;
+
+    @Autowired
+    private AvaliacaoRepository avaliacaoRepository;
+
+    @Autowired
+    private QuestaoRepository questaoRepository;
+
+    @Autowired
+    private RespostaAvaliacaoRepository respostaAvaliacaoRepository;
+
+    @Autowired
+    private EstatisticasDasAvaliacoes estatisticas;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Avaliacao avaliacao;
+
+    private Questao questaoA;
+
+    private Questao questaoB;
+
+    private Aluno alunoA;
+
+    private Aluno alunoB;
+
+    private RespostaAvaliacao respostaDoAlunoA;
+
+    private Turma turma;
+
+    @BeforeEach
+    void setUp() {
+        this.respostaAvaliacaoRepository.deleteAll();
+        this.avaliacaoRepository.deleteAll();
+        this.turmaRepository.deleteAll();
+        this.questaoRepository.deleteAll();
+        this.alunoRepository.deleteAll();
+        this.disciplinaRepository.deleteAll();
+        this.professorRepository.deleteAll();
+
+        Professor professor = new Professor("Rafael", "P01");
+        Disciplina disciplina = new Disciplina("Testes", "TST", "Testes de integracao", 40);
+        this.professorRepository.save(professor);
+        this.disciplinaRepository.save(disciplina);
+
+        this.turma = new Turma(disciplina, LocalDate.now(), LocalDate.now().plusMonths(4), professor);
+        this.turmaRepository.save(turma);
+
+        this.alunoA = new Aluno("Antonio", "AE13", LocalDate.now());
+        this.alunoB = new Aluno("Maria", "AE14", LocalDate.now());
+        this.alunoRepository.saveAll(List.of(alunoA, alunoB));
+
+        this.questaoA = new Questao("Questão A", "Resposta A", BigDecimal.ONE);
+        this.questaoB = new Questao("Questão B", "Resposta B", BigDecimal.TEN);
+        this.avaliacao = new Avaliacao(this.turma, Set.of(questaoA, questaoB));
+        this.avaliacaoRepository.save(avaliacao);
+
+        this.matriculaRepository.matricular(this.turma.getId(), List.of(this.alunoA.getId(), this.alunoB.getId()));
+
+        this.respostaDoAlunoA = new RespostaAvaliacao(alunoA, avaliacao, Set.of(
+                new RespostaQuestao(alunoA, questaoA, "Resposta A"),
+                new RespostaQuestao(alunoA, questaoB, "Resposta errada")
+        ));
+        this.respostaAvaliacaoRepository.save(respostaDoAlunoA);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.respostaAvaliacaoRepository.deleteAll();
+        this.avaliacaoRepository.deleteAll();
+        this.turmaRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Não deve consultar as estatísticas de uma avaliação não cadastrada")
+    void naoDeveConsultarAsEstatisticasDeUmaAvaliacaoNaoCadastrada() throws Exception {
+
+        // Cenário
+        MockHttpServletRequestBuilder request = get("/avaliacoes/{id}/estatisticas", Long.MAX_VALUE);
+
+        // Ação e Corretude
+        Exception resolvedException = mockMvc.perform(request)
+                .andExpect(
+                        status().isNotFound()
+                )
+                .andReturn()
+                .getResolvedException();
+
+        // Asserts
+        assertNotNull(resolvedException);
+        assertEquals(ResponseStatusException.class, resolvedException.getClass());
+        assertEquals("Avaliacao não cadastrada", ((ResponseStatusException) resolvedException).getReason());
+
+    }
+
+    @Test
+    @DisplayName("Deve manter as estatísticas da avaliação a cada submissão e remoção de resposta")
+    void deveManterAsEstatisticasDaAvaliacaoACadaSubmissaoERemocaoDeResposta() throws Exception {
+
+        // Cenário
+        MockHttpServletRequestBuilder consulta = get("/avaliacoes/{id}/estatisticas", this.avaliacao.getId());
+
+        mockMvc.perform(consulta)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.respostas").value(1))
+                .andExpect(jsonPath("$.notaMaxima").value(11.0))
+                .andExpect(jsonPath("$.media").value(1.0));
+
+        AvaliacaoAlunoRequest avaliacaoAlunoRequest = new AvaliacaoAlunoRequest(List.of(
+                new RespostaQuestaoRequest(this.questaoA.getId(), "Resposta A"),
+                new RespostaQuestaoRequest(this.questaoB.getId(), "Resposta B")
+        ));
+
+        MockHttpServletRequestBuilder submissao = post(
+                        "/alunos/{id}/avaliacoes/{idAvaliacao}/respostas",
+                        this.alunoB.getId(),
+                        this.avaliacao.getId()
+                )
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(avaliacaoAlunoRequest));
+
+        // Ação e Corretude
+        mockMvc.perform(submissao)
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(consulta)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.respostas").value(2))
+                .andExpect(jsonPath("$.media").value(6.0))
+                .andExpect(jsonPath("$.distribuicao.length()").value(2))
+                .andExpect(jsonPath("$.questoes[?(@.idQuestao == %d)].acertos", this.questaoA.getId()).value(2))
+                .andExpect(jsonPath("$.questoes[?(@.idQuestao == %d)].acertos", this.questaoB.getId()).value(1))
+                .andExpect(jsonPath("$.questoes[?(@.idQuestao == %d)].taxaDeAcerto", this.questaoB.getId()).value(0.5));
+
+        mockMvc.perform(delete("/aluno/{idAluno}/respostas/{idResposta}", this.alunoA.getId(), this.respostaDoAlunoA.getId()))
+                .andExpect(status().isNoContent());
+
+        // Asserts
+        mockMvc.perform(consulta)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.respostas").value(1))
+                .andExpect(jsonPath("$.media").value(11.0))
+                .andExpect(jsonPath("$.percentis.p50").value(11.0))
+                .andExpect(jsonPath("$.questoes[?(@.idQuestao == %d)].respostas", this.questaoA.getId()).value(1));
+
+    }
+
+    @Test
+    @DisplayName("Não deve contar duas vezes a resposta confirmada enquanto a avaliação carrega")
+    void naoDeveContarDuasVezesARespostaConfirmadaEnquantoAAvaliacaoCarrega() {
+
+        // Cenário
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+
+        // Ação: a carga roda entre o commit da resposta e a atualizacao das estatisticas
+        transacao.executeWithoutResult(status -> {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    CompletableFuture.supplyAsync(() -> estatisticas.buscar(avaliacao.getId())).join();
+                }
+            });
+
+            RespostaAvaliacao respostaDoAlunoB = new RespostaAvaliacao(alunoB, avaliacao, Set.of(
+                    new RespostaQuestao(alunoB, questaoA, "Resposta A"),
+                    new RespostaQuestao(alunoB, questaoB, "Resposta B")
+            ));
+            this.respostaAvaliacaoRepository.save(respostaDoAlunoB);
+            this.estatisticas.registrar(avaliacao, respostaDoAlunoB);
+        });
+
+        // Asserts
+        EstatisticasDaAvaliacao carregadas = this.estatisticas.buscar(this.avaliacao.getId()).orElseThrow();
+        assertEquals(2, carregadas.getNotas().getQuantidade());
+        assertThat(carregadas.getQuestoes())
+                .extracting(EstatisticasDaAvaliacao.Desempenho::getIdQuestao, EstatisticasDaAvaliacao.Desempenho::getAcertos)
+                .containsExactlyInAnyOrder(tuple(this.questaoA.getId(), 2L), tuple(this.questaoB.getId(), 1L));
+
+    }
+
+    @Test
+    @DisplayName("Deve contar a resposta ainda não confirmada quando a avaliação carrega")
+    void deveContarARespostaAindaNaoConfirmadaQuandoAAvaliacaoCarrega() {
+
+        // Cenário
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+
+        // Ação: a carga roda enquanto a transacao da resposta esta aberta
+        transacao.executeWithoutResult(status -> {
+            RespostaAvaliacao respostaDoAlunoB = new RespostaAvaliacao(alunoB, avaliacao, Set.of(
+                    new RespostaQuestao(alunoB, questaoA, "Resposta A"),
+                    new RespostaQuestao(alunoB, questaoB, "Resposta B")
+            ));
+            this.respostaAvaliacaoRepository.saveAndFlush(respostaDoAlunoB);
+            this.estatisticas.registrar(avaliacao, respostaDoAlunoB);
+
+            EstatisticasDaAvaliacao antesDoCommit = CompletableFuture.supplyAsync(() -> estatisticas.buscar(avaliacao.getId()))
+                    .join()
+                    .orElseThrow();
+            assertEquals(1, antesDoCommit.getNotas().getQuantidade());
+        });
+
+        // Asserts
+        EstatisticasDaAvaliacao carregadas = this.estatisticas.buscar(this.avaliacao.getId()).orElseThrow();
+        assertEquals(2, carregadas.getNotas().getQuantidade());
+        assertThat(carregadas.getQuestoes())
+                .extracting(EstatisticasDaAvaliacao.Desempenho::getIdQuestao, EstatisticasDaAvaliacao.Desempenho::getAcertos)
+                .containsExactlyInAnyOrder(tuple(this.questaoA.getId(), 2L), tuple(this.questaoB.getId(), 1L));
+
+    }
+
+}
@@ -0,0 +1,171 @@
+package br.com.zup.edu.universidade.controller;
+
+import br.com.zup.edu.universidade.controller.request.AlunoAMatricularRequest;
+import br.com.zup.edu.universidade.model.*;
+import br.com.zup.edu.universidade.repository.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc(printOnlyOnFailure = false)
+@ActiveProfiles("test")
+class EntrarNaListaDeEsperaControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    @Autowired
+    private MatriculaRepository matriculaRepository;
+
+    @Autowired
+    private RespostaAvaliacaoRepository respostaAvaliacaoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Professor professor;
+
+    private Disciplina disciplina;
+
+    private Aluno alunoA;
+
+    private Aluno alunoB;
+
+    private Aluno alunoC;
+
+    @BeforeEach
+    void setUp() {
+        this.jdbcTemplate.update("delete from aluno_em_espera");
+        this.turmaRepository.deleteAll();
+        this.respostaAvaliacaoRepository.deleteAll();
+        this.alunoRepository.deleteAll();
+        this.disciplinaRepository.deleteAll();
+        this.professorRepository.deleteAll();
+
+        this.professor = new Professor("Rafael", "P01");
+        this.disciplina = new Disciplina("Testes", "TST", "Testes de integracao", 40);
+        this.professorRepository.save(professor);
+        this.disciplinaRepository.save(disciplina);
+
+        this.alunoA = new Aluno("Antonio", "AE13", LocalDate.now());
+        this.alunoB = new Aluno("Maria", "AE14", LocalDate.now());
+        this.alunoC = new Aluno("Joana", "AE15", LocalDate.now());
+        this.alunoRepository.saveAll(List.of(alunoA, alunoB, alunoC));
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.jdbcTemplate.update("delete from aluno_em_espera");
+        this.turmaRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Deve promover o primeiro da lista de espera quando uma matrícula é desfeita")
+    void devePromoverOPrimeiroDaListaDeEsperaQuandoUmaMatriculaEDesfeita() throws Exception {
+
+        // Cenário
+        Turma turma = cadastrarTurma(1);
+        this.matriculaRepository.matricular(turma.getId(), List.of(this.alunoA.getId()));
+
+        mockMvc.perform(entrarNaListaDeEspera(turma, this.alunoB))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.posicao").value(1));
+
+        mockMvc.perform(entrarNaListaDeEspera(turma, this.alunoC))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.posicao").value(2));
+
+        // Ação e Corretude
+        mockMvc.perform(delete("/turmas/{idTurma}/alunos/{idAluno}", turma.getId(), this.alunoA.getId()))
+                .andExpect(status().isNoContent());
+
+        // Asserts
+        Set<Long> matriculados = this.matriculaRepository.buscarMatriculados(
+                turma.getId(),
+                List.of(this.alunoA.getId(), this.alunoB.getId(), this.alunoC.getId())
+        );
+        assertEquals(Set.of(this.alunoB.getId()), matriculados);
+        assertEquals(1, this.turmaRepository.findById(turma.getId()).orElseThrow().getMatriculados());
+
+        List<Long> aguardando = this.jdbcTemplate.queryForList(
+                "select aluno_id from aluno_em_espera where turma_id = ?",
+                Long.class,
+                turma.getId()
+        );
+        assertEquals(List.of(this.alunoC.getId()), aguardando);
+
+    }
+
+    @Test
+    @DisplayName("Não deve colocar na lista de espera um aluno de turma com vagas")
+    void naoDeveColocarNaListaDeEsperaUmAlunoDeTurmaComVagas() throws Exception {
+
+        // Cenário
+        Turma turma = cadastrarTurma(2);
+        this.matriculaRepository.matricular(turma.getId(), List.of(this.alunoA.getId()));
+
+        // Ação e Corretude
+        Exception resolvedException = mockMvc.perform(entrarNaListaDeEspera(turma, this.alunoB))
+                .andExpect(
+                        status().isUnprocessableEntity()
+                )
+                .andReturn()
+                .getResolvedException();
+
+        // Asserts
+        assertNotNull(resolvedException);
+        assertEquals(ResponseStatusException.class, resolvedException.getClass());
+        assertEquals("Turma com vagas, matricule o aluno", ((ResponseStatusException) resolvedException).getReason());
+
+    }
+
+    private Turma cadastrarTurma(int vagas) {
+        Turma turma = new Turma(this.disciplina, LocalDate.now(), LocalDate.now().plusMonths(4), this.professor, vagas);
+        return this.turmaRepository.save(turma);
+    }
+
+    private MockHttpServletRequestBuilder entrarNaListaDeEspera(Turma turma, Aluno aluno) throws Exception {
+        String payloadRequest = mapper.writeValueAsString(new AlunoAMatricularRequest(aluno.getId()));
+
+        return post("/turmas/{id}/espera", turma.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(payloadRequest);
+    }
+}
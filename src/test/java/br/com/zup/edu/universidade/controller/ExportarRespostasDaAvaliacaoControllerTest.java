@@ -0,0 +1,222 @@
+package br.com.zup.edu.universidade.controller;
+
+import br.com.zup.edu.universidade.model.*;
+import br.com.zup.edu.universidade.repository.*;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc(printOnlyOnFailure = false)
+@ActiveProfiles("test")
+class ExportarRespostasDaAvaliacaoControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    @Autowired
+    private AvaliacaoRepository avaliacaoRepository;
+
+    @Autowired
+    private QuestaoRepository questaoRepository;
+
+    @Autowired
+    private RespostaAvaliacaoRepository respostaAvaliacaoRepository;
+
+    private Avaliacao avaliacao;
+
+    private Questao questaoA;
+
+    private Questao questaoB;
+
+    private RespostaAvaliacao respostaDoAlunoA;
+
+    private RespostaAvaliacao respostaDoAlunoB;
+
+    private Turma turma;
+
+    @BeforeEach
+    void setUp() {
+        this.respostaAvaliacaoRepository.deleteAll();
+        this.avaliacaoRepository.deleteAll();
+        this.turmaRepository.deleteAll();
+        this.questaoRepository.deleteAll();
+        this.alunoRepository.deleteAll();
+        this.disciplinaRepository.deleteAll();
+        this.professorRepository.deleteAll();
+
+        Professor professor = new Professor("Rafael", "P01");
+        Disciplina disciplina = new Disciplina("Testes", "TST", "Testes de integracao", 40);
+        this.professorRepository.save(professor);
+        this.disciplinaRepository.save(disciplina);
+
+        this.turma = new Turma(disciplina, LocalDate.now(), LocalDate.now().plusMonths(4), professor);
+        this.turmaRepository.save(turma);
+
+        Aluno alunoA = new Aluno("Antonio", "AE13", LocalDate.now());
+        Aluno alunoB = new Aluno("Silva, Maria", "AE14", LocalDate.now());
+        this.alunoRepository.saveAll(List.of(alunoA, alunoB));
+
+        this.questaoA = new Questao("Questão A", "Resposta A", BigDecimal.ONE);
+        this.questaoB = new Questao("Questão B", "Resposta B", BigDecimal.TEN);
+        this.avaliacao = new Avaliacao(this.turma, Set.of(questaoA, questaoB));
+        this.avaliacaoRepository.save(avaliacao);
+
+        this.respostaDoAlunoA = new RespostaAvaliacao(alunoA, avaliacao, Set.of(
+                new RespostaQuestao(alunoA, questaoA, "Resposta A"),
+                new RespostaQuestao(alunoA, questaoB, "Resposta errada")
+        ));
+        this.respostaDoAlunoB = new RespostaAvaliacao(alunoB, avaliacao, Set.of(
+                new RespostaQuestao(alunoB, questaoA, "Resposta \"A\", com virgula"),
+                new RespostaQuestao(alunoB, questaoB, "Resposta B")
+        ));
+        this.respostaAvaliacaoRepository.saveAll(List.of(respostaDoAlunoA, respostaDoAlunoB));
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.respostaAvaliacaoRepository.deleteAll();
+        this.avaliacaoRepository.deleteAll();
+        this.turmaRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Não deve exportar as respostas de uma avaliação não cadastrada")
+    void naoDeveExportarAsRespostasDeUmaAvaliacaoNaoCadastrada() throws Exception {
+
+        // Cenário
+        MockHttpServletRequestBuilder request = get("/avaliacoes/{id}/respostas/export", Long.MAX_VALUE);
+
+        // Ação e Corretude
+        Exception resolvedException = mockMvc.perform(request)
+                .andExpect(
+                        status().isNotFound()
+                )
+                .andReturn()
+                .getResolvedException();
+
+        // Asserts
+        assertNotNull(resolvedException);
+        assertEquals(ResponseStatusException.class, resolvedException.getClass());
+        assertEquals("Avaliacao não cadastrada", ((ResponseStatusException) resolvedException).getReason());
+
+    }
+
+    @Test
+    @DisplayName("Deve exportar as respostas da avaliação em NDJSON, uma linha por resposta")
+    void deveExportarAsRespostasDaAvaliacaoEmNdjsonUmaLinhaPorResposta() throws Exception {
+
+        // Cenário
+        MockHttpServletRequestBuilder request = get("/avaliacoes/{id}/respostas/export", this.avaliacao.getId())
+                .accept("application/x-ndjson");
+
+        // Ação e Corretude
+        MockHttpServletResponse resposta = exportar(request);
+
+        // Asserts
+        List<JsonNode> linhas = resposta.getContentAsString(StandardCharsets.UTF_8).lines()
+                .map(linha -> {
+                    try {
+                        return mapper.readTree(linha);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .collect(Collectors.toList());
+
+        assertEquals(2, linhas.size());
+        assertEquals(this.respostaDoAlunoA.getId(), linhas.get(0).get("idResposta").asLong());
+        assertEquals("AE13", linhas.get(0).get("matricula").asText());
+        assertEquals(0, new BigDecimal("1.00").compareTo(linhas.get(0).get("nota").decimalValue()));
+        assertEquals(2, linhas.get(0).get("respostas").size());
+        assertEquals(this.respostaDoAlunoB.getId(), linhas.get(1).get("idResposta").asLong());
+        assertEquals("Silva, Maria", linhas.get(1).get("nome").asText());
+
+    }
+
+    @Test
+    @DisplayName("Deve retomar a exportação em CSV comprimido a partir da última resposta recebida")
+    void deveRetomarAExportacaoEmCsvComprimidoAPartirDaUltimaRespostaRecebida() throws Exception {
+
+        // Cenário
+        MockHttpServletRequestBuilder request = get("/avaliacoes/{id}/respostas/export", this.avaliacao.getId())
+                .param("aposId", this.respostaDoAlunoA.getId().toString())
+                .accept("text/csv")
+                .header("Accept-Encoding", "gzip, deflate");
+
+        // Ação e Corretude
+        MockHttpServletResponse resposta = exportar(request);
+
+        // Asserts
+        assertEquals("gzip", resposta.getHeader("Content-Encoding"));
+
+        String csv;
+        try (GZIPInputStream descomprimida = new GZIPInputStream(new ByteArrayInputStream(resposta.getContentAsByteArray()))) {
+            csv = new String(descomprimida.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        List<String> linhas = csv.lines().collect(Collectors.toList());
+        assertEquals(3, linhas.size());
+        assertEquals("idResposta,idAluno,matricula,nome,nota,idQuestao,resposta,notaDaQuestao", linhas.get(0));
+        assertTrue(linhas.get(1).startsWith(this.respostaDoAlunoB.getId() + ","));
+        assertTrue(linhas.get(1).contains(",AE14,\"Silva, Maria\",10.00,"));
+        assertTrue(linhas.stream().anyMatch(linha -> linha.contains("," + this.questaoA.getId() + ",\"Resposta \"\"A\"\", com virgula\",")));
+
+    }
+
+    private MockHttpServletResponse exportar(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult resultado = mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        return mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andReturn()
+                .getResponse();
+    }
+
+}
@@ -0,0 +1,228 @@
+package br.com.zup.edu.universidade.controller;
+
+import br.com.zup.edu.universidade.controller.request.AvaliacaoAlunoRequest;
+import br.com.zup.edu.universidade.controller.request.RespostaQuestaoRequest;
+import br.com.zup.edu.universidade.model.*;
+import br.com.zup.edu.universidade.repository.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "universidade.avaliacoes.ingestao.assincrona=true",
+        "universidade.avaliacoes.ingestao.intervalo-em-ms=50"
+})
+@AutoConfigureMockMvc(printOnlyOnFailure = false)
+@ActiveProfiles("test")
+class FazerAvaliacaoAssincronaControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    @Autowired
+    private MatriculaRepository matriculaRepository;
+
+    @Autowired
+    private AvaliacaoRepository avaliacaoRepository;
+
+    @Autowired
+    private QuestaoRepository questaoRepository;
+
+    @Autowired
+    private RespostaAvaliacaoRepository respostaAvaliacaoRepository;
+
+    @Autowired
+    private SubmissaoPendenteRepository submissaoPendenteRepository;
+
+    private Aluno aluno;
+
+    private Avaliacao avaliacao;
+
+    private Questao questaoA;
+
+    private Questao questaoB;
+
+    private Turma turma;
+
+    @BeforeEach
+    void setUp() {
+        this.submissaoPendenteRepository.deleteAll();
+        this.respostaAvaliacaoRepository.deleteAll();
+        this.avaliacaoRepository.deleteAll();
+        this.turmaRepository.deleteAll();
+        this.questaoRepository.deleteAll();
+        this.alunoRepository.deleteAll();
+        this.disciplinaRepository.deleteAll();
+        this.professorRepository.deleteAll();
+
+        Professor professor = new Professor("Rafael", "P01");
+        Disciplina disciplina = new Disciplina("Testes", "TST", "Testes de integracao", 40);
+        this.professorRepository.save(professor);
+        this.disciplinaRepository.save(disciplina);
+
+        this.turma = new Turma(disciplina, LocalDate.now(), LocalDate.now().plusMonths(4), professor);
+        this.turmaRepository.save(turma);
+
+        this.aluno = new Aluno("Antonio", "AE13", LocalDate.now());
+        this.alunoRepository.save(aluno);
+
+        this.questaoA = new Questao("Questão A", "Resposta A", BigDecimal.ONE);
+        this.questaoB = new Questao("Questão B", "Resposta B", BigDecimal.TEN);
+        this.avaliacao = new Avaliacao(this.turma, Set.of(this.questaoA, this.questaoB));
+        this.avaliacaoRepository.save(avaliacao);
+
+        this.matriculaRepository.matricular(this.turma.getId(), List.of(this.aluno.getId()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.submissaoPendenteRepository.deleteAll();
+        this.respostaAvaliacaoRepository.deleteAll();
+        this.avaliacaoRepository.deleteAll();
+        this.turmaRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Deve aceitar a resposta da avaliação e processá-la em segundo plano")
+    void deveAceitarARespostaDaAvaliacaoEProcessalaEmSegundoPlano() throws Exception {
+
+        // Cenário
+        List<RespostaQuestaoRequest> respostas = List.of(
+                new RespostaQuestaoRequest(this.questaoA.getId(), "Resposta A"),
+                new RespostaQuestaoRequest(this.questaoB.getId(), "Resposta errada")
+        );
+
+        String payloadRequest = mapper.writeValueAsString(new AvaliacaoAlunoRequest(respostas));
+
+        MockHttpServletRequestBuilder request = post(
+                "/alunos/{id}/avaliacoes/{idAvaliacao}/respostas",
+                this.aluno.getId(),
+                this.avaliacao.getId()
+        )
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(payloadRequest);
+
+        // Ação e Corretude
+        String location = mockMvc.perform(request)
+                .andExpect(
+                        status().isAccepted()
+                )
+                .andExpect(
+                        redirectedUrlPattern("http://localhost/alunos/*/avaliacoes/*/submissoes/*")
+                )
+                .andReturn()
+                .getResponse()
+                .getHeader("location");
+
+        String situacao = "PENDENTE";
+        for (int tentativa = 0; tentativa < 100 && situacao.equals("PENDENTE"); tentativa++) {
+            Thread.sleep(100);
+
+            String payloadResponse = mockMvc.perform(get(location))
+                    .andExpect(status().isOk())
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString();
+
+            situacao = mapper.readTree(payloadResponse).get("situacao").asText();
+        }
+
+        // Asserts
+        assertEquals("PROCESSADA", situacao);
+        assertEquals(1, this.respostaAvaliacaoRepository.count());
+        assertEquals(new BigDecimal("1.00"), this.respostaAvaliacaoRepository.findAll().get(0).getNota());
+
+    }
+
+    @Test
+    @DisplayName("Não deve aceitar resposta para uma questão que não faz parte da avaliação")
+    void naoDeveAceitarRespostaParaUmaQuestaoQueNaoFazParteDaAvaliacao() throws Exception {
+
+        // Cenário
+        List<RespostaQuestaoRequest> respostas = List.of(
+                new RespostaQuestaoRequest(Long.MAX_VALUE, "Resposta A")
+        );
+
+        String payloadRequest = mapper.writeValueAsString(new AvaliacaoAlunoRequest(respostas));
+
+        MockHttpServletRequestBuilder request = post(
+                "/alunos/{id}/avaliacoes/{idAvaliacao}/respostas",
+                this.aluno.getId(),
+                this.avaliacao.getId()
+        )
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(payloadRequest);
+
+        // Ação e Corretude
+        mockMvc.perform(request)
+                .andExpect(
+                        status().isUnprocessableEntity()
+                );
+
+        // Asserts
+        assertEquals(0, this.submissaoPendenteRepository.count());
+
+    }
+
+    @Test
+    @DisplayName("Deve marcar como falha a submissão que não pode ser gravada, com a mensagem cortada")
+    void deveMarcarComoFalhaASubmissaoQueNaoPodeSerGravada() throws Exception {
+
+        // Cenário
+        String payload = mapper.writeValueAsString(new AvaliacaoAlunoRequest(List.of(
+                new RespostaQuestaoRequest(this.questaoA.getId(), "Resposta A")
+        )));
+        SubmissaoPendente submissao = this.submissaoPendenteRepository.save(
+                new SubmissaoPendente(Long.MAX_VALUE, this.avaliacao.getId(), payload)
+        );
+
+        // Ação
+        SubmissaoPendente processada = submissao;
+        for (int tentativa = 0; tentativa < 100 && processada.isPendente(); tentativa++) {
+            Thread.sleep(100);
+            processada = this.submissaoPendenteRepository.findById(submissao.getId()).orElseThrow();
+        }
+
+        // Asserts
+        assertEquals(SituacaoSubmissao.FALHOU, processada.getSituacao());
+        assertNotNull(processada.getMensagemDeErro());
+        assertTrue(processada.getMensagemDeErro().length() <= SubmissaoPendente.TAMANHO_MAXIMO_DA_MENSAGEM);
+        assertEquals(0, this.respostaAvaliacaoRepository.count());
+
+    }
+
+}
@@ -2,22 +2,28 @@ package br.com.zup.edu.universidade.controller;
 
 import br.com.zup.edu.universidade.controller.request.AvaliacaoAlunoRequest;
 import br.com.zup.edu.universidade.controller.request.RespostaQuestaoRequest;
+import br.com.zup.edu.universidade.idempotencia.RequisicoesIdempotentes;
 import br.com.zup.edu.universidade.model.*;
 import br.com.zup.edu.universidade.repository.*;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.type.TypeFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.web.server.ResponseStatusException;
 
+import javax.persistence.EntityManagerFactory;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
@@ -27,7 +33,10 @@ import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrlPattern;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -45,6 +54,18 @@ class FazerAvaliacaoControllerTest {
     @Autowired
     private AlunoRepository alunoRepository;
 
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    @Autowired
+    private MatriculaRepository matriculaRepository;
+
     @Autowired
     private AvaliacaoRepository avaliacaoRepository;
 
@@ -57,6 +78,12 @@ class FazerAvaliacaoControllerTest {
     @Autowired
     private RespostaQuestaoRepository respostaQuestaoRepository;
 
+    @Autowired
+    private SubmissaoPendenteRepository submissaoPendenteRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     private Aluno aluno;
 
     private Avaliacao avaliacao;
@@ -67,12 +94,25 @@ class FazerAvaliacaoControllerTest {
 
     private Questao questaoC;
 
+    private Turma turma;
+
     @BeforeEach
     void setUp() {
         this.respostaAvaliacaoRepository.deleteAll();
         this.avaliacaoRepository.deleteAll();
+        this.turmaRepository.deleteAll();
         this.questaoRepository.deleteAll();
         this.alunoRepository.deleteAll();
+        this.disciplinaRepository.deleteAll();
+        this.professorRepository.deleteAll();
+
+        Professor professor = new Professor("Rafael", "P01");
+        Disciplina disciplina = new Disciplina("Testes", "TST", "Testes de integracao", 40);
+        this.professorRepository.save(professor);
+        this.disciplinaRepository.save(disciplina);
+
+        this.turma = new Turma(disciplina, LocalDate.now(), LocalDate.now().plusMonths(4), professor);
+        this.turmaRepository.save(turma);
 
         this.aluno = new Aluno("Antonio", "AE13", LocalDate.now());
         this.alunoRepository.save(aluno);
@@ -80,8 +120,17 @@ class FazerAvaliacaoControllerTest {
         this.questaoA = new Questao("Questão A", "Resposta A", BigDecimal.ZERO);
         this.questaoB = new Questao("Questão B", "Resposta B", BigDecimal.ONE);
         this.questaoC = new Questao("Questão C", "Resposta C", BigDecimal.TEN);
-        this.avaliacao = new Avaliacao(Set.of(this.questaoA, this.questaoB, this.questaoC));
+        this.avaliacao = new Avaliacao(this.turma, Set.of(this.questaoA, this.questaoB, this.questaoC));
         this.avaliacaoRepository.save(avaliacao);
+
+        this.matriculaRepository.matricular(this.turma.getId(), List.of(this.aluno.getId()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.respostaAvaliacaoRepository.deleteAll();
+        this.avaliacaoRepository.deleteAll();
+        this.turmaRepository.deleteAll();
     }
 
     @Test
@@ -160,6 +209,80 @@ class FazerAvaliacaoControllerTest {
 
     }
 
+    @Test
+    @DisplayName("Aluno não matriculado na turma não pode responder a avaliação")
+    void alunoNaoMatriculadoNaTurmaNaoPodeResponderAAvaliacao() throws Exception {
+
+        // Cenário
+        Aluno outroAluno = new Aluno("Maria", "AE14", LocalDate.now());
+        this.alunoRepository.save(outroAluno);
+
+        List<RespostaQuestaoRequest> respostas = List.of(
+                new RespostaQuestaoRequest(this.questaoA.getId(), "Resposta A")
+        );
+
+        MockHttpServletRequestBuilder request = post(
+                "/alunos/{id}/avaliacoes/{idAvaliacao}/respostas",
+                outroAluno.getId(),
+                this.avaliacao.getId()
+        )
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(new AvaliacaoAlunoRequest(respostas)));
+
+        // Ação e Corretude
+        Exception resolvedException = mockMvc.perform(request)
+                .andExpect(
+                        status().isForbidden()
+                )
+                .andReturn()
+                .getResolvedException();
+
+        // Asserts
+        assertNotNull(resolvedException);
+        assertEquals(ResponseStatusException.class, resolvedException.getClass());
+        assertEquals("Aluno nao matriculado na turma da avaliacao", ((ResponseStatusException) resolvedException).getReason());
+        assertEquals(0, this.respostaAvaliacaoRepository.count());
+
+    }
+
+    @Test
+    @DisplayName("Deve conferir no banco a matrícula que ainda não está no índice")
+    void deveConferirNoBancoAMatriculaQueAindaNaoEstaNoIndice() throws Exception {
+
+        // Cenário
+        List<RespostaQuestaoRequest> respostas = List.of(
+                new RespostaQuestaoRequest(this.questaoA.getId(), "Resposta A")
+        );
+        String payloadRequest = mapper.writeValueAsString(new AvaliacaoAlunoRequest(respostas));
+
+        mockMvc.perform(post("/alunos/{id}/avaliacoes/{idAvaliacao}/respostas", this.aluno.getId(), this.avaliacao.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(payloadRequest))
+                .andExpect(status().isCreated());
+
+        Aluno outroAluno = new Aluno("Maria", "AE14", LocalDate.now());
+        this.alunoRepository.save(outroAluno);
+        this.matriculaRepository.matricular(this.turma.getId(), List.of(outroAluno.getId()));
+
+        MockHttpServletRequestBuilder request = post(
+                "/alunos/{id}/avaliacoes/{idAvaliacao}/respostas",
+                outroAluno.getId(),
+                this.avaliacao.getId()
+        )
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(payloadRequest);
+
+        // Ação e Corretude
+        mockMvc.perform(request)
+                .andExpect(
+                        status().isCreated()
+                );
+
+        // Asserts
+        assertEquals(2, this.respostaAvaliacaoRepository.count());
+
+    }
+
     @Test
     @DisplayName("Aluno não pode responder uma avaliação sem respostas")
     void alunoNaoPodeResponderUmaAvaliacaoSemRespostas() throws Exception {
@@ -249,6 +372,47 @@ class FazerAvaliacaoControllerTest {
 
     }
 
+    @Test
+    @DisplayName("Aluno não pode responder uma avaliação com resposta maior que a coluna")
+    void alunoNaoPodeResponderUmaAvaliacaoComRespostaMaiorQueAColuna() throws Exception {
+
+        // Cenário
+        List<RespostaQuestaoRequest> respostas = List.of(
+                new RespostaQuestaoRequest(this.questaoA.getId(), "A".repeat(300))
+        );
+
+        String payloadRequest = mapper.writeValueAsString(new AvaliacaoAlunoRequest(respostas));
+
+        MockHttpServletRequestBuilder request = post(
+                "/alunos/{id}/avaliacoes/{idAvaliacao}/respostas",
+                this.aluno.getId(),
+                this.avaliacao.getId()
+        )
+                .header("Accept-Language", "pt-br")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(payloadRequest);
+
+        // Ação e Corretude
+        String payloadResponse = mockMvc.perform(request)
+                .andExpect(
+                        status().isBadRequest()
+                )
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        List<String> response = mapper.readValue(payloadResponse, mapper.getTypeFactory().constructCollectionType(
+                List.class,
+                String.class
+        ));
+
+        // Asserts
+        assertThat(response)
+                .containsExactly("O campo respostas[0].resposta tamanho deve ser entre 0 e 255");
+        assertEquals(0, this.respostaAvaliacaoRepository.count());
+
+    }
+
     @Test
     @DisplayName("Aluno não pode responder uma avaliação com resposta para uma questão inválida")
     void alunoNaoPodeResponderUmaAvaliacaoComRespostaParaUmaQuestaoInvalida() throws Exception {
@@ -335,6 +499,47 @@ class FazerAvaliacaoControllerTest {
 
     }
 
+    @Test
+    @DisplayName("Aluno não pode responder uma avaliação com respostas para várias questões que não fazem parte da avaliação")
+    void alunoNaoPodeResponderUmaAvaliacaoComRespostasParaVariasQuestoesQueNaoFazemParteDaAvaliacao() throws Exception {
+
+        // Cenário
+        List<RespostaQuestaoRequest> respostas = List.of(
+                new RespostaQuestaoRequest(Long.MAX_VALUE, "Resposta para a questão"),
+                new RespostaQuestaoRequest(this.questaoA.getId(), "Resposta da questão 1"),
+                new RespostaQuestaoRequest(Long.MAX_VALUE - 1, "Resposta para a questão")
+        );
+
+        AvaliacaoAlunoRequest avaliacaoAlunoRequest = new AvaliacaoAlunoRequest(respostas);
+
+        String payloadRequest = mapper.writeValueAsString(avaliacaoAlunoRequest);
+
+        MockHttpServletRequestBuilder request = post(
+                "/alunos/{id}/avaliacoes/{idAvaliacao}/respostas",
+                this.aluno.getId(),
+                this.avaliacao.getId()
+        )
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(payloadRequest);
+
+        // Ação e Corretude
+        Exception resolvedException = mockMvc.perform(request)
+                .andExpect(
+                        status().isUnprocessableEntity()
+                )
+                .andReturn()
+                .getResolvedException();
+
+        // Asserts
+        assertNotNull(resolvedException);
+        assertEquals(ResponseStatusException.class, resolvedException.getClass());
+        assertEquals(
+                "Nao existe cadastro para questoes com ids 9223372036854775807, 9223372036854775806",
+                ((ResponseStatusException) resolvedException).getReason()
+        );
+
+    }
+
     @Test
     @DisplayName("Aluno pode responder avaliação")
     void alunoPodeResponderAvaliacao() throws Exception {
@@ -374,7 +579,7 @@ class FazerAvaliacaoControllerTest {
 
         Long idRespostaAvaliacao = Long.valueOf(location.substring(posicaoAposUltimaBarra));
 
-        Optional<RespostaAvaliacao> possivelRespostaAvaliacao = this.respostaAvaliacaoRepository.findById(idRespostaAvaliacao);
+        Optional<RespostaAvaliacao> possivelRespostaAvaliacao = this.respostaAvaliacaoRepository.findComRespostasById(idRespostaAvaliacao);
 
         // Asserts
         assertTrue(possivelRespostaAvaliacao.isPresent());
@@ -388,4 +593,334 @@ class FazerAvaliacaoControllerTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Deve corrigir a avaliação do aluno e disponibilizar a nota")
+    void deveCorrigirAAvaliacaoDoAlunoEDisponibilizarANota() throws Exception {
+
+        // Cenário
+        List<RespostaQuestaoRequest> respostas = List.of(
+                new RespostaQuestaoRequest(this.questaoA.getId(), "resposta a"),
+                new RespostaQuestaoRequest(this.questaoB.getId(), "  Resposta   B "),
+                new RespostaQuestaoRequest(this.questaoC.getId(), "Resposta errada")
+        );
+
+        AvaliacaoAlunoRequest avaliacaoAlunoRequest = new AvaliacaoAlunoRequest(respostas);
+
+        String payloadRequest = mapper.writeValueAsString(avaliacaoAlunoRequest);
+
+        MockHttpServletRequestBuilder request = post(
+                "/alunos/{id}/avaliacoes/{idAvaliacao}/respostas",
+                this.aluno.getId(),
+                this.avaliacao.getId()
+        )
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(payloadRequest);
+
+        // Ação e Corretude
+        mockMvc.perform(request)
+                .andExpect(
+                        status().isCreated()
+                );
+
+        MockHttpServletRequestBuilder consulta = get(
+                "/alunos/{id}/avaliacoes/{idAvaliacao}/nota",
+                this.aluno.getId(),
+                this.avaliacao.getId()
+        );
+
+        // Asserts
+        mockMvc.perform(consulta)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nota").value(1.0));
+
+    }
+
+    @Test
+    @DisplayName("Deve considerar só a primeira resposta de cada questão respondida mais de uma vez")
+    void deveConsiderarSoAPrimeiraRespostaDeCadaQuestaoRespondidaMaisDeUmaVez() throws Exception {
+
+        // Cenário
+        List<RespostaQuestaoRequest> respostas = List.of(
+                new RespostaQuestaoRequest(this.questaoB.getId(), "Resposta B"),
+                new RespostaQuestaoRequest(this.questaoC.getId(), "Resposta C"),
+                new RespostaQuestaoRequest(this.questaoB.getId(), "Resposta B"),
+                new RespostaQuestaoRequest(this.questaoC.getId(), "Resposta errada")
+        );
+
+        MockHttpServletRequestBuilder request = post(
+                "/alunos/{id}/avaliacoes/{idAvaliacao}/respostas",
+                this.aluno.getId(),
+                this.avaliacao.getId()
+        )
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(new AvaliacaoAlunoRequest(respostas)));
+
+        // Ação e Corretude
+        String location = mockMvc.perform(request)
+                .andExpect(
+                        status().isCreated()
+                )
+                .andReturn()
+                .getResponse()
+                .getHeader("location");
+
+        Long idRespostaAvaliacao = Long.valueOf(location.substring(location.lastIndexOf("/") + 1));
+
+        // Asserts
+        RespostaAvaliacao respostaAvaliacao = this.respostaAvaliacaoRepository.findComRespostasById(idRespostaAvaliacao).orElseThrow();
+        assertEquals(2, respostaAvaliacao.getRespostas().size());
+
+        mockMvc.perform(get("/alunos/{id}/avaliacoes/{idAvaliacao}/nota", this.aluno.getId(), this.avaliacao.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nota").value(11.0));
+
+    }
+
+    @Test
+    @DisplayName("Deve buscar a avaliação e suas questões no banco uma única vez entre submissões")
+    void deveBuscarAAvaliacaoESuasQuestoesNoBancoUmaUnicaVezEntreSubmissoes() throws Exception {
+
+        // Cenário
+        List<RespostaQuestaoRequest> respostas = List.of(
+                new RespostaQuestaoRequest(this.questaoA.getId(), "Resposta A"),
+                new RespostaQuestaoRequest(this.questaoB.getId(), "Resposta B"),
+                new RespostaQuestaoRequest(this.questaoC.getId(), "Resposta C")
+        );
+
+        String payloadRequest = mapper.writeValueAsString(new AvaliacaoAlunoRequest(respostas));
+
+        Statistics estatisticas = this.entityManagerFactory.unwrap(SessionFactoryImplementor.class).getStatistics();
+        estatisticas.clear();
+
+        // Ação e Corretude
+        for (int i = 0; i < 10; i++) {
+            MockHttpServletRequestBuilder request = post(
+                    "/alunos/{id}/avaliacoes/{idAvaliacao}/respostas",
+                    this.aluno.getId(),
+                    this.avaliacao.getId()
+            )
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(payloadRequest);
+
+            mockMvc.perform(request)
+                    .andExpect(
+                            status().isCreated()
+                    );
+        }
+
+        // Asserts
+        assertEquals(1, estatisticas.getEntityStatistics(Avaliacao.class.getName()).getLoadCount());
+        assertEquals(3, estatisticas.getEntityStatistics(Questao.class.getName()).getLoadCount());
+        assertEquals(1, estatisticas.getCollectionStatistics(Avaliacao.class.getName() + ".questoes").getLoadCount());
+        assertEquals(0, estatisticas.getEntityStatistics(Turma.class.getName()).getLoadCount());
+
+    }
+
+    @Test
+    @DisplayName("Deve devolver a resposta original ao repetir a submissão com a mesma Idempotency-Key")
+    void deveDevolverARespostaOriginalAoRepetirASubmissaoComAMesmaIdempotencyKey() throws Exception {
+
+        // Cenário
+        List<RespostaQuestaoRequest> respostas = List.of(
+                new RespostaQuestaoRequest(this.questaoA.getId(), "Resposta A"),
+                new RespostaQuestaoRequest(this.questaoB.getId(), "Resposta B"),
+                new RespostaQuestaoRequest(this.questaoC.getId(), "Resposta C")
+        );
+
+        String payloadRequest = mapper.writeValueAsString(new AvaliacaoAlunoRequest(respostas));
+
+        MockHttpServletRequestBuilder request = post(
+                "/alunos/{id}/avaliacoes/{idAvaliacao}/respostas",
+                this.aluno.getId(),
+                this.avaliacao.getId()
+        )
+                .header("Idempotency-Key", "tentativa-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(payloadRequest);
+
+        String location = mockMvc.perform(request)
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getHeader("location");
+
+        // Ação e Corretude
+        mockMvc.perform(request)
+                .andExpect(
+                        status().isCreated()
+                )
+                .andExpect(
+                        redirectedUrl(location)
+                );
+
+        // Asserts
+        assertEquals(1, this.respostaAvaliacaoRepository.count());
+
+    }
+
+    @Test
+    @DisplayName("Deve devolver a resposta gravada com a Idempotency-Key mesmo que ela não esteja em memória")
+    void deveDevolverARespostaGravadaComAIdempotencyKeyMesmoQueElaNaoEstejaEmMemoria() throws Exception {
+
+        // Cenário
+        RespostaAvaliacao respostaAvaliacao = new RespostaAvaliacao(this.aluno, this.avaliacao, Set.of(
+                new RespostaQuestao(this.aluno, this.questaoA, "Resposta A")
+        ));
+        respostaAvaliacao.identificarPor("tentativa-1");
+        this.respostaAvaliacaoRepository.save(respostaAvaliacao);
+
+        List<RespostaQuestaoRequest> respostas = List.of(
+                new RespostaQuestaoRequest(this.questaoA.getId(), "Resposta A")
+        );
+
+        MockHttpServletRequestBuilder request = post(
+                "/alunos/{id}/avaliacoes/{idAvaliacao}/respostas",
+                this.aluno.getId(),
+                this.avaliacao.getId()
+        )
+                .header("Idempotency-Key", "tentativa-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(new AvaliacaoAlunoRequest(respostas)));
+
+        // Ação e Corretude
+        mockMvc.perform(request)
+                .andExpect(
+                        status().isCreated()
+                )
+                .andExpect(
+                        redirectedUrlPattern("http://localhost/alunos/*/avaliacoes/*/respostas/" + respostaAvaliacao.getId())
+                );
+
+        // Asserts
+        assertEquals(1, this.respostaAvaliacaoRepository.count());
+
+    }
+
+    @Test
+    @DisplayName("Deve preferir a resposta gravada à submissão com a mesma Idempotency-Key")
+    void devePreferirARespostaGravadaASubmissaoComAMesmaIdempotencyKey() throws Exception {
+
+        // Cenário
+        RespostaAvaliacao respostaAvaliacao = new RespostaAvaliacao(this.aluno, this.avaliacao, Set.of(
+                new RespostaQuestao(this.aluno, this.questaoA, "Resposta A")
+        ));
+        respostaAvaliacao.identificarPor("tentativa-1");
+        this.respostaAvaliacaoRepository.save(respostaAvaliacao);
+
+        SubmissaoPendente submissao = new SubmissaoPendente(this.aluno.getId(), this.avaliacao.getId(), "{\"respostas\":[]}");
+        submissao.identificarPor("tentativa-1");
+        submissao.processada(respostaAvaliacao.getId());
+        this.submissaoPendenteRepository.save(submissao);
+
+        List<RespostaQuestaoRequest> respostas = List.of(
+                new RespostaQuestaoRequest(this.questaoA.getId(), "Resposta A")
+        );
+
+        MockHttpServletRequestBuilder request = post(
+                "/alunos/{id}/avaliacoes/{idAvaliacao}/respostas",
+                this.aluno.getId(),
+                this.avaliacao.getId()
+        )
+                .header("Idempotency-Key", "tentativa-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(new AvaliacaoAlunoRequest(respostas)));
+
+        // Ação e Corretude
+        mockMvc.perform(request)
+                .andExpect(
+                        status().isCreated()
+                )
+                .andExpect(
+                        redirectedUrlPattern("http://localhost/alunos/*/avaliacoes/*/respostas/" + respostaAvaliacao.getId())
+                );
+
+        // Asserts
+        assertEquals(1, this.respostaAvaliacaoRepository.count());
+
+        this.submissaoPendenteRepository.delete(submissao);
+    }
+
+    @Test
+    @DisplayName("Deve reconhecer só a violação da restrição única da Idempotency-Key como chave em uso")
+    void deveReconhecerSoAViolacaoDaRestricaoUnicaDaIdempotencyKeyComoChaveEmUso() {
+
+        // Cenário
+        RespostaAvaliacao primeira = new RespostaAvaliacao(this.aluno, this.avaliacao, Set.of());
+        primeira.identificarPor("tentativa-1");
+        this.respostaAvaliacaoRepository.saveAndFlush(primeira);
+
+        RespostaAvaliacao repetida = new RespostaAvaliacao(this.aluno, this.avaliacao, Set.of());
+        repetida.identificarPor("tentativa-1");
+
+        RespostaAvaliacao respostaLonga = new RespostaAvaliacao(this.aluno, this.avaliacao, Set.of(
+                new RespostaQuestao(this.aluno, this.questaoA, "A".repeat(300))
+        ));
+        respostaLonga.identificarPor("tentativa-2");
+
+        // Ação
+        DataIntegrityViolationException chaveRepetida = assertThrows(
+                DataIntegrityViolationException.class,
+                () -> this.respostaAvaliacaoRepository.saveAndFlush(repetida)
+        );
+        DataIntegrityViolationException valorLongo = assertThrows(
+                DataIntegrityViolationException.class,
+                () -> this.respostaAvaliacaoRepository.saveAndFlush(respostaLonga)
+        );
+
+        // Asserts
+        assertTrue(RequisicoesIdempotentes.chaveEmUso(chaveRepetida));
+        assertFalse(RequisicoesIdempotentes.chaveEmUso(valorLongo));
+
+    }
+
+    @Test
+    @DisplayName("Não deve aceitar a mesma Idempotency-Key em outra avaliação")
+    void naoDeveAceitarAMesmaIdempotencyKeyEmOutraAvaliacao() throws Exception {
+
+        // Cenário
+        Questao questaoD = new Questao("Questão D", "Resposta D", BigDecimal.ONE);
+        Avaliacao outraAvaliacao = new Avaliacao(this.turma, Set.of(questaoD));
+        this.avaliacaoRepository.save(outraAvaliacao);
+
+        MockHttpServletRequestBuilder primeira = post(
+                "/alunos/{id}/avaliacoes/{idAvaliacao}/respostas",
+                this.aluno.getId(),
+                this.avaliacao.getId()
+        )
+                .header("Idempotency-Key", "tentativa-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(new AvaliacaoAlunoRequest(List.of(
+                        new RespostaQuestaoRequest(this.questaoA.getId(), "Resposta A")
+                ))));
+
+        mockMvc.perform(primeira)
+                .andExpect(status().isCreated());
+
+        MockHttpServletRequestBuilder request = post(
+                "/alunos/{id}/avaliacoes/{idAvaliacao}/respostas",
+                this.aluno.getId(),
+                outraAvaliacao.getId()
+        )
+                .header("Idempotency-Key", "tentativa-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(new AvaliacaoAlunoRequest(List.of(
+                        new RespostaQuestaoRequest(questaoD.getId(), "Resposta D")
+                ))));
+
+        // Ação e Corretude
+        Exception resolvedException = mockMvc.perform(request)
+                .andExpect(
+                        status().isUnprocessableEntity()
+                )
+                .andReturn()
+                .getResolvedException();
+
+        // Asserts
+        assertNotNull(resolvedException);
+        assertEquals(ResponseStatusException.class, resolvedException.getClass());
+        assertEquals("Idempotency-Key ja usada em outra avaliacao", ((ResponseStatusException) resolvedException).getReason());
+        assertEquals(1, this.respostaAvaliacaoRepository.count());
+
+    }
+
+}
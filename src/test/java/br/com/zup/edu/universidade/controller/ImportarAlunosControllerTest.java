@@ -0,0 +1,184 @@
+package br.com.zup.edu.universidade.controller;
+
+import br.com.zup.edu.universidade.model.Aluno;
+import br.com.zup.edu.universidade.repository.AlunoRepository;
+import br.com.zup.edu.universidade.repository.RespostaAvaliacaoRepository;
+import br.com.zup.edu.universidade.repository.TurmaRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc(printOnlyOnFailure = false)
+@ActiveProfiles("test")
+class ImportarAlunosControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private RespostaAvaliacaoRepository respostaAvaliacaoRepository;
+
+    @BeforeEach
+    void setUp() {
+        this.turmaRepository.deleteAll();
+        this.respostaAvaliacaoRepository.deleteAll();
+        this.alunoRepository.deleteAll();
+
+        this.alunoRepository.save(new Aluno("Antonio", "AE13", LocalDate.of(2000, 1, 1)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.alunoRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Deve importar alunos de um CSV informando o erro de cada linha recusada")
+    void deveImportarAlunosDeUmCsvInformandoOErroDeCadaLinhaRecusada() throws Exception {
+
+        // Cenário
+        String csv = "\uFEFFnome,matricula,dataNascimento\n" +
+                "Antonio,AE13,2000-01-01\n" +
+                "Maria,AE20,2000-02-30\n" +
+                "\"Silva, Joana\",AE21,1999-05-10\n" +
+                "\n" +
+                "Joao,AE21,1998-01-01\n" +
+                "Pedro,,1998-01-01\n" +
+                "Ana,AE22,1997-03-15\r\n";
+
+        MockHttpServletRequestBuilder request = post("/alunos:import")
+                .header("Accept-Language", "pt-br")
+                .contentType("text/csv")
+                .content(csv);
+
+        // Ação e Corretude
+        MvcResult resultado = mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String resposta = mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        // Asserts
+        List<Map<String, Object>> eventos = eventos(resposta);
+        Map<Object, Object> erros = eventos.stream()
+                .filter(evento -> "erro".equals(evento.get("tipo")))
+                .collect(Collectors.toMap(evento -> evento.get("linha"), evento -> evento.get("mensagem")));
+
+        assertEquals(Map.of(
+                2, "Matricula ja cadastrada",
+                3, "O campo dataNascimento tem um valor invalido",
+                6, "Matricula ja cadastrada",
+                7, "O campo matricula não deve estar em branco"
+        ), erros);
+
+        Map<String, Object> resumo = eventos.get(eventos.size() - 1);
+        assertEquals("resumo", resumo.get("tipo"));
+        assertEquals(6, resumo.get("linhas"));
+        assertEquals(2, resumo.get("importadas"));
+        assertEquals(4, resumo.get("erros"));
+        assertEquals(0, resumo.get("errosOmitidos"));
+
+        assertThat(alunoRepository.findAll())
+                .extracting(Aluno::getMatricula, Aluno::getNome)
+                .containsExactlyInAnyOrder(
+                        tuple("AE13", "Antonio"),
+                        tuple("AE21", "Silva, Joana"),
+                        tuple("AE22", "Ana")
+                );
+
+    }
+
+    @Test
+    @DisplayName("Deve recusar só a linha que o banco não aceitar, sem expor o erro do banco")
+    void deveRecusarSoALinhaQueOBancoNaoAceitarSemExporOErroDoBanco() throws Exception {
+
+        // Cenário
+        String ndjson = "{\"nome\":\"Bruna\\u0000\",\"matricula\":\"AE30\",\"dataNascimento\":\"2000-01-01\"}\n" +
+                "{\"nome\":\"Carla\",\"matricula\":\"AE31\",\"dataNascimento\":\"2000-01-01\"}\n" +
+                "{\"nome\":\"" + "D".repeat(256) + "\",\"matricula\":\"AE32\",\"dataNascimento\":\"2000-01-01\"}\n";
+
+        MockHttpServletRequestBuilder request = post("/alunos:import")
+                .header("Accept-Language", "pt-br")
+                .contentType("application/x-ndjson")
+                .content(ndjson);
+
+        // Ação e Corretude
+        MvcResult resultado = mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String resposta = mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        // Asserts
+        List<Map<String, Object>> eventos = eventos(resposta);
+        Map<Object, Object> erros = eventos.stream()
+                .filter(evento -> "erro".equals(evento.get("tipo")))
+                .collect(Collectors.toMap(evento -> evento.get("linha"), evento -> evento.get("mensagem")));
+
+        assertEquals(Map.of(
+                1, "Nao foi possivel gravar a linha",
+                3, "O campo nome tamanho deve ser entre 0 e 255"
+        ), erros);
+
+        Map<String, Object> resumo = eventos.get(eventos.size() - 1);
+        assertEquals(1, resumo.get("importadas"));
+        assertEquals(2, resumo.get("erros"));
+
+        assertThat(alunoRepository.findAll())
+                .extracting(Aluno::getMatricula)
+                .containsExactlyInAnyOrder("AE13", "AE31");
+
+    }
+
+    private List<Map<String, Object>> eventos(String ndjson) throws Exception {
+        List<Map<String, Object>> eventos = new ArrayList<>();
+        for (String linha : ndjson.split("\n")) {
+            eventos.add(mapper.readValue(linha, new TypeReference<>() {
+            }));
+        }
+        return eventos;
+    }
+}
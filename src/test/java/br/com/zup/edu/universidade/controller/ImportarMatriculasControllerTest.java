@@ -0,0 +1,187 @@
+package br.com.zup.edu.universidade.controller;
+
+import br.com.zup.edu.universidade.model.*;
+import br.com.zup.edu.universidade.repository.*;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc(printOnlyOnFailure = false)
+@ActiveProfiles("test")
+class ImportarMatriculasControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    @Autowired
+    private MatriculaRepository matriculaRepository;
+
+    @Autowired
+    private RespostaAvaliacaoRepository respostaAvaliacaoRepository;
+
+    private Turma turma;
+
+    private Aluno alunoA;
+
+    private Aluno alunoB;
+
+    private Aluno alunoC;
+
+    @BeforeEach
+    void setUp() {
+        this.turmaRepository.deleteAll();
+        this.respostaAvaliacaoRepository.deleteAll();
+        this.alunoRepository.deleteAll();
+        this.disciplinaRepository.deleteAll();
+        this.professorRepository.deleteAll();
+
+        Professor professor = new Professor("Rafael", "P01");
+        Disciplina disciplina = new Disciplina("Testes", "TST", "Testes de integracao", 40);
+        this.professorRepository.save(professor);
+        this.disciplinaRepository.save(disciplina);
+
+        this.turma = new Turma(disciplina, LocalDate.now(), LocalDate.now().plusMonths(4), professor);
+        this.turmaRepository.save(turma);
+
+        this.alunoA = new Aluno("Antonio", "AE13", LocalDate.now());
+        this.alunoB = new Aluno("Maria", "AE14", LocalDate.now());
+        this.alunoC = new Aluno("Joana", "AE15", LocalDate.now());
+        this.alunoRepository.saveAll(List.of(alunoA, alunoB, alunoC));
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.turmaRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Não deve importar matrículas para uma turma não cadastrada")
+    void naoDeveImportarMatriculasParaUmaTurmaNaoCadastrada() throws Exception {
+
+        // Cenário
+        MockHttpServletRequestBuilder request = post("/turmas/{id}/alunos:import", Long.MAX_VALUE)
+                .contentType("application/x-ndjson")
+                .content("{\"matricula\":\"AE13\"}\n");
+
+        // Ação e Corretude
+        Exception resolvedException = mockMvc.perform(request)
+                .andExpect(
+                        status().isNotFound()
+                )
+                .andReturn()
+                .getResolvedException();
+
+        // Asserts
+        assertNotNull(resolvedException);
+        assertEquals(ResponseStatusException.class, resolvedException.getClass());
+        assertEquals("Turma nao cadastrada", ((ResponseStatusException) resolvedException).getReason());
+
+    }
+
+    @Test
+    @DisplayName("Deve importar matrículas de um NDJSON informando o erro de cada linha recusada")
+    void deveImportarMatriculasDeUmNdjsonInformandoOErroDeCadaLinhaRecusada() throws Exception {
+
+        // Cenário
+        this.matriculaRepository.matricular(this.turma.getId(), List.of(this.alunoA.getId()));
+
+        String ndjson = Stream.of(
+                "{\"matricula\":\"AE13\"}",
+                "{\"matricula\":\"AE14\"}",
+                "{\"matricula\":\"XX99\"}",
+                "[\"AE15\"]",
+                "{\"matricula\":\"AE15\"}",
+                "{\"matricula\":\"AE14\"}"
+        ).collect(Collectors.joining("\n"));
+
+        MockHttpServletRequestBuilder request = post("/turmas/{id}/alunos:import", this.turma.getId())
+                .contentType("application/x-ndjson")
+                .content(ndjson);
+
+        // Ação e Corretude
+        MvcResult resultado = mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String resposta = mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        // Asserts
+        List<Map<String, Object>> eventos = resposta.lines()
+                .map(linha -> {
+                    try {
+                        return mapper.readValue(linha, new TypeReference<Map<String, Object>>() {
+                        });
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .collect(Collectors.toList());
+
+        Map<Object, Object> erros = eventos.stream()
+                .filter(evento -> "erro".equals(evento.get("tipo")))
+                .collect(Collectors.toMap(evento -> evento.get("linha"), evento -> evento.get("mensagem")));
+
+        assertEquals(Set.of(1, 3, 4, 6), erros.keySet());
+        assertEquals("Aluno já matriculado na turma", erros.get(1));
+        assertEquals("Aluno nao cadastrado", erros.get(3));
+        assertEquals("Aluno já matriculado na turma", erros.get(6));
+
+        Map<String, Object> resumo = eventos.get(eventos.size() - 1);
+        assertEquals("resumo", resumo.get("tipo"));
+        assertEquals(2, resumo.get("importadas"));
+
+        Set<Long> matriculados = this.matriculaRepository.buscarMatriculados(
+                this.turma.getId(),
+                List.of(this.alunoA.getId(), this.alunoB.getId(), this.alunoC.getId())
+        );
+
+        assertEquals(Set.of(this.alunoA.getId(), this.alunoB.getId(), this.alunoC.getId()), matriculados);
+
+    }
+
+}
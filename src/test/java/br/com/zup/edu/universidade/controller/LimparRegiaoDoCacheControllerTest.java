@@ -0,0 +1,96 @@
+package br.com.zup.edu.universidade.controller;
+
+import br.com.zup.edu.universidade.model.Professor;
+import br.com.zup.edu.universidade.repository.*;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc(printOnlyOnFailure = false)
+@ActiveProfiles("test")
+class LimparRegiaoDoCacheControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Professor professor;
+
+    @BeforeEach
+    void setUp() {
+        this.turmaRepository.deleteAll();
+        this.professorRepository.deleteAll();
+
+        this.professor = new Professor("Rafael", "P01");
+        this.professorRepository.save(professor);
+    }
+
+    @Test
+    @DisplayName("Não deve limpar uma região de cache inexistente")
+    void naoDeveLimparUmaRegiaoDeCacheInexistente() throws Exception {
+
+        // Cenário
+        MockHttpServletRequestBuilder request = delete("/admin/cache/{regiao}", "aluno");
+
+        // Ação e Corretude
+        Exception resolvedException = mockMvc.perform(request)
+                .andExpect(
+                        status().isNotFound()
+                )
+                .andReturn()
+                .getResolvedException();
+
+        // Asserts
+        assertNotNull(resolvedException);
+        assertEquals(ResponseStatusException.class, resolvedException.getClass());
+        assertEquals("Regiao de cache nao encontrada", ((ResponseStatusException) resolvedException).getReason());
+
+    }
+
+    @Test
+    @DisplayName("Deve limpar a região de cache informada")
+    void deveLimparARegiaoDeCacheInformada() throws Exception {
+
+        // Cenário
+        this.professorRepository.findById(this.professor.getId());
+
+        org.hibernate.Cache cache = this.entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache();
+        assertTrue(cache.containsEntity(Professor.class, this.professor.getId()));
+
+        MockHttpServletRequestBuilder request = delete("/admin/cache/{regiao}", "professor");
+
+        // Ação e Corretude
+        mockMvc.perform(request)
+                .andExpect(
+                        status().isNoContent()
+                );
+
+        // Asserts
+        assertFalse(cache.containsEntity(Professor.class, this.professor.getId()));
+
+    }
+
+}
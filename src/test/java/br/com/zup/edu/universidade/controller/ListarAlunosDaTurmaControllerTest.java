@@ -0,0 +1,149 @@
+package br.com.zup.edu.universidade.controller;
+
+import br.com.zup.edu.universidade.model.*;
+import br.com.zup.edu.universidade.repository.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc(printOnlyOnFailure = false)
+@ActiveProfiles("test")
+class ListarAlunosDaTurmaControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    @Autowired
+    private MatriculaRepository matriculaRepository;
+
+    @Autowired
+    private RespostaAvaliacaoRepository respostaAvaliacaoRepository;
+
+    private Turma turma;
+
+    private Aluno alunoA;
+
+    private Aluno alunoB;
+
+    private Aluno alunoC;
+
+    @BeforeEach
+    void setUp() {
+        this.turmaRepository.deleteAll();
+        this.respostaAvaliacaoRepository.deleteAll();
+        this.alunoRepository.deleteAll();
+        this.disciplinaRepository.deleteAll();
+        this.professorRepository.deleteAll();
+
+        Professor professor = new Professor("Rafael", "P01");
+        Disciplina disciplina = new Disciplina("Testes", "TST", "Testes de integracao", 40);
+        this.professorRepository.save(professor);
+        this.disciplinaRepository.save(disciplina);
+
+        this.turma = new Turma(disciplina, LocalDate.now(), LocalDate.now().plusMonths(4), professor);
+        this.turmaRepository.save(turma);
+
+        this.alunoA = new Aluno("Antonio", "AE13", LocalDate.now());
+        this.alunoB = new Aluno("Maria", "AE14", LocalDate.now());
+        this.alunoC = new Aluno("Joao", "AE15", LocalDate.now());
+        this.alunoRepository.saveAll(List.of(alunoA, alunoB, alunoC));
+
+        this.matriculaRepository.matricular(
+                this.turma.getId(),
+                List.of(this.alunoA.getId(), this.alunoB.getId(), this.alunoC.getId())
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.turmaRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Não deve listar os alunos de uma turma não cadastrada")
+    void naoDeveListarOsAlunosDeUmaTurmaNaoCadastrada() throws Exception {
+
+        // Cenário
+        MockHttpServletRequestBuilder request = get("/turmas/{id}/alunos", Long.MAX_VALUE);
+
+        // Ação e Corretude
+        Exception resolvedException = mockMvc.perform(request)
+                .andExpect(
+                        status().isNotFound()
+                )
+                .andReturn()
+                .getResolvedException();
+
+        // Asserts
+        assertNotNull(resolvedException);
+        assertEquals(ResponseStatusException.class, resolvedException.getClass());
+        assertEquals("Turma nao cadastrada", ((ResponseStatusException) resolvedException).getReason());
+
+    }
+
+    @Test
+    @DisplayName("Deve listar os alunos da turma página a página")
+    void deveListarOsAlunosDaTurmaPaginaAPagina() throws Exception {
+
+        // Cenário
+        MockHttpServletRequestBuilder primeiraPagina = get("/turmas/{id}/alunos", this.turma.getId())
+                .param("limite", "2");
+
+        MockHttpServletRequestBuilder segundaPagina = get("/turmas/{id}/alunos", this.turma.getId())
+                .param("limite", "2")
+                .param("aposId", this.alunoB.getId().toString());
+
+        // Ação e Corretude
+        mockMvc.perform(primeiraPagina)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens.length()").value(2))
+                .andExpect(jsonPath("$.itens[0].id").value(this.alunoA.getId()))
+                .andExpect(jsonPath("$.itens[0].nome").value("Antonio"))
+                .andExpect(jsonPath("$.itens[1].matricula").value("AE14"))
+                .andExpect(jsonPath("$.proximo").value(this.alunoB.getId()));
+
+        mockMvc.perform(segundaPagina)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens.length()").value(1))
+                .andExpect(jsonPath("$.itens[0].id").value(this.alunoC.getId()))
+                .andExpect(jsonPath("$.proximo").doesNotExist());
+
+        // Asserts
+        mockMvc.perform(get("/alunos/{id}/turmas", this.alunoC.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens.length()").value(1))
+                .andExpect(jsonPath("$.itens[0].id").value(this.turma.getId()))
+                .andExpect(jsonPath("$.itens[0].siglaDisciplina").value("TST"));
+
+    }
+
+}
@@ -0,0 +1,264 @@
+package br.com.zup.edu.universidade.controller;
+
+import br.com.zup.edu.universidade.controller.request.AlunoAMatricularRequest;
+import br.com.zup.edu.universidade.exception.MatriculaAlunoException;
+import br.com.zup.edu.universidade.model.*;
+import br.com.zup.edu.universidade.repository.*;
+import br.com.zup.edu.universidade.service.AdmissaoDeMatriculas;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc(printOnlyOnFailure = true)
+@ActiveProfiles("test")
+class MatricularAlunoNaTurmaControllerTest {
+
+    private static final int ALUNOS_SIMULTANEOS = 500;
+
+    private static final int VAGAS = 300;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    @Autowired
+    private RespostaAvaliacaoRepository respostaAvaliacaoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AdmissaoDeMatriculas admissao;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private Professor professor;
+
+    private Disciplina disciplina;
+
+    private Turma turma;
+
+    @BeforeEach
+    void setUp() {
+        this.turmaRepository.deleteAll();
+        this.respostaAvaliacaoRepository.deleteAll();
+        this.alunoRepository.deleteAll();
+        this.disciplinaRepository.deleteAll();
+        this.professorRepository.deleteAll();
+
+        this.professor = new Professor("Rafael", "P01");
+        this.disciplina = new Disciplina("Testes", "TST", "Testes de integracao", 40);
+        this.professorRepository.save(professor);
+        this.disciplinaRepository.save(disciplina);
+
+        this.turma = new Turma(disciplina, LocalDate.now(), LocalDate.now().plusMonths(4), professor, VAGAS);
+        this.turmaRepository.save(turma);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.turmaRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Deve matricular cada aluno uma única vez sem passar das vagas com matrículas simultâneas")
+    void deveMatricularCadaAlunoUmaUnicaVezSemPassarDasVagasComMatriculasSimultaneas() throws Exception {
+
+        // Cenário
+        List<Aluno> alunos = IntStream.range(0, ALUNOS_SIMULTANEOS)
+                .mapToObj(i -> new Aluno("Aluno " + i, "AE" + i, LocalDate.now()))
+                .collect(Collectors.toList());
+        this.alunoRepository.saveAll(alunos);
+
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService matriculadores = Executors.newFixedThreadPool(ALUNOS_SIMULTANEOS);
+
+        // Ação
+        List<Future<Integer>> respostas = new ArrayList<>();
+        try {
+            for (Aluno aluno : alunos) {
+                for (int tentativa = 0; tentativa < 2; tentativa++) {
+                    respostas.add(matriculadores.submit(() -> {
+                        largada.await();
+                        return mockMvc.perform(matricular(aluno)).andReturn().getResponse().getStatus();
+                    }));
+                }
+            }
+            largada.countDown();
+
+            List<Integer> status = new ArrayList<>();
+            for (Future<Integer> resposta : respostas) {
+                status.add(resposta.get());
+            }
+
+            // Asserts
+            Map<Integer, Long> porStatus = status.stream()
+                    .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+
+            assertEquals(Map.of(201, (long) VAGAS, 422, (long) (2 * ALUNOS_SIMULTANEOS - VAGAS)), porStatus);
+        } finally {
+            matriculadores.shutdownNow();
+        }
+
+        Map<String, Object> matriculas = this.jdbcTemplate.queryForMap(
+                "select count(*) as total, count(distinct alunos_id) as distintos from turma_alunos where turmas_id = ?",
+                this.turma.getId()
+        );
+
+        assertEquals((long) VAGAS, matriculas.get("total"));
+        assertEquals((long) VAGAS, matriculas.get("distintos"));
+        assertEquals(VAGAS, this.turmaRepository.findById(this.turma.getId()).orElseThrow().getMatriculados());
+
+    }
+
+    @Test
+    @DisplayName("Não deve matricular aluno em uma turma sem vagas")
+    void naoDeveMatricularAlunoEmUmaTurmaSemVagas() throws Exception {
+
+        // Cenário
+        Turma turmaPequena = new Turma(this.disciplina, LocalDate.now(), LocalDate.now().plusMonths(4), this.professor, 1);
+        this.turmaRepository.save(turmaPequena);
+
+        Aluno alunoA = new Aluno("Antonio", "AE13", LocalDate.now());
+        Aluno alunoB = new Aluno("Maria", "AE14", LocalDate.now());
+        this.alunoRepository.saveAll(List.of(alunoA, alunoB));
+
+        mockMvc.perform(matricular(turmaPequena, alunoA))
+                .andExpect(status().isCreated());
+
+        // Ação e Corretude
+        Exception resolvedException = mockMvc.perform(matricular(turmaPequena, alunoB))
+                .andExpect(
+                        status().isUnprocessableEntity()
+                )
+                .andReturn()
+                .getResolvedException();
+
+        // Asserts
+        assertNotNull(resolvedException);
+        assertEquals(MatriculaAlunoException.class, resolvedException.getClass());
+        assertEquals("Turma sem vagas", resolvedException.getMessage());
+
+        Integer matriculas = this.jdbcTemplate.queryForObject(
+                "select count(*) from turma_alunos where turmas_id = ?",
+                Integer.class,
+                turmaPequena.getId()
+        );
+        assertEquals(1, matriculas);
+        assertEquals(1, this.turmaRepository.findById(turmaPequena.getId()).orElseThrow().getMatriculados());
+
+    }
+
+    @Test
+    @DisplayName("Deve deixar passar até o banco uma matrícula por segundo numa turma lotada")
+    void deveDeixarPassarAteOBancoUmaMatriculaPorSegundoNumaTurmaLotada() throws Exception {
+
+        // Cenário
+        Turma turmaPequena = new Turma(this.disciplina, LocalDate.now(), LocalDate.now().plusMonths(4), this.professor, 1);
+        this.turmaRepository.save(turmaPequena);
+        this.admissao.turmaCadastrada(turmaPequena.getId(), 1);
+
+        Aluno aluno = new Aluno("Antonio", "AE13", LocalDate.now());
+        this.alunoRepository.save(aluno);
+        this.admissao.matricular(turmaPequena.getId(), List.of(aluno.getId()));
+
+        // Ação e Corretude
+        assertFalse(this.admissao.temVaga(turmaPequena.getId()));
+        Thread.sleep(1100);
+
+        // Asserts
+        assertTrue(this.admissao.temVaga(turmaPequena.getId()));
+        assertFalse(this.admissao.temVaga(turmaPequena.getId()));
+
+    }
+
+    @Test
+    @DisplayName("Deve recusar a matrícula repetida sem consultar o banco")
+    void deveRecusarAMatriculaRepetidaSemConsultarOBanco() throws Exception {
+
+        // Cenário
+        Aluno aluno = new Aluno("Antonio", "AE13", LocalDate.now());
+        this.alunoRepository.save(aluno);
+
+        mockMvc.perform(matricular(aluno))
+                .andExpect(status().isCreated());
+
+        DistributionSummary comandos = registry.summary("universidade.sql.comandos", "controlador", "MatricularAlunoNaTurmaController", "metodo", "matricular");
+        long requisicoesAntes = comandos.count();
+        double comandosAntes = comandos.totalAmount();
+
+        // Ação e Corretude
+        Exception resolvedException = mockMvc.perform(matricular(aluno))
+                .andExpect(
+                        status().isUnprocessableEntity()
+                )
+                .andReturn()
+                .getResolvedException();
+
+        // Asserts
+        assertNotNull(resolvedException);
+        assertEquals(ResponseStatusException.class, resolvedException.getClass());
+        assertEquals("Aluno já matriculado na turma", ((ResponseStatusException) resolvedException).getReason());
+
+        assertEquals(requisicoesAntes + 1, comandos.count());
+        assertEquals(comandosAntes, comandos.totalAmount());
+
+    }
+
+    private MockHttpServletRequestBuilder matricular(Aluno aluno) throws Exception {
+        return matricular(this.turma, aluno);
+    }
+
+    private MockHttpServletRequestBuilder matricular(Turma turma, Aluno aluno) throws Exception {
+        String payloadRequest = mapper.writeValueAsString(new AlunoAMatricularRequest(aluno.getId()));
+
+        return post("/turmas/{id}/alunos", turma.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(payloadRequest);
+    }
+}
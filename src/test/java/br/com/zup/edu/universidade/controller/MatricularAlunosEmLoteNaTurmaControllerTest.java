@@ -0,0 +1,252 @@
+package br.com.zup.edu.universidade.controller;
+
+import br.com.zup.edu.universidade.controller.request.AlunosAMatricularRequest;
+import br.com.zup.edu.universidade.model.*;
+import br.com.zup.edu.universidade.repository.*;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc(printOnlyOnFailure = false)
+@ActiveProfiles("test")
+class MatricularAlunosEmLoteNaTurmaControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    @Autowired
+    private MatriculaRepository matriculaRepository;
+
+    @Autowired
+    private RespostaAvaliacaoRepository respostaAvaliacaoRepository;
+
+    private Professor professor;
+
+    private Disciplina disciplina;
+
+    private Turma turma;
+
+    private Aluno alunoA;
+
+    private Aluno alunoB;
+
+    @BeforeEach
+    void setUp() {
+        this.turmaRepository.deleteAll();
+        this.respostaAvaliacaoRepository.deleteAll();
+        this.alunoRepository.deleteAll();
+        this.disciplinaRepository.deleteAll();
+        this.professorRepository.deleteAll();
+
+        this.professor = new Professor("Rafael", "P01");
+        this.disciplina = new Disciplina("Testes", "TST", "Testes de integracao", 40);
+        this.professorRepository.save(professor);
+        this.disciplinaRepository.save(disciplina);
+
+        this.turma = new Turma(disciplina, LocalDate.now(), LocalDate.now().plusMonths(4), professor);
+        this.turmaRepository.save(turma);
+
+        this.alunoA = new Aluno("Antonio", "AE13", LocalDate.now());
+        this.alunoB = new Aluno("Maria", "AE14", LocalDate.now());
+        this.alunoRepository.saveAll(List.of(alunoA, alunoB));
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.turmaRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Não deve matricular alunos em lote em uma turma não cadastrada")
+    void naoDeveMatricularAlunosEmLoteEmUmaTurmaNaoCadastrada() throws Exception {
+
+        // Cenário
+        AlunosAMatricularRequest alunosAMatricularRequest = new AlunosAMatricularRequest(List.of(this.alunoA.getId()));
+
+        String payloadRequest = mapper.writeValueAsString(alunosAMatricularRequest);
+
+        MockHttpServletRequestBuilder request = post("/turmas/{id}/alunos:batch", Long.MAX_VALUE)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(payloadRequest);
+
+        // Ação e Corretude
+        Exception resolvedException = mockMvc.perform(request)
+                .andExpect(
+                        status().isNotFound()
+                )
+                .andReturn()
+                .getResolvedException();
+
+        // Asserts
+        assertNotNull(resolvedException);
+        assertEquals(ResponseStatusException.class, resolvedException.getClass());
+        assertEquals("Turma nao cadastrada", ((ResponseStatusException) resolvedException).getReason());
+
+    }
+
+    @Test
+    @DisplayName("Deve matricular alunos em lote informando a situação de cada aluno")
+    void deveMatricularAlunosEmLoteInformandoASituacaoDeCadaAluno() throws Exception {
+
+        // Cenário
+        this.matriculaRepository.matricular(this.turma.getId(), List.of(this.alunoA.getId()));
+
+        AlunosAMatricularRequest alunosAMatricularRequest = new AlunosAMatricularRequest(
+                List.of(this.alunoA.getId(), this.alunoB.getId(), this.alunoB.getId(), Long.MAX_VALUE)
+        );
+
+        String payloadRequest = mapper.writeValueAsString(alunosAMatricularRequest);
+
+        MockHttpServletRequestBuilder request = post("/turmas/{id}/alunos:batch", this.turma.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(payloadRequest);
+
+        // Ação e Corretude
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].situacao").value("JA_MATRICULADO"))
+                .andExpect(jsonPath("$[1].situacao").value("MATRICULADO"))
+                .andExpect(jsonPath("$[2].situacao").value("ALUNO_NAO_CADASTRADO"));
+
+        // Asserts
+        Set<Long> matriculados = this.matriculaRepository.buscarMatriculados(
+                this.turma.getId(),
+                List.of(this.alunoA.getId(), this.alunoB.getId())
+        );
+
+        assertEquals(Set.of(this.alunoA.getId(), this.alunoB.getId()), matriculados);
+
+    }
+
+    @Test
+    @DisplayName("Deve matricular só os alunos que couberem nas vagas e informar os demais como sem vagas")
+    void deveMatricularSoOsAlunosQueCouberemNasVagasEInformarOsDemaisComoSemVagas() throws Exception {
+
+        // Cenário
+        Turma turmaPequena = new Turma(this.disciplina, LocalDate.now(), LocalDate.now().plusMonths(4), this.professor, 2);
+        this.turmaRepository.save(turmaPequena);
+
+        Aluno alunoC = new Aluno("Joao", "AE15", LocalDate.now());
+        Aluno alunoD = new Aluno("Ana", "AE16", LocalDate.now());
+        this.alunoRepository.saveAll(List.of(alunoC, alunoD));
+
+        AlunosAMatricularRequest alunosAMatricularRequest = new AlunosAMatricularRequest(
+                List.of(alunoD.getId(), this.alunoB.getId(), alunoC.getId(), this.alunoA.getId())
+        );
+
+        MockHttpServletRequestBuilder request = post("/turmas/{id}/alunos:batch", turmaPequena.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(alunosAMatricularRequest));
+
+        // Ação e Corretude
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(4))
+                .andExpect(jsonPath("$[0].situacao").value("SEM_VAGAS"))
+                .andExpect(jsonPath("$[1].situacao").value("MATRICULADO"))
+                .andExpect(jsonPath("$[2].situacao").value("SEM_VAGAS"))
+                .andExpect(jsonPath("$[3].situacao").value("MATRICULADO"));
+
+        // Asserts
+        Set<Long> matriculados = this.matriculaRepository.buscarMatriculados(
+                turmaPequena.getId(),
+                List.of(this.alunoA.getId(), this.alunoB.getId(), alunoC.getId(), alunoD.getId())
+        );
+
+        assertEquals(Set.of(this.alunoA.getId(), this.alunoB.getId()), matriculados);
+        assertEquals(2, this.turmaRepository.findById(turmaPequena.getId()).orElseThrow().getMatriculados());
+
+    }
+
+    @Test
+    @DisplayName("Deve informar cada aluno como matriculado uma única vez com lotes simultâneos")
+    void deveInformarCadaAlunoComoMatriculadoUmaUnicaVezComLotesSimultaneos() throws Exception {
+
+        // Cenário
+        int lotes = 8;
+        String payloadRequest = mapper.writeValueAsString(
+                new AlunosAMatricularRequest(List.of(this.alunoA.getId(), this.alunoB.getId()))
+        );
+
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService matriculadores = Executors.newFixedThreadPool(lotes);
+
+        // Ação
+        List<Future<String>> respostas = new ArrayList<>();
+        try {
+            for (int i = 0; i < lotes; i++) {
+                respostas.add(matriculadores.submit(() -> {
+                    largada.await();
+                    return mockMvc.perform(post("/turmas/{id}/alunos:batch", this.turma.getId())
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(payloadRequest))
+                            .andExpect(status().isOk())
+                            .andReturn()
+                            .getResponse()
+                            .getContentAsString();
+                }));
+            }
+            largada.countDown();
+
+            Map<Long, Integer> matriculadoPorAluno = new HashMap<>();
+            for (Future<String> resposta : respostas) {
+                for (JsonNode resultado : mapper.readTree(resposta.get())) {
+                    if ("MATRICULADO".equals(resultado.get("situacao").asText())) {
+                        matriculadoPorAluno.merge(resultado.get("idAluno").asLong(), 1, Integer::sum);
+                    }
+                }
+            }
+
+            // Asserts
+            assertEquals(Map.of(this.alunoA.getId(), 1, this.alunoB.getId(), 1), matriculadoPorAluno);
+        } finally {
+            matriculadores.shutdownNow();
+        }
+
+    }
+
+}
@@ -2,20 +2,31 @@ package br.com.zup.edu.universidade.controller;
 
 import br.com.zup.edu.universidade.model.*;
 import br.com.zup.edu.universidade.repository.*;
+import br.com.zup.edu.universidade.service.AdmissaoDeMatriculas;
+import br.com.zup.edu.universidade.service.IndiceDeMatriculas;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -33,6 +44,15 @@ class RemoverAlunoControllerTest {
     @Autowired
     private AlunoRepository alunoRepository;
 
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
     @Autowired
     private AvaliacaoRepository avaliacaoRepository;
 
@@ -45,13 +65,58 @@ class RemoverAlunoControllerTest {
     @Autowired
     private RespostaQuestaoRepository respostaQuestaoRepository;
 
+    @Autowired
+    private SubmissaoPendenteRepository submissaoPendenteRepository;
+
+    @Autowired
+    private MatriculaRepository matriculaRepository;
+
+    @Autowired
+    private ListaDeEsperaRepository listaDeEsperaRepository;
+
+    @Autowired
+    private AdmissaoDeMatriculas admissao;
+
+    @Autowired
+    private IndiceDeMatriculas indice;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Professor professor;
+
+    private Disciplina disciplina;
+
+    private Turma turma;
+
     @BeforeEach
     void setUp() {
         this.respostaQuestaoRepository.deleteAll();
         this.respostaAvaliacaoRepository.deleteAll();
         this.avaliacaoRepository.deleteAll();
+        this.turmaRepository.deleteAll();
         this.questaoRepository.deleteAll();
         this.alunoRepository.deleteAll();
+        this.disciplinaRepository.deleteAll();
+        this.professorRepository.deleteAll();
+
+        this.professor = new Professor("Rafael", "P01");
+        this.disciplina = new Disciplina("Testes", "TST", "Testes de integracao", 40);
+        this.professorRepository.save(professor);
+        this.disciplinaRepository.save(disciplina);
+
+        this.turma = new Turma(disciplina, LocalDate.now(), LocalDate.now().plusMonths(4), professor);
+        this.turmaRepository.save(turma);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.respostaAvaliacaoRepository.deleteAll();
+        this.avaliacaoRepository.deleteAll();
+        this.turmaRepository.deleteAll();
     }
 
     @Test
@@ -87,7 +152,7 @@ class RemoverAlunoControllerTest {
         Questao questaoA = new Questao("Questão A", "Resposta A", BigDecimal.ZERO);
         Questao questaoB = new Questao("Questão B", "Resposta B", BigDecimal.ONE);
         Questao questaoC = new Questao("Questão C", "Resposta C", BigDecimal.TEN);
-        Avaliacao avaliacao = new Avaliacao(Set.of(questaoA, questaoB, questaoC));
+        Avaliacao avaliacao = new Avaliacao(this.turma, Set.of(questaoA, questaoB, questaoC));
         this.avaliacaoRepository.save(avaliacao);
 
         RespostaQuestao respostaQuestaoA = new RespostaQuestao(aluno, questaoA, "Resposta da questão A");
@@ -112,4 +177,136 @@ class RemoverAlunoControllerTest {
 
     }
 
+    @Test
+    @DisplayName("Deve passar as vagas do aluno removido para a lista de espera de cada turma")
+    void devePassarAsVagasDoAlunoRemovidoParaAListaDeEsperaDeCadaTurma() throws Exception {
+
+        // Cenário
+        Aluno removido = new Aluno("Antonio", "AE13", LocalDate.now());
+        Aluno naFila = new Aluno("Maria", "AE14", LocalDate.now());
+        this.alunoRepository.saveAll(List.of(removido, naFila));
+
+        Turma turmaLotada = new Turma(this.disciplina, LocalDate.now(), LocalDate.now().plusMonths(4), this.professor, 1);
+        this.turmaRepository.save(turmaLotada);
+        this.admissao.turmaCadastrada(turmaLotada.getId(), 1);
+
+        this.admissao.matricular(turmaLotada.getId(), List.of(removido.getId()));
+        this.admissao.matricular(this.turma.getId(), List.of(removido.getId()));
+        this.listaDeEsperaRepository.entrar(turmaLotada.getId(), naFila.getId());
+        assertFalse(this.indice.isMatriculado(turmaLotada.getId(), naFila.getId()));
+
+        MockHttpServletRequestBuilder request = delete("/alunos/{id}", removido.getId());
+
+        // Ação e Corretude
+        mockMvc.perform(request)
+                .andExpect(
+                        status().isNoContent()
+                );
+
+        // Asserts
+        assertEquals(Set.of(naFila.getId()), this.matriculaRepository.buscarMatriculados(turmaLotada.getId(), List.of(removido.getId(), naFila.getId())));
+        assertEquals(Optional.empty(), this.listaDeEsperaRepository.buscarPosicao(turmaLotada.getId(), naFila.getId()));
+        assertEquals(1, this.turmaRepository.findById(turmaLotada.getId()).orElseThrow().getMatriculados());
+        assertEquals(0, this.turmaRepository.findById(this.turma.getId()).orElseThrow().getMatriculados());
+        assertTrue(this.indice.isMatriculado(turmaLotada.getId(), naFila.getId()));
+        // Continua lotada: no maximo uma consulta por segundo passa ate o banco
+        assertFalse(this.admissao.temVaga(turmaLotada.getId()) && this.admissao.temVaga(turmaLotada.getId()));
+
+    }
+
+    @Test
+    @DisplayName("Remoção em lote deve marcar como falha as submissões pendentes do aluno")
+    void remocaoEmLoteDeveMarcarComoFalhaAsSubmissoesPendentesDoAluno() {
+
+        // Cenário
+        Aluno aluno = new Aluno("Antonio", "AE13", LocalDate.now());
+        this.alunoRepository.save(aluno);
+
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+
+        // Ação (na mesma transacao, para que nenhum trabalhador veja a submissao pendente)
+        SubmissaoPendente submissao = transacao.execute(status -> {
+            SubmissaoPendente pendente = this.submissaoPendenteRepository.save(
+                    new SubmissaoPendente(aluno.getId(), Long.MAX_VALUE, "{\"respostas\":[]}")
+            );
+            this.submissaoPendenteRepository.flush();
+            this.alunoRepository.removerEmLote(aluno.getId());
+            return pendente;
+        });
+
+        // Asserts
+        SubmissaoPendente falha = this.submissaoPendenteRepository.findById(submissao.getId()).orElseThrow();
+        assertEquals(SituacaoSubmissao.FALHOU, falha.getSituacao());
+        assertEquals("Aluno removido", falha.getMensagemDeErro());
+
+        this.submissaoPendenteRepository.delete(falha);
+
+    }
+
+    @Test
+    @DisplayName("Remoção em lote deve remover as mesmas linhas que a remoção em cascata das entidades")
+    void remocaoEmLoteDeveRemoverAsMesmasLinhasQueARemocaoEmCascataDasEntidades() {
+
+        // Cenário
+        Aluno alunoRemovidoEmCascata = cadastrarAlunoComDuasAvaliacoesRespondidas("AE13");
+        Aluno alunoRemovidoEmLote = cadastrarAlunoComDuasAvaliacoesRespondidas("AE14");
+
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+
+        // Ação
+        Map<String, Integer> antesDaCascata = contarLinhas();
+        transacao.executeWithoutResult(status -> this.alunoRepository.delete(
+                this.alunoRepository.findById(alunoRemovidoEmCascata.getId()).orElseThrow()
+        ));
+        Map<String, Integer> removidasEmCascata = diferenca(antesDaCascata, contarLinhas());
+
+        Map<String, Integer> antesDoLote = contarLinhas();
+        Integer removidasInformadas = transacao.execute(status -> this.alunoRepository.removerEmLote(alunoRemovidoEmLote.getId()));
+        Map<String, Integer> removidasEmLote = diferenca(antesDoLote, contarLinhas());
+
+        // Asserts
+        assertEquals(removidasEmCascata, removidasEmLote);
+        assertEquals(removidasEmLote.values().stream().mapToInt(Integer::intValue).sum(), removidasInformadas);
+        assertEquals(1, removidasEmLote.get("aluno"));
+        assertEquals(2, removidasEmLote.get("resposta_avaliacao"));
+        assertEquals(4, removidasEmLote.get("resposta_questao"));
+        assertFalse(this.alunoRepository.existsById(alunoRemovidoEmLote.getId()));
+
+    }
+
+    private Aluno cadastrarAlunoComDuasAvaliacoesRespondidas(String matricula) {
+        Aluno aluno = new Aluno("Antonio", matricula, LocalDate.now());
+        this.alunoRepository.save(aluno);
+
+        for (int i = 0; i < 2; i++) {
+            Questao questaoA = new Questao("Questão A", "Resposta A", BigDecimal.ONE);
+            Questao questaoB = new Questao("Questão B", "Resposta B", BigDecimal.TEN);
+            Avaliacao avaliacao = new Avaliacao(this.turma, Set.of(questaoA, questaoB));
+            this.avaliacaoRepository.save(avaliacao);
+
+            Set<RespostaQuestao> respostas = Set.of(
+                    new RespostaQuestao(aluno, questaoA, "Resposta A"),
+                    new RespostaQuestao(aluno, questaoB, "Resposta B")
+            );
+            this.respostaAvaliacaoRepository.save(new RespostaAvaliacao(aluno, avaliacao, respostas));
+        }
+
+        return aluno;
+    }
+
+    private Map<String, Integer> contarLinhas() {
+        return List.of("aluno", "resposta_avaliacao", "resposta_avaliacao_respostas", "resposta_questao", "turma_alunos")
+                .stream()
+                .collect(Collectors.toMap(
+                        Function.identity(),
+                        tabela -> this.jdbcTemplate.queryForObject("select count(*) from " + tabela, Integer.class)
+                ));
+    }
+
+    private Map<String, Integer> diferenca(Map<String, Integer> antes, Map<String, Integer> depois) {
+        return antes.keySet()
+                .stream()
+                .collect(Collectors.toMap(Function.identity(), tabela -> antes.get(tabela) - depois.get(tabela)));
+    }
+
 }
\ No newline at end of file
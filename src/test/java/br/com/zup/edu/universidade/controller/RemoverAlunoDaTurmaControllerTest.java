@@ -0,0 +1,258 @@
+package br.com.zup.edu.universidade.controller;
+
+import br.com.zup.edu.universidade.model.*;
+import br.com.zup.edu.universidade.repository.*;
+import br.com.zup.edu.universidade.service.IndiceDeMatriculas;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc(printOnlyOnFailure = false)
+@ActiveProfiles("test")
+class RemoverAlunoDaTurmaControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    @Autowired
+    private MatriculaRepository matriculaRepository;
+
+    @Autowired
+    private RespostaAvaliacaoRepository respostaAvaliacaoRepository;
+
+    @Autowired
+    private IndiceDeMatriculas indice;
+
+    @Autowired
+    private ListaDeEsperaRepository listaDeEsperaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Turma turma;
+
+    private Aluno alunoA;
+
+    private Aluno alunoB;
+
+    @BeforeEach
+    void setUp() {
+        this.turmaRepository.deleteAll();
+        this.respostaAvaliacaoRepository.deleteAll();
+        this.alunoRepository.deleteAll();
+        this.disciplinaRepository.deleteAll();
+        this.professorRepository.deleteAll();
+
+        Professor professor = new Professor("Rafael", "P01");
+        Disciplina disciplina = new Disciplina("Testes", "TST", "Testes de integracao", 40);
+        this.professorRepository.save(professor);
+        this.disciplinaRepository.save(disciplina);
+
+        this.turma = new Turma(disciplina, LocalDate.now(), LocalDate.now().plusMonths(4), professor);
+        this.turmaRepository.save(turma);
+
+        this.alunoA = new Aluno("Antonio", "AE13", LocalDate.now());
+        this.alunoB = new Aluno("Maria", "AE14", LocalDate.now());
+        this.alunoRepository.saveAll(List.of(alunoA, alunoB));
+
+        this.matriculaRepository.matricular(this.turma.getId(), List.of(this.alunoA.getId()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.turmaRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Não deve desfazer a matrícula em uma turma não cadastrada")
+    void naoDeveDesfazerAMatriculaEmUmaTurmaNaoCadastrada() throws Exception {
+
+        // Cenário
+        MockHttpServletRequestBuilder request = delete("/turmas/{idTurma}/alunos/{idAluno}", Long.MAX_VALUE, this.alunoA.getId());
+
+        // Ação e Corretude
+        Exception resolvedException = mockMvc.perform(request)
+                .andExpect(
+                        status().isNotFound()
+                )
+                .andReturn()
+                .getResolvedException();
+
+        // Asserts
+        assertNotNull(resolvedException);
+        assertEquals(ResponseStatusException.class, resolvedException.getClass());
+        assertEquals("Turma nao cadastrada", ((ResponseStatusException) resolvedException).getReason());
+
+    }
+
+    @Test
+    @DisplayName("Não deve desfazer uma matrícula inexistente")
+    void naoDeveDesfazerUmaMatriculaInexistente() throws Exception {
+
+        // Cenário
+        MockHttpServletRequestBuilder request = delete("/turmas/{idTurma}/alunos/{idAluno}", this.turma.getId(), this.alunoB.getId());
+
+        // Ação e Corretude
+        Exception resolvedException = mockMvc.perform(request)
+                .andExpect(
+                        status().isUnprocessableEntity()
+                )
+                .andReturn()
+                .getResolvedException();
+
+        // Asserts
+        assertNotNull(resolvedException);
+        assertEquals(ResponseStatusException.class, resolvedException.getClass());
+        assertEquals("Não é posssivel desfazer uma matricula inexistente", ((ResponseStatusException) resolvedException).getReason());
+
+    }
+
+    @Test
+    @DisplayName("Deve desfazer a matrícula do aluno na turma")
+    void deveDesfazerAMatriculaDoAlunoNaTurma() throws Exception {
+
+        // Cenário
+        MockHttpServletRequestBuilder request = delete("/turmas/{idTurma}/alunos/{idAluno}", this.turma.getId(), this.alunoA.getId());
+
+        // Ação e Corretude
+        mockMvc.perform(request)
+                .andExpect(
+                        status().isNoContent()
+                );
+
+        // Asserts
+        assertEquals(Set.of(), this.matriculaRepository.buscarMatriculados(this.turma.getId(), List.of(this.alunoA.getId())));
+        assertEquals(0, this.turmaRepository.findById(this.turma.getId()).orElseThrow().getMatriculados());
+
+    }
+
+    @Test
+    @DisplayName("Deve desfazer a matrícula feita depois que a turma foi carregada no índice")
+    void deveDesfazerAMatriculaFeitaDepoisQueATurmaFoiCarregadaNoIndice() throws Exception {
+
+        // Cenário
+        assertFalse(this.indice.isMatriculado(this.turma.getId(), this.alunoB.getId()));
+        this.matriculaRepository.matricular(this.turma.getId(), List.of(this.alunoB.getId()));
+        MockHttpServletRequestBuilder request = delete("/turmas/{idTurma}/alunos/{idAluno}", this.turma.getId(), this.alunoB.getId());
+
+        // Ação e Corretude
+        mockMvc.perform(request)
+                .andExpect(
+                        status().isNoContent()
+                );
+
+        // Asserts
+        assertEquals(Set.of(), this.matriculaRepository.buscarMatriculados(this.turma.getId(), List.of(this.alunoB.getId())));
+
+    }
+
+    @Test
+    @DisplayName("Deve refletir a desmatrícula na turma já carregada sem gravá-la de novo")
+    void deveRefletirADesmatriculaNaTurmaJaCarregadaSemGravaLaDeNovo() {
+
+        // Cenário
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        Statistics estatisticas = this.entityManagerFactory.unwrap(SessionFactoryImplementor.class).getStatistics();
+
+        // Ação e Corretude
+        transacao.executeWithoutResult(status -> {
+            Turma carregada = this.turmaRepository.findById(this.turma.getId()).orElseThrow();
+            Aluno aluno = this.alunoRepository.findById(this.alunoA.getId()).orElseThrow();
+            assertTrue(carregada.isMatriculado(aluno));
+
+            assertTrue(this.matriculaRepository.desmatricular(this.turma.getId(), this.alunoA.getId()).isDesfeita());
+
+            assertFalse(carregada.isMatriculado(aluno));
+            carregada.adicionar(this.alunoRepository.findById(this.alunoB.getId()).orElseThrow());
+            estatisticas.clear();
+            this.entityManager.flush();
+            assertEquals(1, estatisticas.getPrepareStatementCount());
+        });
+
+        // Asserts
+        assertEquals(
+                Set.of(this.alunoB.getId()),
+                this.matriculaRepository.buscarMatriculados(this.turma.getId(), List.of(this.alunoA.getId(), this.alunoB.getId()))
+        );
+
+    }
+
+    @Test
+    @DisplayName("Deve refletir o aluno promovido da lista de espera só nas coleções já carregadas")
+    void deveRefletirOAlunoPromovidoDaListaDeEsperaSoNasColecoesJaCarregadas() {
+
+        // Cenário
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        Statistics estatisticas = this.entityManagerFactory.unwrap(SessionFactoryImplementor.class).getStatistics();
+        this.listaDeEsperaRepository.entrar(this.turma.getId(), this.alunoB.getId());
+
+        // Ação e Corretude
+        transacao.executeWithoutResult(status -> {
+            Turma carregada = this.turmaRepository.findById(this.turma.getId()).orElseThrow();
+            Aluno alunoA = this.alunoRepository.findById(this.alunoA.getId()).orElseThrow();
+            assertTrue(carregada.isMatriculado(alunoA));
+            estatisticas.clear();
+
+            assertEquals(
+                    List.of(this.alunoB.getId()),
+                    this.matriculaRepository.desmatricular(this.turma.getId(), this.alunoA.getId()).getPromovidos()
+            );
+
+            assertEquals(1, estatisticas.getEntityLoadCount());
+            assertFalse(carregada.isMatriculado(alunoA));
+            assertTrue(carregada.isMatriculado(this.entityManager.find(Aluno.class, this.alunoB.getId())));
+            estatisticas.clear();
+            this.entityManager.flush();
+            assertEquals(0, estatisticas.getPrepareStatementCount());
+        });
+
+        // Asserts
+        assertEquals(
+                Set.of(this.alunoB.getId()),
+                this.matriculaRepository.buscarMatriculados(this.turma.getId(), List.of(this.alunoA.getId(), this.alunoB.getId()))
+        );
+
+    }
+
+}
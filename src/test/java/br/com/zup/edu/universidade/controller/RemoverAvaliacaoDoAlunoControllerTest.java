@@ -0,0 +1,160 @@
+package br.com.zup.edu.universidade.controller;
+
+import br.com.zup.edu.universidade.model.*;
+import br.com.zup.edu.universidade.repository.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc(printOnlyOnFailure = false)
+@ActiveProfiles("test")
+class RemoverAvaliacaoDoAlunoControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    @Autowired
+    private AvaliacaoRepository avaliacaoRepository;
+
+    @Autowired
+    private QuestaoRepository questaoRepository;
+
+    @Autowired
+    private RespostaAvaliacaoRepository respostaAvaliacaoRepository;
+
+    @Autowired
+    private RespostaQuestaoRepository respostaQuestaoRepository;
+
+    private Aluno aluno;
+
+    private RespostaAvaliacao respostaAvaliacao;
+
+    private Set<RespostaQuestao> respostasQuestoes;
+
+    private Turma turma;
+
+    @BeforeEach
+    void setUp() {
+        this.respostaAvaliacaoRepository.deleteAll();
+        this.avaliacaoRepository.deleteAll();
+        this.turmaRepository.deleteAll();
+        this.questaoRepository.deleteAll();
+        this.alunoRepository.deleteAll();
+        this.disciplinaRepository.deleteAll();
+        this.professorRepository.deleteAll();
+
+        Professor professor = new Professor("Rafael", "P01");
+        Disciplina disciplina = new Disciplina("Testes", "TST", "Testes de integracao", 40);
+        this.professorRepository.save(professor);
+        this.disciplinaRepository.save(disciplina);
+
+        this.turma = new Turma(disciplina, LocalDate.now(), LocalDate.now().plusMonths(4), professor);
+        this.turmaRepository.save(turma);
+
+        this.aluno = new Aluno("Antonio", "AE13", LocalDate.now());
+        this.alunoRepository.save(aluno);
+
+        Questao questaoA = new Questao("Questão A", "Resposta A", BigDecimal.ONE);
+        Questao questaoB = new Questao("Questão B", "Resposta B", BigDecimal.TEN);
+        Avaliacao avaliacao = new Avaliacao(this.turma, Set.of(questaoA, questaoB));
+        this.avaliacaoRepository.save(avaliacao);
+
+        this.respostasQuestoes = Set.of(
+                new RespostaQuestao(aluno, questaoA, "Resposta A"),
+                new RespostaQuestao(aluno, questaoB, "Resposta errada")
+        );
+        this.respostaAvaliacao = new RespostaAvaliacao(aluno, avaliacao, respostasQuestoes);
+        this.respostaAvaliacaoRepository.save(respostaAvaliacao);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.respostaAvaliacaoRepository.deleteAll();
+        this.avaliacaoRepository.deleteAll();
+        this.turmaRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Não deve remover uma resposta de avaliação de outro aluno")
+    void naoDeveRemoverUmaRespostaDeAvaliacaoDeOutroAluno() throws Exception {
+
+        // Cenário
+        Aluno outroAluno = new Aluno("Maria", "AE14", LocalDate.now());
+        this.alunoRepository.save(outroAluno);
+
+        MockHttpServletRequestBuilder request = delete(
+                "/aluno/{idAluno}/respostas/{idResposta}",
+                outroAluno.getId(),
+                this.respostaAvaliacao.getId()
+        );
+
+        // Ação e Corretude
+        Exception resolvedException = mockMvc.perform(request)
+                .andExpect(
+                        status().isUnprocessableEntity()
+                )
+                .andReturn()
+                .getResolvedException();
+
+        // Asserts
+        assertNotNull(resolvedException);
+        assertEquals(ResponseStatusException.class, resolvedException.getClass());
+        assertEquals("Esta reposta de avaliacao não pertence a este aluno", ((ResponseStatusException) resolvedException).getReason());
+        assertTrue(this.respostaAvaliacaoRepository.existsById(this.respostaAvaliacao.getId()));
+
+    }
+
+    @Test
+    @DisplayName("Deve remover a resposta de avaliação do aluno e as respostas das questões")
+    void deveRemoverARespostaDeAvaliacaoDoAlunoEAsRespostasDasQuestoes() throws Exception {
+
+        // Cenário
+        MockHttpServletRequestBuilder request = delete(
+                "/aluno/{idAluno}/respostas/{idResposta}",
+                this.aluno.getId(),
+                this.respostaAvaliacao.getId()
+        );
+
+        // Ação e Corretude
+        mockMvc.perform(request)
+                .andExpect(
+                        status().isNoContent()
+                );
+
+        // Asserts
+        assertFalse(this.respostaAvaliacaoRepository.existsById(this.respostaAvaliacao.getId()));
+        assertTrue(this.respostasQuestoes.stream()
+                .noneMatch(rq -> this.respostaQuestaoRepository.existsById(rq.getId())));
+
+    }
+
+}
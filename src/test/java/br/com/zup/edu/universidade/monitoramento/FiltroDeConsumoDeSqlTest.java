@@ -0,0 +1,143 @@
+package br.com.zup.edu.universidade.monitoramento;
+
+import br.com.zup.edu.universidade.controller.request.AlunoAMatricularRequest;
+import br.com.zup.edu.universidade.exception.OrcamentoDeSqlExcedidoException;
+import br.com.zup.edu.universidade.model.*;
+import br.com.zup.edu.universidade.repository.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "universidade.sql.orcamento.comandos=3")
+@AutoConfigureMockMvc(printOnlyOnFailure = false)
+@ActiveProfiles("test")
+class FiltroDeConsumoDeSqlTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+
+    @Autowired
+    private TurmaRepository turmaRepository;
+
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    @Autowired
+    private MatriculaRepository matriculaRepository;
+
+    @Autowired
+    private RespostaAvaliacaoRepository respostaAvaliacaoRepository;
+
+    private Turma turma;
+
+    private Aluno alunoA;
+
+    private Aluno alunoB;
+
+    @BeforeEach
+    void setUp() {
+        this.turmaRepository.deleteAll();
+        this.respostaAvaliacaoRepository.deleteAll();
+        this.alunoRepository.deleteAll();
+        this.disciplinaRepository.deleteAll();
+        this.professorRepository.deleteAll();
+
+        Professor professor = new Professor("Rafael", "P01");
+        Disciplina disciplina = new Disciplina("Testes", "TST", "Testes de integracao", 40);
+        this.professorRepository.save(professor);
+        this.disciplinaRepository.save(disciplina);
+
+        this.turma = new Turma(disciplina, LocalDate.now(), LocalDate.now().plusMonths(4), professor);
+        this.turmaRepository.save(turma);
+
+        this.alunoA = new Aluno("Antonio", "AE13", LocalDate.now());
+        this.alunoB = new Aluno("Maria", "AE14", LocalDate.now());
+        this.alunoRepository.saveAll(List.of(alunoA, alunoB));
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.turmaRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Deve medir os comandos e as linhas de SQL de cada endpoint")
+    void deveMedirOsComandosEAsLinhasDeSqlDeCadaEndpoint() throws Exception {
+
+        // Cenário
+        this.matriculaRepository.matricular(this.turma.getId(), List.of(this.alunoA.getId(), this.alunoB.getId()));
+
+        DistributionSummary comandos = registry.summary("universidade.sql.comandos", "controlador", "ListarAlunosDaTurmaController", "metodo", "listar");
+        DistributionSummary linhas = registry.summary("universidade.sql.linhas", "controlador", "ListarAlunosDaTurmaController", "metodo", "listar");
+        long requisicoesAntes = comandos.count();
+        double comandosAntes = comandos.totalAmount();
+        double linhasAntes = linhas.totalAmount();
+
+        MockHttpServletRequestBuilder request = get("/turmas/{id}/alunos", this.turma.getId());
+
+        // Ação e Corretude
+        mockMvc.perform(request)
+                .andExpect(status().isOk());
+
+        // Asserts
+        assertEquals(requisicoesAntes + 1, comandos.count());
+        assertEquals(comandosAntes + 1, comandos.totalAmount());
+        assertEquals(linhasAntes + 2, linhas.totalAmount());
+
+    }
+
+    @Test
+    @DisplayName("Deve falhar a requisição que excede o orçamento de comandos SQL")
+    void deveFalharARequisicaoQueExcedeOOrcamentoDeComandosSql() throws Exception {
+
+        // Cenário
+        String payloadRequest = mapper.writeValueAsString(new AlunoAMatricularRequest(this.alunoA.getId()));
+
+        MockHttpServletRequestBuilder request = post("/turmas/{id}/alunos", this.turma.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(payloadRequest);
+
+        // Ação e Corretude
+        OrcamentoDeSqlExcedidoException excecao = assertThrows(
+                OrcamentoDeSqlExcedidoException.class,
+                () -> mockMvc.perform(request)
+        );
+
+        // Asserts
+        assertTrue(excecao.getMessage().startsWith("MatricularAlunoNaTurmaController.matricular excedeu o orcamento de SQL"));
+        assertEquals(1, registry.counter("universidade.sql.orcamento.excedido", "controlador", "MatricularAlunoNaTurmaController", "metodo", "matricular").count());
+
+    }
+
+}
@@ -0,0 +1,73 @@
+package br.com.zup.edu.universidade.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Confere, pelo {@code explain}, que as consultas dos caminhos principais (por aluno, por
+ * avaliacao, por turma) tem um indice para usar. As tabelas do teste sao pequenas demais para o
+ * planejador preferir um indice por conta propria, entao a varredura sequencial e desencorajada
+ * com {@code enable_seqscan = off}: ela so aparece no plano quando nao ha indice que sirva.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PlanosDeConsultaTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @ParameterizedTest(name = "{0}")
+    @DisplayName("Deve usar índice nas consultas principais")
+    @ValueSource(strings = {
+            "select nota from resposta_avaliacao where aluno_id = 1 and avaliacao_id = 1 order by id desc limit 1",
+            "select id from resposta_avaliacao where avaliacao_id = 1 and id > 0 order by id limit 100",
+            "select id from resposta_avaliacao where aluno_id = 1",
+            "select resposta_avaliacao_id from resposta_avaliacao_respostas where respostas_id = 1",
+            "select respostas_id from resposta_avaliacao_respostas where resposta_avaliacao_id = 1",
+            "select id from resposta_questao where aluno_id = 1",
+            "select id from resposta_questao where questao_id = 1",
+            "select questoes_id from avaliacao_questoes where avaliacao_id = 1",
+            "select avaliacao_id from avaliacao_questoes where questoes_id = 1",
+            "select alunos_id from turma_alunos where turmas_id = 1 and alunos_id > 0 order by alunos_id limit 100",
+            "select turmas_id from turma_alunos where alunos_id = 1 and turmas_id > 0 order by turmas_id limit 100",
+            "select id from turma where disciplina_id = 1",
+            "select id from turma where professor_id = 1",
+            "select id from aluno_em_espera where turma_id = 1 order by entrou_em, id limit 1",
+            "select id from aluno_em_espera where aluno_id = 1",
+            "select id from submissao_pendente where situacao = 'PENDENTE' order by id limit 100",
+            "select id from submissao_pendente where id_aluno = 1 and situacao = 'PENDENTE'"
+    })
+    void deveUsarIndiceNasConsultasPrincipais(String consulta) {
+
+        // Ação e Corretude
+        String plano = planejar(consulta);
+
+        // Asserts
+        assertThat(plano)
+                .contains("Index")
+                .doesNotContain("Seq Scan");
+
+    }
+
+    private String planejar(String consulta) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            jdbcTemplate.execute("set local enable_seqscan = off");
+            List<String> linhas = jdbcTemplate.queryForList("explain " + consulta, String.class);
+            return String.join("\n", linhas);
+        });
+    }
+}
@@ -0,0 +1,102 @@
+package br.com.zup.edu.universidade.util;
+
+import net.jqwik.api.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongHashSetTest {
+
+    @Property
+    @Label("Deve se comportar como um HashSet<Long> em qualquer sequência de inclusões e remoções")
+    void deveSeComportarComoUmHashSetEmQualquerSequenciaDeInclusoesERemocoes(@ForAll("operacoes") List<Operacao> operacoes) {
+
+        // Cenário
+        LongHashSet conjunto = new LongHashSet();
+        Set<Long> esperado = new HashSet<>();
+
+        // Ação e Corretude
+        for (Operacao operacao : operacoes) {
+            if (operacao.inclusao) {
+                assertEquals(esperado.add(operacao.valor), conjunto.add(operacao.valor));
+            } else {
+                assertEquals(esperado.remove(operacao.valor), conjunto.remove(operacao.valor));
+            }
+            assertEquals(esperado.size(), conjunto.size());
+        }
+
+        // Asserts
+        for (Operacao operacao : operacoes) {
+            assertEquals(esperado.contains(operacao.valor), conjunto.contains(operacao.valor));
+        }
+
+        long[] valores = conjunto.toArray();
+        Arrays.sort(valores);
+        assertArrayEquals(esperado.stream().mapToLong(Long::longValue).sorted().toArray(), valores);
+
+    }
+
+    @Property
+    @Label("Deve ficar vazio depois de remover tudo o que foi incluído")
+    void deveFicarVazioDepoisDeRemoverTudoOQueFoiIncluido(@ForAll("valores") List<Long> valores) {
+
+        // Cenário
+        LongHashSet conjunto = new LongHashSet(valores.size());
+        valores.forEach(conjunto::add);
+
+        // Ação e Corretude
+        valores.forEach(conjunto::remove);
+
+        // Asserts
+        assertTrue(conjunto.isEmpty());
+        for (Long valor : valores) {
+            assertFalse(conjunto.contains(valor));
+        }
+
+    }
+
+    @Provide
+    Arbitrary<List<Operacao>> operacoes() {
+        return Combinators.combine(Arbitraries.of(true, true, false), valor())
+                .as(Operacao::new)
+                .list()
+                .ofMaxSize(500);
+    }
+
+    @Provide
+    Arbitrary<List<Long>> valores() {
+        return valor().list().ofMaxSize(500);
+    }
+
+    /**
+     * Valores proximos (ids de sequencia), multiplos de potencias de dois (que disputam as mesmas
+     * posicoes da tabela), o zero e quaisquer outros.
+     */
+    private static Arbitrary<Long> valor() {
+        return Arbitraries.frequencyOf(
+                Tuple.of(4, Arbitraries.longs().between(-64, 64)),
+                Tuple.of(3, Arbitraries.longs().between(1, 64).map(valor -> valor << 32)),
+                Tuple.of(1, Arbitraries.just(0L)),
+                Tuple.of(2, Arbitraries.longs())
+        );
+    }
+
+    private static class Operacao {
+        private final boolean inclusao;
+        private final long valor;
+
+        private Operacao(boolean inclusao, long valor) {
+            this.inclusao = inclusao;
+            this.valor = valor;
+        }
+
+        @Override
+        public String toString() {
+            return (inclusao ? "+" : "-") + valor;
+        }
+    }
+}